@@ -13,11 +13,19 @@ package org.jboss.tools.openshift.common.core.connection;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.eclipse.osgi.util.NLS;
 import org.jboss.tools.openshift.common.core.utils.UrlUtils;
+import org.jboss.tools.openshift.internal.common.core.security.SecureStore;
+import org.jboss.tools.openshift.internal.common.core.security.SecureStoreException;
+import org.jboss.tools.openshift.internal.common.core.util.ThreadUtils;
 
 /**
  * @author Andre Dietisheim
@@ -25,21 +33,78 @@ import org.jboss.tools.openshift.common.core.utils.UrlUtils;
 public abstract class AbstractConnectionPersistency<C extends IConnection> {
 
 
+	/** the maximum number of connections that are restored in parallel */
+	private static final int MAX_PARALLEL_RESTORES = 4;
+
+	/**
+	 * Restores the persisted connections. The connections are created in
+	 * parallel, their credentials are not loaded until they're used.
+	 * The connections are returned in the order they were persisted. All
+	 * connections are returned even if the calling thread is interrupted,
+	 * the ones that were not restored yet are then restored in the calling
+	 * thread. Missing connections would be removed from the persisted ones
+	 * once they're saved.
+	 */
 	public Collection<C> load() {
 		List<C> connections = new ArrayList<C>();
 		String[] persistedConnections = loadPersisted();
-        for (String connectionUrl : persistedConnections) {
-        	addConnection(connectionUrl, connections);
+		if (persistedConnections == null
+				|| persistedConnections.length == 0) {
+			return connections;
+		}
+		if (persistedConnections.length == 1) {
+			addConnection(restoreConnection(persistedConnections[0]), connections);
+			return connections;
 		}
-        return connections;
+		ExecutorService executor = ThreadUtils.newBoundedExecutor(
+				"OpenShift connections restore", Math.min(MAX_PARALLEL_RESTORES, persistedConnections.length));
+		boolean interrupted = false;
+		try {
+			List<Future<C>> restored = new ArrayList<Future<C>>(persistedConnections.length);
+			for (final String connectionUrl : persistedConnections) {
+				restored.add(executor.submit(new Callable<C>() {
+
+					@Override
+					public C call() {
+						return restoreConnection(connectionUrl);
+					}
+				}));
+			}
+			for (int i = 0; i < restored.size(); i++) {
+				C connection = null;
+				if (!interrupted) {
+					try {
+						connection = restored.get(i).get();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					} catch (ExecutionException e) {
+						logError(NLS.bind("Could not add connection for {0}.", persistedConnections[i]), e);
+						continue;
+					}
+				}
+				if (interrupted) {
+					connection = restoreConnection(persistedConnections[i]);
+				}
+				addConnection(connection, connections);
+			}
+		} finally {
+			executor.shutdown();
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return connections;
 	}
 
-	private void addConnection(String connectionUrl, List<C> connections) {
+	private void addConnection(C connection, Collection<C> connections) {
+		if (connection != null) {
+			connections.add(connection);
+		}
+	}
+
+	private C restoreConnection(String connectionUrl) {
 		try {
-			C connection = createConnection(createConnectionURL(connectionUrl));
-			if (connection != null) {
-				connections.add(connection);
-			}
+			return createConnection(createConnectionURL(connectionUrl));
 		} catch (MalformedURLException e) {
 			logError(NLS.bind("Could not add connection for {0}.", connectionUrl), e);
 		} catch (UnsupportedEncodingException e) {
@@ -47,6 +112,7 @@ public abstract class AbstractConnectionPersistency<C extends IConnection> {
 		} catch (IllegalArgumentException e) {
 			logError(NLS.bind("Could not add connection for {0}.", connectionUrl), e);
 		}
+		return null;
 	}
 
 	private ConnectionURL createConnectionURL(String connectionUrl) throws UnsupportedEncodingException, MalformedURLException {
@@ -68,7 +134,23 @@ public abstract class AbstractConnectionPersistency<C extends IConnection> {
 		for (C connection : connections) {
 			addConnection(connection, serializedConnections);
 		}
-		persist(serializedConnections.toArray(new String[serializedConnections.size()]));
+		String[] persistedConnections = serializedConnections.toArray(new String[serializedConnections.size()]);
+		if (!Arrays.equals(persistedConnections, loadPersisted())) {
+			persist(persistedConnections);
+		}
+		flushCredentials();
+	}
+
+	/**
+	 * Writes the credentials that the connections changed but did not store
+	 * yet, all at once.
+	 */
+	private void flushCredentials() {
+		try {
+			SecureStore.flushAll();
+		} catch (SecureStoreException e) {
+			logError("Could not store the credentials of the connections.", e);
+		}
 	}
 
 	private void addConnection(C connection, List<String> serializedConnections) {
@@ -16,16 +16,33 @@ import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.osgi.util.NLS;
 import org.jboss.tools.common.databinding.ObservablePojo;
 import org.jboss.tools.openshift.common.core.OpenShiftCoreException;
+import org.jboss.tools.openshift.internal.common.core.OpenShiftCommonCoreActivator;
 
 /**
+ * A registry of connections that may be accessed concurrently. Reads see a
+ * snapshot of the connections and never block. Listeners are notified
+ * asynchronously, in the order of the changes, by a job that belongs to the
+ * family of this registry. Duplicate change events that are still waiting to be
+ * dispatched are coalesced.
+ * 
  * @author Rob Stryker
  * @author Andre Dietisheim
  * @author Jeff Cantrill
@@ -40,10 +57,17 @@ public class ConnectionsRegistry {
 	private static final int CHANGED = 2;
 
 	/** The most recent user connected on OpenShift. */
-	private IConnection recentConnection = null;
-	private Map<ConnectionURL, IConnection> connectionsByUrl = new HashMap<ConnectionURL, IConnection>();
-	private List<IConnectionsRegistryListener> listeners = new ArrayList<IConnectionsRegistryListener>();
+	private volatile IConnection recentConnection = null;
+	private ConcurrentMap<ConnectionURL, IConnection> connectionsByUrl = new ConcurrentHashMap<ConnectionURL, IConnection>();
+	/** the registered connection instances, copied on write, guarded by connectionsByUrl when written */
+	private volatile Set<IConnection> connections = Collections.emptySet();
+	private List<IConnectionsRegistryListener> listeners = new CopyOnWriteArrayList<IConnectionsRegistryListener>();
 	private PropertyChangeListener connectionListener = new ConnectionListener();
+	/** the events that were not dispatched yet, guarded by itself */
+	private LinkedList<ConnectionsEvent> events = new LinkedList<ConnectionsEvent>();
+	/** the change events that were not dispatched yet by connection, property and new value */
+	private Map<ChangeKey, ConnectionsEvent> pendingChanges = new HashMap<ChangeKey, ConnectionsEvent>();
+	private Job dispatchJob = new DispatchJob();
 	
 	public ConnectionsRegistry() {
 	}
@@ -83,11 +107,15 @@ public class ConnectionsRegistry {
 	}
 
 	protected boolean add(ConnectionURL connectionUrl, IConnection connection) {
-		if (connectionsByUrl.containsKey(connectionUrl)) {
-			return false;
+		synchronized (connectionsByUrl) {
+			if (connectionsByUrl.putIfAbsent(connectionUrl, connection) != null) {
+				return false;
+			}
+			Set<IConnection> connections = newIdentitySet(this.connections);
+			connections.add(connection);
+			this.connections = connections;
 		}
 		addPropertyChangeListener(connection);
-		connectionsByUrl.put(connectionUrl, connection);
 		this.recentConnection = connection;
 		fireChange(connection, ADDED);
 		return true;
@@ -104,6 +132,22 @@ public class ConnectionsRegistry {
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if the given connection instance is in this
+	 * registry. Unlike {@link #has(IConnection)} connections are compared by
+	 * identity, an equal connection that was registered instead of the given
+	 * one does not match.
+	 */
+	public boolean contains(IConnection connection) {
+		return connections.contains(connection);
+	}
+
+	private static Set<IConnection> newIdentitySet(Set<IConnection> connections) {
+		Set<IConnection> copy = Collections.newSetFromMap(new IdentityHashMap<IConnection, Boolean>());
+		copy.addAll(connections);
+		return copy;
+	}
+
 	// TODO: dont allow/require external trigger to changer notification
 	public void fireConnectionChanged(IConnection connection) {
 		fireConnectionChanged(connection, null, null, null);
@@ -119,10 +163,15 @@ public class ConnectionsRegistry {
 	public boolean remove(IConnection connection) {
 		try {
 			ConnectionURL connectionUrl = ConnectionURL.forConnection(connection);
-			if (!connectionsByUrl.containsKey(connectionUrl)) {
-				return false;
+			synchronized (connectionsByUrl) {
+				IConnection removed = connectionsByUrl.remove(connectionUrl);
+				if (removed == null) {
+					return false;
+				}
+				Set<IConnection> connections = newIdentitySet(this.connections);
+				connections.remove(removed);
+				this.connections = connections;
 			}
-			connectionsByUrl.remove(connectionUrl);
 			removePropertyChangeListener(connection);
 			
 			if (this.recentConnection == connection) {
@@ -144,22 +193,64 @@ public class ConnectionsRegistry {
 		if (connection == null) {
 			return;
 		}
-		Iterator<IConnectionsRegistryListener> i = listeners.iterator();
-		while (i.hasNext()) {
-			IConnectionsRegistryListener l = i.next();
-			switch (event) {
-			case ADDED:
-				l.connectionAdded(connection);
-				break;
-			case REMOVED:
-				l.connectionRemoved(connection);
-				break;
-			case CHANGED:
-				l.connectionChanged(connection, property, oldValue, newValue);
-				break;
-
-			default:
-				break;
+		synchronized (events) {
+			if (event == CHANGED) {
+				ChangeKey key = new ChangeKey(connection, property, newValue);
+				if (pendingChanges.containsKey(key)) {
+					// duplicate of a change that was not dispatched yet
+					return;
+				}
+				ConnectionsEvent change = new ConnectionsEvent(connection, event, property, oldValue, newValue);
+				pendingChanges.put(key, change);
+				events.add(change);
+			} else {
+				// changes that follow an addition or removal must not be merged into earlier ones
+				removePendingChanges(connection);
+				events.add(new ConnectionsEvent(connection, event, null, null, null));
+			}
+		}
+		dispatchJob.schedule();
+	}
+
+	private void removePendingChanges(IConnection connection) {
+		for (ChangeKey key : new ArrayList<ChangeKey>(pendingChanges.keySet())) {
+			if (key.connection == connection) {
+				pendingChanges.remove(key);
+			}
+		}
+	}
+
+	private ConnectionsEvent nextEvent() {
+		synchronized (events) {
+			ConnectionsEvent event = events.poll();
+			if (event != null
+					&& event.type == CHANGED) {
+				pendingChanges.remove(new ChangeKey(event.connection, event.property, event.newValue));
+			}
+			return event;
+		}
+	}
+
+	private void dispatch(ConnectionsEvent event) {
+		for (IConnectionsRegistryListener listener : listeners) {
+			try {
+				switch (event.type) {
+				case ADDED:
+					listener.connectionAdded(event.connection);
+					break;
+				case REMOVED:
+					listener.connectionRemoved(event.connection);
+					break;
+				case CHANGED:
+					listener.connectionChanged(event.connection, event.property, event.oldValue, event.newValue);
+					break;
+
+				default:
+					break;
+				}
+			} catch (RuntimeException e) {
+				OpenShiftCommonCoreActivator.pluginLog().logError(
+						NLS.bind("Could not notify listener {0} of a change to connection {1}", listener, event.connection.getHost()), e);
 			}
 		}
 	}
@@ -210,8 +301,11 @@ public class ConnectionsRegistry {
 		return connections;
 	}
 
+	/**
+	 * Returns a snapshot of all the connections in this registry.
+	 */
 	public Collection<IConnection> getAll() {
-		return connectionsByUrl.values();
+		return Collections.unmodifiableCollection(new ArrayList<IConnection>(connectionsByUrl.values()));
 	}
 	
 	public int size() {
@@ -251,5 +345,89 @@ public class ConnectionsRegistry {
 		}
 		
 	}
+
+	/**
+	 * Notifies the listeners of the queued events, one after the other.
+	 */
+	private class DispatchJob extends Job {
+
+		private DispatchJob() {
+			super("Notifying connection listeners");
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			ConnectionsEvent event = null;
+			while ((event = nextEvent()) != null) {
+				dispatch(event);
+			}
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == ConnectionsRegistry.this;
+		}
+	}
+
+	private static class ConnectionsEvent {
+
+		private final IConnection connection;
+		private final int type;
+		private final String property;
+		private final Object oldValue;
+		private final Object newValue;
+
+		private ConnectionsEvent(IConnection connection, int type, String property, Object oldValue, Object newValue) {
+			this.connection = connection;
+			this.type = type;
+			this.property = property;
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+	}
+
+	/**
+	 * Identifies duplicate change events: the same connection and new value
+	 * for the same property. Connections and values are compared by identity
+	 * since they may be mutable.
+	 */
+	private static class ChangeKey {
+
+		private final IConnection connection;
+		private final String property;
+		private final Object newValue;
+
+		private ChangeKey(IConnection connection, String property, Object newValue) {
+			this.connection = connection;
+			this.property = property;
+			this.newValue = newValue;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + System.identityHashCode(connection);
+			result = prime * result + ((property == null) ? 0 : property.hashCode());
+			result = prime * result + System.identityHashCode(newValue);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ChangeKey)) {
+				return false;
+			}
+			ChangeKey other = (ChangeKey) obj;
+			return connection == other.connection
+					&& (property == null ? other.property == null : property.equals(other.property))
+					&& newValue == other.newValue;
+		}
+	}
 	
 }
@@ -10,9 +10,13 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.internal.common.core.security;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.equinox.security.storage.EncodingUtils;
@@ -22,11 +26,15 @@ import org.eclipse.equinox.security.storage.StorageException;
 import org.eclipse.osgi.util.NLS;
 
 /**
- * A store that persists values in a secure way.
- * 
+ * A store that persists values in a secure way. Values are decrypted once and
+ * cached. Changed values are staged and are only encrypted and written to the
+ * secure storage when the store is flushed. Stores that are shared by key
+ * ({@link #getInstance(IStoreKey)}) may be flushed all at once with a single
+ * write to disk ({@link #flushAll()}).
+ *
  * @author Andre Dietisheim
  * @author Xavier Coulon
- * 
+ *
  */
 public class SecureStore {
 
@@ -34,15 +42,60 @@ public class SecureStore {
 		public String getKey();
 	}
 
+	private static final ConcurrentMap<String, SecureStore> stores = new ConcurrentHashMap<String, SecureStore>();
+
+	/** the values that were loaded or stored, <code>null</code> values are known to be absent */
 	private Map<String, String> values;
+	/** the changes that were not written yet, <code>null</code> values are removals */
+	private Map<String, String> changes;
 	private IStoreKey storeKey;
+	/** the storage node for the key, looked up once */
+	private ISecurePreferences node;
 
 	public SecureStore(IStoreKey key) {
 		this.storeKey = key;
 		this.values = new HashMap<String, String>();
+		this.changes = new HashMap<String, String>();
+	}
+
+	/**
+	 * Returns the store for the given key. The store (and its cached values)
+	 * is shared by all callers that use the same key.
+	 */
+	public static SecureStore getInstance(IStoreKey key) {
+		String id = key.getKey();
+		SecureStore store = stores.get(id);
+		if (store == null) {
+			SecureStore newStore = new SecureStore(key);
+			store = stores.putIfAbsent(id, newStore);
+			if (store == null) {
+				store = newStore;
+			}
+		}
+		return store;
+	}
+
+	/**
+	 * Writes the staged changes of all shared stores and saves the secure
+	 * storage once.
+	 */
+	public static void flushAll() throws SecureStoreException {
+		boolean changed = false;
+		for (SecureStore store : stores.values()) {
+			changed |= store.writeChanges();
+		}
+		if (changed) {
+			save();
+		}
 	}
 
-	public String get(String id) throws SecureStoreException {
+	public synchronized String get(String id) throws SecureStoreException {
+		if (changes.containsKey(id)) {
+			return changes.get(id);
+		}
+		if (values.containsKey(id)) {
+			return values.get(id);
+		}
 		try {
 			String value = get(id, storeKey);
 			values.put(id, value);
@@ -52,13 +105,24 @@ public class SecureStore {
 		}
 	}
 
-	public void put(String id, String value) throws SecureStoreException {
+	/**
+	 * Stages the given value. It is written to the secure storage when this
+	 * store is flushed.
+	 *
+	 * @see #flush()
+	 */
+	public synchronized void put(String id, String value) throws SecureStoreException {
 		if (isValueChanged(id, value)) {
-			store(id, value, storeKey);
+			changes.put(id, value);
+		} else {
+			changes.remove(id);
 		}
 	}
 
 	private boolean isValueChanged(String id, String value) {
+		if (!values.containsKey(id)) {
+			return true;
+		}
 		String cachedValue = values.get(id);
 		if (cachedValue == null) {
 			return value != null;
@@ -67,24 +131,66 @@ public class SecureStore {
 		}
 	}
 
-	public void remove(String id) throws SecureStoreException {
-		try {
-			getNode(storeKey).remove(id);
-			values.remove(id);
-		} catch (Exception e) {
-			throw new SecureStoreException(NLS.bind("Could not remove value {0}", id), e);
-		}
+	/**
+	 * Stages the removal of the given value. It is removed from the secure
+	 * storage when this store is flushed.
+	 *
+	 * @see #flush()
+	 */
+	public synchronized void remove(String id) throws SecureStoreException {
+		put(id, null);
 	}
 
-	public void clear() throws SecureStoreException {
+	public synchronized void clear() throws SecureStoreException {
 		try {
 			getNode(storeKey).clear();
 			values.clear();
+			changes.clear();
 		} catch (Exception e) {
 			throw new SecureStoreException(NLS.bind("Could not remove storage node {0}", storeKey.getKey()), e);
 		}
 	}
-	
+
+	/**
+	 * Writes the staged changes of this store and saves the secure storage.
+	 * Does nothing if there are no changes.
+	 */
+	public void flush() throws SecureStoreException {
+		if (writeChanges()) {
+			save();
+		}
+	}
+
+	/**
+	 * Writes the staged changes to the secure storage (in memory). Returns
+	 * <code>true</code> if there were changes.
+	 */
+	private synchronized boolean writeChanges() throws SecureStoreException {
+		if (changes.isEmpty()) {
+			return false;
+		}
+		for (Map.Entry<String, String> change : new ArrayList<Map.Entry<String, String>>(changes.entrySet())) {
+			String id = change.getKey();
+			String value = change.getValue();
+			if (value == null) {
+				remove(id, storeKey);
+			} else {
+				store(id, value, storeKey);
+			}
+			values.put(id, value);
+			changes.remove(id);
+		}
+		return true;
+	}
+
+	private static void save() throws SecureStoreException {
+		try {
+			SecurePreferencesFactory.getDefault().flush();
+		} catch (IOException e) {
+			throw new SecureStoreException("Could not save the secure storage", e);
+		}
+	}
+
 	private String get(String id, IStoreKey key) throws StorageException, UnsupportedEncodingException, SecureStoreException {
 		if (StringUtils.isEmpty(id)
 				|| key == null) {
@@ -99,23 +205,34 @@ public class SecureStore {
 
 	private void store(String id, String value, IStoreKey key) throws SecureStoreException {
 		try {
-			getNode(storeKey).put(id, EncodingUtils.encodeBase64(value.getBytes()), true /* encrypt */); // $NON-NLS-1$
+			getNode(key).put(id, EncodingUtils.encodeBase64(value.getBytes()), true /* encrypt */); // $NON-NLS-1$
 		} catch (Exception e) {
 			throw new SecureStoreException(NLS.bind("Could not store value {0}: {1}", id, value), e);
 		}
 	}
 
+	private void remove(String id, IStoreKey key) throws SecureStoreException {
+		try {
+			getNode(key).remove(id);
+		} catch (Exception e) {
+			throw new SecureStoreException(NLS.bind("Could not remove value {0}", id), e);
+		}
+	}
+
 	private ISecurePreferences getNode(IStoreKey key) throws UnsupportedEncodingException, SecureStoreException {
 		if (key == null) {
 			throw new SecureStoreException("storage key is null.");
 		}
+		if (node != null) {
+			return node;
+		}
 
 		ISecurePreferences root = SecurePreferencesFactory.getDefault();
 		ISecurePreferences node = root.node(key.getKey());
 		if (node == null) {
 			throw new SecureStoreException(NLS.bind("Could find storage node {0}", key.getKey()));
 		}
-		return node;
+		return this.node = node;
 
 	}
 }
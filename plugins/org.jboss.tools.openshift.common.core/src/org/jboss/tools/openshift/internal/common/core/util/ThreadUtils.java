@@ -15,8 +15,13 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Andre Dietisheim
@@ -43,4 +48,53 @@ public class ThreadUtils {
 		return null;
 	}
 
+	/**
+	 * Creates an executor that runs at most the given number of tasks
+	 * concurrently and queues the remaining ones. Its threads are daemon
+	 * threads that are named after the given name and that terminate once
+	 * they're idle for a while.
+	 * 
+	 * @param name the name for the threads of this executor
+	 * @param maxThreads the maximum number of concurrent threads
+	 * @return the executor
+	 */
+	public static ExecutorService newBoundedExecutor(final String name, int maxThreads) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 
+				30, TimeUnit.SECONDS, 
+				new LinkedBlockingQueue<Runnable>(), 
+				newDaemonThreadFactory(name));
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Creates an executor that runs each task right away, in a new thread if
+	 * no idle one is available. Meant for tasks that block for a long time
+	 * (ex. following a log) and thus must not wait in a queue. Its threads
+	 * are daemon threads that are named after the given name and that
+	 * terminate once they're idle for a while.
+	 * 
+	 * @param name the name for the threads of this executor
+	 * @return the executor
+	 */
+	public static ExecutorService newUnboundedExecutor(final String name) {
+		return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 
+				30, TimeUnit.SECONDS, 
+				new SynchronousQueue<Runnable>(), 
+				newDaemonThreadFactory(name));
+	}
+
+	private static ThreadFactory newDaemonThreadFactory(final String name) {
+		return new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+			
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, name + " #" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
 }
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.internal.common.ui.console;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+
+import org.eclipse.ui.console.MessageConsoleStream;
+import org.jboss.tools.openshift.internal.common.core.util.ThreadUtils;
+
+/**
+ * Pipes an input stream (ex. a log) into a console stream. The input is read
+ * in large chunks and decoded incrementally. The decoded text is written to
+ * the console in batches: whenever the batch is full, the input has no more
+ * data available right away or the flush interval elapsed. Writing to the
+ * console blocks while the console is lagging behind, which in turn stops
+ * reading from the input. A pipe blocks its thread for as long as the input is
+ * open (ex. while a log is followed), the pipes thus share an unbounded pool
+ * of daemon threads so that none of them waits for another one to end. The
+ * console is kept within its limits by
+ * {@link ConsoleUtils#setBounded(org.eclipse.ui.console.MessageConsole)}.
+ */
+public class ConsoleStreamPipe implements Runnable {
+
+	/** the number of chars that are read at once */
+	public static final int READ_BUFFER_SIZE = 8 * 1024;
+	/** the number of chars that are written to the console at once */
+	public static final int FLUSH_SIZE = 64 * 1024;
+	/** the maximum delay in milliseconds before text that was read is written to the console */
+	public static final long FLUSH_INTERVAL = 200;
+
+	private static final String DOCUMENT_IS_CLOSED = "Document is closed";
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final ExecutorService EXECUTOR =
+			ThreadUtils.newUnboundedExecutor("OpenShift console stream");
+
+	private final InputStream input;
+	private final MessageConsoleStream stream;
+	private volatile boolean running = true;
+
+	public ConsoleStreamPipe(InputStream input, MessageConsoleStream stream) {
+		this.input = input;
+		this.stream = stream;
+		ConsoleUtils.setBounded(stream.getConsole());
+	}
+
+	/**
+	 * Starts piping in a thread of the shared pool.
+	 */
+	public void start() {
+		EXECUTOR.execute(this);
+	}
+
+	/**
+	 * Stops piping. Text that was read but not written yet is discarded.
+	 */
+	public void stop() {
+		this.running = false;
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	@Override
+	public void run() {
+		StringBuilder batch = new StringBuilder(FLUSH_SIZE);
+		try (Reader reader = new InputStreamReader(input, UTF_8)) {
+			char[] buffer = new char[READ_BUFFER_SIZE];
+			long lastFlush = System.currentTimeMillis();
+			int read = -1;
+			while (running
+					&& (read = reader.read(buffer)) != -1) {
+				batch.append(buffer, 0, read);
+				long now = System.currentTimeMillis();
+				if (batch.length() >= FLUSH_SIZE
+						|| now - lastFlush >= FLUSH_INTERVAL
+						|| !reader.ready()) {
+					flush(batch);
+					lastFlush = now;
+				}
+			}
+			flush(batch);
+		} catch (IOException e) {
+			if (!DOCUMENT_IS_CLOSED.equals(e.getMessage())) {
+				onError(e);
+			}
+		} catch (RuntimeException e) {
+			onError(e);
+		} finally {
+			this.running = false;
+			onDone();
+		}
+	}
+
+	private void flush(StringBuilder batch) throws IOException {
+		if (batch.length() == 0) {
+			return;
+		}
+		if (running
+				&& !stream.isClosed()) {
+			write(batch.toString());
+		}
+		batch.setLength(0);
+	}
+
+	/**
+	 * Writes the given text to the console stream. Blocks while the console
+	 * is processing the previous writes.
+	 */
+	protected void write(String text) throws IOException {
+		stream.write(text);
+	}
+
+	/**
+	 * Called when reading or writing failed. Writes the error message to
+	 * the console by default.
+	 */
+	protected void onError(Exception e) {
+		if (!stream.isClosed()) {
+			stream.println(e.getMessage());
+		}
+	}
+
+	/**
+	 * Called when piping stopped, either because the input ended, piping
+	 * was stopped or it failed. Does nothing by default.
+	 */
+	protected void onDone() {
+	}
+
+	protected MessageConsoleStream getStream() {
+		return stream;
+	}
+}
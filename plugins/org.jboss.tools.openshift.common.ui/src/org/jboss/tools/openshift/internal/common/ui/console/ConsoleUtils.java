@@ -10,6 +10,14 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.internal.common.ui.console;
 
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.console.ConsolePlugin;
@@ -19,7 +27,10 @@ import org.eclipse.ui.console.IConsoleListener;
 import org.eclipse.ui.console.IConsoleManager;
 import org.eclipse.ui.console.IConsoleView;
 import org.eclipse.ui.console.MessageConsole;
+import org.eclipse.ui.console.MessageConsoleStream;
+import org.eclipse.ui.preferences.ScopedPreferenceStore;
 import org.jboss.ide.eclipse.as.ui.UIUtil;
+import org.jboss.tools.openshift.internal.common.core.OpenShiftCommonCoreActivator;
 import org.jboss.tools.openshift.internal.common.ui.OpenShiftCommonUIActivator;
 import org.jboss.tools.openshift.internal.common.ui.utils.UIUtils;
 
@@ -64,6 +75,62 @@ public class ConsoleUtils {
 	 */
 	public static final String CONSOLE_TYPE_VALUE = "OpenShiftTailConsole";
 
+	/** the preference that holds the maximum number of chars that a bounded console holds */
+	public static final String BOUNDED_CONSOLE_MAX_CHARS = "org.jboss.tools.openshift.common.ui.console.BOUNDED_CONSOLE_MAX_CHARS";
+
+	/** the default maximum number of chars that a bounded console holds */
+	public static final int DEFAULT_BOUNDED_CONSOLE_MAX_CHARS = 1024 * 1024;
+
+	/** the minimum that the maximum number of chars of a bounded console may be set to */
+	public static final int MIN_BOUNDED_CONSOLE_MAX_CHARS = 10 * 1024;
+
+	private static final String DROPPED_LINES_KEY = "OpenShiftDroppedLines";
+
+	private static IPreferenceStore preferenceStore;
+
+	/**
+	 * Returns the preferences of the consoles. They're shared by all the
+	 * OpenShift plugins.
+	 */
+	public static synchronized IPreferenceStore getPreferenceStore() {
+		if (preferenceStore == null) {
+			preferenceStore = new ScopedPreferenceStore(InstanceScope.INSTANCE, OpenShiftCommonCoreActivator.PLUGIN_ID);
+			preferenceStore.setDefault(BOUNDED_CONSOLE_MAX_CHARS, DEFAULT_BOUNDED_CONSOLE_MAX_CHARS);
+		}
+		return preferenceStore;
+	}
+
+	/**
+	 * Returns the maximum number of chars that a bounded console holds as set
+	 * in the preferences.
+	 */
+	public static int getBoundedConsoleMaxChars() {
+		return Math.max(MIN_BOUNDED_CONSOLE_MAX_CHARS, getPreferenceStore().getInt(BOUNDED_CONSOLE_MAX_CHARS));
+	}
+
+	/**
+	 * Keeps the given console within the maximum number of chars that is set
+	 * in the preferences. Once they are exceeded, the console drops its oldest
+	 * output until it is back at 4/5 of them and reports the number of lines
+	 * that it dropped so far. Following a log for hours thus uses constant
+	 * memory.
+	 * 
+	 * @param console the console to bound
+	 * 
+	 * @see #BOUNDED_CONSOLE_MAX_CHARS
+	 */
+	public static void setBounded(MessageConsole console) {
+		int maxChars = getBoundedConsoleMaxChars();
+		console.setWaterMarks(maxChars / 5 * 4, maxChars);
+		synchronized (console) {
+			if (console.getAttribute(DROPPED_LINES_KEY) == null) {
+				DroppedLinesReporter reporter = new DroppedLinesReporter(console.newMessageStream());
+				console.setAttribute(DROPPED_LINES_KEY, reporter);
+				console.getDocument().addDocumentListener(reporter);
+			}
+		}
+	}
+
 	/**
 	 * Retrieve the message console given its name. If no console exists yet, a
 	 * new one is created with a specifi attribute to mark it as an 'openshift'
@@ -123,4 +190,46 @@ public class ConsoleUtils {
 			
 		});
 	}
+
+	/**
+	 * Counts the lines that a bounded console drops and reports them in the
+	 * console.
+	 */
+	private static class DroppedLinesReporter implements IDocumentListener {
+
+		private final MessageConsoleStream stream;
+		private int trimmed;
+		private long dropped;
+
+		private DroppedLinesReporter(MessageConsoleStream stream) {
+			this.stream = stream;
+		}
+
+		@Override
+		public void documentAboutToBeChanged(DocumentEvent event) {
+			IDocument document = event.getDocument();
+			if (event.getOffset() != 0
+					|| event.getLength() == 0
+					|| event.getLength() >= document.getLength()
+					|| !StringUtils.isEmpty(event.getText())) {
+				// not trimmed (appended or cleared)
+				return;
+			}
+			try {
+				this.trimmed = StringUtils.countMatches(document.get(0, event.getLength()), "\n");
+			} catch (BadLocationException e) {
+				this.trimmed = 0;
+			}
+		}
+
+		@Override
+		public void documentChanged(DocumentEvent event) {
+			if (trimmed == 0) {
+				return;
+			}
+			this.dropped += trimmed;
+			this.trimmed = 0;
+			stream.println(NLS.bind("[{0} lines dropped]", dropped));
+		}
+	}
 }
@@ -25,7 +25,6 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
-import org.eclipse.swt.widgets.Control;
 import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistry;
 import org.jboss.tools.openshift.common.core.connection.IConnection;
 import org.jboss.tools.openshift.common.core.connection.IConnectionsRegistryListener;
@@ -40,6 +39,7 @@ public abstract class BaseExplorerContentProvider implements ITreeContentProvide
 	private static final Collection<String> PROPERTY_BLACKLIST = Collections.unmodifiableList(Arrays.asList("token"));
 
 	private TreeViewer viewer;
+	private ViewerRefreshScheduler refreshScheduler;
 	private ConnectionsRegistry input;
 	private IConnectionsRegistryListener connectionListener = new ConnectionsRegistryListener();
 
@@ -70,6 +70,7 @@ public abstract class BaseExplorerContentProvider implements ITreeContentProvide
 	@Override
 	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
 		this.viewer = (TreeViewer) viewer;
+		this.refreshScheduler = new ViewerRefreshScheduler(this.viewer);
 		if(input != null && connectionListener != null) {
 			input.removeListener(connectionListener);
 		}
@@ -136,11 +137,31 @@ public abstract class BaseExplorerContentProvider implements ITreeContentProvide
 		}
 	}
 	
+	/**
+	 * Marks the children of the given element as loaded so that they are
+	 * retrieved from {@link #getChildrenFor(Object)} right away, without a
+	 * loading job, the next time the element is expanded. Later expansions
+	 * load the children in a job again.
+	 * 
+	 * @param element
+	 */
+	protected final void addLoadedChildren(Object element) {
+		if (loadingElements.containsKey(element)) {
+			return;
+		}
+		loadedElements.put(element, new PrefetchedStub(element));
+	}
+
 	/**
 	 * @param parentElement
 	 * @return
 	 */
 	protected final Object[] loadChildren(Object parentElement) {
+		LoadingStub stub = loadedElements.get(parentElement);
+		if (stub instanceof PrefetchedStub
+				&& loadedElements.remove(parentElement, stub)) {
+			return stub.getChildren();
+		}
 		if (!loadedElements.containsKey(parentElement)) {
 			if (!loadingElements.containsKey(parentElement)) {
 				// Load the data
@@ -180,57 +201,36 @@ public abstract class BaseExplorerContentProvider implements ITreeContentProvide
 		return stub;
 	}
 	
-	private void asyncViewerRefresh(final Runnable runner) {
-		Control control = viewer.getControl();
-		if(control.isDisposed()) {
-			return;
-		}
-		control.getDisplay().asyncExec(runner);
-	}
-	
 	protected void addChildrenToViewer(final Object parent, final Object [] objects) {
-		asyncViewerRefresh(new Runnable() {
-			public void run() {
-				synchronized (viewer) {
-					viewer.add(parent,objects);
-				}
-			}
-		});
+		if (refreshScheduler != null) {
+			refreshScheduler.add(parent, objects);
+		}
 	}
 
 	protected void removeChildrenFromViewer(final Object parent, final Object [] objects) {
-		asyncViewerRefresh(new Runnable() {
-			public void run() {
-				synchronized (viewer) {
-					viewer.remove(parent, objects);
-				}
-			}
-		});
+		if (refreshScheduler != null) {
+			refreshScheduler.remove(parent, objects);
+		}
 	}
 
+	/**
+	 * Schedules a refresh of the given element. Refreshes requested within a
+	 * short period of time are merged and applied in a single batch.
+	 * 
+	 * @param object the element to refresh, null to refresh the whole tree
+	 */
 	protected void refreshViewer(final Object object) {
-		asyncViewerRefresh(new Runnable() {
-			public void run() {
-				synchronized (viewer) {
-					if(object != null) {
-						viewer.refresh(object);
-					}else {
-						viewer.refresh();
-					}
-				}
-			}
-		});
+		if (refreshScheduler != null) {
+			refreshScheduler.refresh(object);
+		}
 	}
 	
 	protected void expand(final Object element, final int level) {
-		viewer.getControl().getDisplay().syncExec(new Runnable() {
-			@Override
-			public void run() {
-				viewer.expandToLevel(element, level);
-			}
-		});
+		if (refreshScheduler != null) {
+			refreshScheduler.expand(element, level);
+		}
 	}
-	
+
 	@Override
 	public Object getParent(Object element) {
 		return null;
@@ -283,6 +283,25 @@ public abstract class BaseExplorerContentProvider implements ITreeContentProvide
 
 	}
 
+	/**
+	 * A stub for children that were loaded in advance. It queries them when it
+	 * is consumed so that it never returns children that changed in the
+	 * meantime.
+	 */
+	private class PrefetchedStub extends LoadingStub {
+
+		private final Object element;
+
+		private PrefetchedStub(Object element) {
+			this.element = element;
+		}
+
+		@Override
+		public Object[] getChildren() {
+			return getChildrenFor(element);
+		}
+	}
+
 	public static class NotConnectedUserStub {
 	}
 }
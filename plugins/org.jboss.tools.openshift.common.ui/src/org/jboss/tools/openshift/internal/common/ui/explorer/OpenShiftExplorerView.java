@@ -38,6 +38,7 @@ import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistrySingl
 import org.jboss.tools.openshift.common.core.connection.IConnection;
 import org.jboss.tools.openshift.common.core.connection.IConnectionsRegistryListener;
 import org.jboss.tools.openshift.internal.common.ui.connection.ConnectionWizard;
+import org.jboss.tools.openshift.internal.common.ui.utils.UIUtils;
 
 /**
  * @author Xavier Coulon
@@ -69,12 +70,30 @@ public class OpenShiftExplorerView extends CommonNavigator implements IConnectio
 
 	@Override
 	public void connectionAdded(IConnection connection) {
-		showConnectionsOrExplanations(connectionsPane, explanationsPane);
+		onConnectionsChanged();
 	}
 
 	@Override
 	public void connectionRemoved(IConnection connection) {
-		showConnectionsOrExplanations(connectionsPane, explanationsPane);
+		onConnectionsChanged();
+	}
+
+	/**
+	 * Shows the connections or the explanations in the display thread, the
+	 * registry notifies its listeners in a background job.
+	 */
+	private void onConnectionsChanged() {
+		UIUtils.ensureDisplayExec(new Runnable() {
+
+			@Override
+			public void run() {
+				if (pageBook == null
+						|| pageBook.isDisposed()) {
+					return;
+				}
+				showConnectionsOrExplanations(connectionsPane, explanationsPane);
+			}
+		});
 	}
 
 	@Override
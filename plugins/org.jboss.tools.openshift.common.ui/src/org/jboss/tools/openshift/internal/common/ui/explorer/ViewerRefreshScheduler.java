@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.internal.common.ui.explorer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.swt.widgets.Widget;
+
+/**
+ * Collects the refreshes, additions and removals that are requested for a
+ * tree viewer within a short period of time and applies them in a single
+ * batch in the UI thread. Refreshes for elements whose parent (or the whole
+ * tree) is refreshed within the same batch are dropped, so are additions
+ * and removals for such elements.
+ */
+public class ViewerRefreshScheduler {
+
+	/** the period in milliseconds during which the requested updates are collected */
+	public static final int DEFAULT_DELAY = 50;
+
+	private final TreeViewer viewer;
+	private final int delay;
+
+	private final Set<Object> refreshes = new LinkedHashSet<Object>();
+	private final List<Update> updates = new ArrayList<Update>();
+	private boolean fullRefresh;
+
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private final AtomicLong requested = new AtomicLong();
+	private final AtomicLong executed = new AtomicLong();
+
+	public ViewerRefreshScheduler(TreeViewer viewer) {
+		this(viewer, DEFAULT_DELAY);
+	}
+
+	public ViewerRefreshScheduler(TreeViewer viewer, int delay) {
+		this.viewer = viewer;
+		this.delay = delay;
+	}
+
+	/**
+	 * Schedules a refresh of the given element. Refreshes the whole tree if
+	 * the given element is <code>null</code>.
+	 */
+	public void refresh(Object element) {
+		requested.incrementAndGet();
+		synchronized (this) {
+			if (element == null) {
+				this.fullRefresh = true;
+			} else {
+				refreshes.add(element);
+			}
+		}
+		schedule();
+	}
+
+	/**
+	 * Schedules the addition of the given children to the given parent.
+	 */
+	public void add(Object parent, Object[] children) {
+		requested.incrementAndGet();
+		synchronized (this) {
+			updates.add(new Update(Update.ADD, parent, children, 0));
+		}
+		schedule();
+	}
+
+	/**
+	 * Schedules the removal of the given children from the given parent.
+	 */
+	public void remove(Object parent, Object[] children) {
+		requested.incrementAndGet();
+		synchronized (this) {
+			updates.add(new Update(Update.REMOVE, parent, children, 0));
+		}
+		schedule();
+	}
+
+	/**
+	 * Schedules the expansion of the given element to the given level. The
+	 * element is expanded after it got refreshed.
+	 */
+	public void expand(Object element, int level) {
+		synchronized (this) {
+			updates.add(new Update(Update.EXPAND, element, null, level));
+		}
+		schedule();
+	}
+
+	/**
+	 * Returns the number of updates that were requested.
+	 */
+	public long getRequested() {
+		return requested.get();
+	}
+
+	/**
+	 * Returns the number of updates that were applied to the viewer. The
+	 * difference to {@link #getRequested()} is the number of updates that
+	 * were saved by merging them.
+	 */
+	public long getExecuted() {
+		return executed.get();
+	}
+
+	private void schedule() {
+		if (!scheduled.compareAndSet(false, true)) {
+			return;
+		}
+		final Display display = getDisplay();
+		if (display == null) {
+			scheduled.set(false);
+			return;
+		}
+		display.asyncExec(new Runnable() {
+
+			@Override
+			public void run() {
+				display.timerExec(delay, new Runnable() {
+
+					@Override
+					public void run() {
+						flush();
+					}
+				});
+			}
+		});
+	}
+
+	private Display getDisplay() {
+		Control control = viewer.getControl();
+		if (control == null
+				|| control.isDisposed()) {
+			return null;
+		}
+		return control.getDisplay();
+	}
+
+	/**
+	 * Applies the pending updates to the viewer. Needs to be called in the UI
+	 * thread.
+	 */
+	protected void flush() {
+		scheduled.set(false);
+		boolean fullRefresh;
+		List<Object> refreshes;
+		List<Update> updates;
+		synchronized (this) {
+			fullRefresh = this.fullRefresh;
+			refreshes = new ArrayList<Object>(this.refreshes);
+			updates = new ArrayList<Update>(this.updates);
+			this.fullRefresh = false;
+			this.refreshes.clear();
+			this.updates.clear();
+		}
+		Control control = viewer.getControl();
+		if (control == null
+				|| control.isDisposed()) {
+			return;
+		}
+		synchronized (viewer) {
+			control.setRedraw(false);
+			try {
+				if (fullRefresh) {
+					viewer.refresh();
+					executed.incrementAndGet();
+				} else {
+					removeNested(refreshes);
+					for (Update update : updates) {
+						if (update.type == Update.EXPAND
+								|| isRefreshed(update.element, refreshes)) {
+							continue;
+						}
+						update.apply(viewer);
+						executed.incrementAndGet();
+					}
+					for (Object element : refreshes) {
+						viewer.refresh(element);
+						executed.incrementAndGet();
+					}
+				}
+				for (Update update : updates) {
+					if (update.type == Update.EXPAND) {
+						update.apply(viewer);
+					}
+				}
+			} finally {
+				control.setRedraw(true);
+			}
+		}
+	}
+
+	/**
+	 * Removes the elements whose ancestor is refreshed, too.
+	 */
+	private void removeNested(List<Object> refreshes) {
+		for (Iterator<Object> it = refreshes.iterator(); it.hasNext();) {
+			Object element = it.next();
+			if (hasRefreshedAncestor(element, refreshes)) {
+				it.remove();
+			}
+		}
+	}
+
+	private boolean isRefreshed(Object element, List<Object> refreshes) {
+		return refreshes.contains(element)
+				|| hasRefreshedAncestor(element, refreshes);
+	}
+
+	private boolean hasRefreshedAncestor(Object element, List<Object> refreshes) {
+		Widget widget = viewer.testFindItem(element);
+		if (!(widget instanceof TreeItem)) {
+			return false;
+		}
+		for (TreeItem parent = ((TreeItem) widget).getParentItem(); parent != null; parent = parent.getParentItem()) {
+			if (refreshes.contains(parent.getData())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static class Update {
+
+		private static final int ADD = 0;
+		private static final int REMOVE = 1;
+		private static final int EXPAND = 2;
+
+		private final int type;
+		private final Object element;
+		private final Object[] children;
+		private final int level;
+
+		private Update(int type, Object element, Object[] children, int level) {
+			this.type = type;
+			this.element = element;
+			this.children = children;
+			this.level = level;
+		}
+
+		private void apply(TreeViewer viewer) {
+			switch (type) {
+			case ADD:
+				viewer.add(element, children);
+				break;
+			case REMOVE:
+				viewer.remove(element, children);
+				break;
+			case EXPAND:
+				viewer.expandToLevel(element, level);
+				break;
+			default:
+				break;
+			}
+		}
+	}
+}
@@ -18,6 +18,7 @@ import java.util.List;
 
 import org.apache.commons.lang.ObjectUtils;
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.osgi.util.NLS;
 import org.jboss.tools.common.databinding.ObservablePojo;
 import org.jboss.tools.openshift.common.core.ICredentialsPrompter;
 import org.jboss.tools.openshift.common.core.IRefreshable;
@@ -39,6 +40,7 @@ import com.openshift.restclient.IClient;
 import com.openshift.restclient.IResourceFactory;
 import com.openshift.restclient.ISSLCertificateCallback;
 import com.openshift.restclient.OpenShiftException;
+import com.openshift.restclient.ResourceKind;
 import com.openshift.restclient.authorization.BasicAuthorizationStrategy;
 import com.openshift.restclient.authorization.IAuthorizationContext;
 import com.openshift.restclient.authorization.IAuthorizationStrategy;
@@ -47,6 +49,7 @@ import com.openshift.restclient.authorization.UnauthorizedException;
 import com.openshift.restclient.capability.CapabilityVisitor;
 import com.openshift.restclient.capability.resources.IClientCapability;
 import com.openshift.restclient.model.IResource;
+import com.openshift.restclient.model.template.ITemplate;
 
 public class Connection extends ObservablePojo implements IConnection, IRefreshable {
 
@@ -56,7 +59,20 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 	private static final String SECURE_STORAGE_AUTHSCHEME = "authtype";
 
 	public static final String PROPERTY_REMEMBER_TOKEN = "rememberToken";
+	public static final String PROPERTY_CLIENT = "client";
+	/** the namespace that holds the templates that are shared by all projects */
+	public static final String COMMON_TEMPLATES_NAMESPACE = "openshift";
 	
+	/** returns the client of a resource, stateless and thus shared */
+	private static final CapabilityVisitor<IClientCapability, IClient> CLIENT_VISITOR =
+			new CapabilityVisitor<IClientCapability, IClient>() {
+
+				@Override
+				public IClient visit(IClientCapability capability) {
+					return capability.getClient();
+				}
+			};
+
 	private IClient client;
 	private String username;
 	private String password;
@@ -68,6 +84,7 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 	private ICredentialsPrompter credentialsPrompter;
 	private ISSLCertificateCallback sslCertificateCallback;
 	private String authScheme;
+	private final ResourceCache resourceCache;
 
 	//TODO modify default client to take url and throw lib specific exception
 	public Connection(String url, ICredentialsPrompter credentialsPrompter, ISSLCertificateCallback sslCertCallback) throws MalformedURLException{
@@ -79,6 +96,8 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 		this.client.setSSLCertificateCallback(sslCertCallback);
 		this.credentialsPrompter = credentialsPrompter;
 		this.sslCertificateCallback = sslCertCallback;
+		// created once the client is set, the cache refers to the connection url
+		this.resourceCache = new ResourceCache(this);
 	}
 	
 	/**
@@ -148,8 +167,10 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 	public void save() {
 		//not using getters here because for save there should be no reason
 		//to trigger a load from storage.
-		saveOrClear(SECURE_STORAGE_PASSWORD, this.password, isRememberPassword(), getSecureStore(getHost(), getUsername()));
-		saveOrClear(SECURE_STORAGE_TOKEN, this.token, isRememberToken(), getSecureStore(getHost(), getUsername()));
+		SecureStore store = getSecureStore(getHost(), getUsername());
+		saveOrClear(SECURE_STORAGE_PASSWORD, this.password, isRememberPassword(), store);
+		saveOrClear(SECURE_STORAGE_TOKEN, this.token, isRememberToken(), store);
+		flush(store);
 		ConnectionURL url = ConnectionURL.safeForConnection(this);
 		if(url != null) {
 			OpenShiftCorePreferences.INSTANCE.saveAuthScheme(url.toString(), getAuthScheme());
@@ -187,11 +208,19 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 		}
 	}
 	
+	private void flush(SecureStore store) {
+		try {
+			store.flush();
+		} catch (SecureStoreException e) {
+			OpenShiftCoreActivator.logError("Exception saving connection property", e);
+		}
+	}
+	
 	/**
-	 * Returns a secure store for the current host and username
+	 * Returns the (shared) secure store for the current host and username
 	 */
 	private SecureStore getSecureStore(final String host, final String username) {
-		return new SecureStore(new OpenShiftSecureStorageKey(SECURE_STORAGE_BASEKEY, host, username));
+		return SecureStore.getInstance(new OpenShiftSecureStorageKey(SECURE_STORAGE_BASEKEY, host, username));
 	}
 
 
@@ -285,6 +314,7 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 		Assert.isLegal(connection instanceof Connection);
 		
 		Connection otherConnection = (Connection) connection;
+		IClient oldClient = this.client;
 		this.client = otherConnection.client; 
 		this.credentialsPrompter = otherConnection.credentialsPrompter;
 		this.sslCertificateCallback = otherConnection.sslCertificateCallback;
@@ -293,10 +323,13 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 		this.rememberPassword = otherConnection.rememberPassword;
 		this.token = otherConnection.token;
 		this.rememberToken = otherConnection.rememberToken;
+		resourceCache.clear();
+		firePropertyChange(PROPERTY_CLIENT, oldClient, this.client);
 	}
 
 	@Override
 	public void refresh() {
+		resourceCache.clear();
 		connect();
 	}
 
@@ -315,9 +348,13 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 			if(client.getAuthorizationStrategy() == null) {
 				client.setAuthorizationStrategy(getAuthorizationStrategy());
 			}
-			return client.create(resource);
+			T created = client.create(resource);
+			resourceCache.update(created);
+			return created;
 		} catch (UnauthorizedException e) {
-			return retryCreate("Unauthorized.  Trying to reauthenticate", e, resource);
+			T created = retryCreate("Unauthorized.  Trying to reauthenticate", e, resource);
+			resourceCache.update(created);
+			return created;
 		}
 	}
 
@@ -331,14 +368,107 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 		return getResources(kind,"");
 	}
 	
+	/**
+	 * Get a list of resource types within the given namespace. The resources
+	 * are listed once and then served from the {@link ResourceCache} of this
+	 * connection.
+	 * 
+	 * @return List<IResource>
+	 * @throws OpenShiftException
+	 */
 	public <T extends IResource> List<T> getResources(String kind, String namespace) {
+		return resourceCache.load(kind, namespace);
+	}
+
+	/**
+	 * Lists the resources of the given kind within the given namespace on the
+	 * server and replaces the cached ones with them.
+	 * 
+	 * @return List<IResource>
+	 * @throws OpenShiftException
+	 */
+	public <T extends IResource> List<T> refreshResources(String kind, String namespace) {
+		List<T> resources = listResources(kind, namespace);
+		resourceCache.put(kind, namespace, resources);
+		return resources;
+	}
+
+	/**
+	 * Returns the templates that are shared by all projects. They are listed
+	 * once and then served from the {@link ResourceCache}. If enabled in the
+	 * preferences, they are restored from an on-disk snapshot (and then
+	 * synchronized with the server) if they were not listed yet.
+	 * 
+	 * @return the templates of the common namespace
+	 * @throws OpenShiftException
+	 */
+	public List<ITemplate> getCommonTemplates() {
+		if (resourceCache.get(ResourceKind.TEMPLATE, COMMON_TEMPLATES_NAMESPACE) == null
+				&& OpenShiftCorePreferences.INSTANCE.isTemplatesSnapshot()) {
+			restoreCommonTemplates();
+		}
+		return getResources(ResourceKind.TEMPLATE, COMMON_TEMPLATES_NAMESPACE);
+	}
+
+	private void restoreCommonTemplates() {
+		try {
+			List<IResource> templates = 
+					new ResourceCacheSnapshot().load(this, ResourceKind.TEMPLATE, COMMON_TEMPLATES_NAMESPACE);
+			if (templates != null) {
+				resourceCache.prime(ResourceKind.TEMPLATE, COMMON_TEMPLATES_NAMESPACE, templates);
+			}
+		} catch (IOException | RuntimeException e) {
+			OpenShiftCoreActivator.logWarning(
+					NLS.bind("Could not restore the common templates for connection {0}", toString()), e);
+		}
+	}
+
+	/**
+	 * Stores the common templates on disk if this is enabled in the
+	 * preferences and they were listed.
+	 */
+	public void saveCommonTemplates() {
+		if (!OpenShiftCorePreferences.INSTANCE.isTemplatesSnapshot()) {
+			return;
+		}
+		List<IResource> templates = resourceCache.get(ResourceKind.TEMPLATE, COMMON_TEMPLATES_NAMESPACE);
+		if (templates == null) {
+			return;
+		}
+		try {
+			new ResourceCacheSnapshot().save(this, ResourceKind.TEMPLATE, COMMON_TEMPLATES_NAMESPACE, templates);
+		} catch (IOException | RuntimeException e) {
+			OpenShiftCoreActivator.logWarning(
+					NLS.bind("Could not store the common templates for connection {0}", toString()), e);
+		}
+	}
+
+	/**
+	 * Lists the resources of the given kind within the given namespace on the
+	 * server, bypassing the cache.
+	 */
+	<T extends IResource> List<T> listResources(String kind, String namespace) {
+		return listResources(kind, namespace, true);
+	}
+
+	/**
+	 * Lists the resources of the given kind within the given namespace on the
+	 * server, bypassing the cache. Reauthenticates (and may thus prompt the
+	 * user for his credentials) if the server rejects the token and
+	 * <code>reauthenticate</code> is <code>true</code>. Throws the
+	 * {@link UnauthorizedException} and keeps the token otherwise.
+	 */
+	<T extends IResource> List<T> listResources(String kind, String namespace, boolean reauthenticate) {
 		try {
 			if(client.getAuthorizationStrategy() == null) {
 				client.setAuthorizationStrategy(getAuthorizationStrategy());
 			}
 			return client.list(kind, namespace);
 		} catch (UnauthorizedException e) {
-			return retryList("Unauthorized.  Trying to reauthenticate", e, kind);
+			if (!reauthenticate) {
+				throw e;
+			}
+			return retryList("Unauthorized.  Trying to reauthenticate", e, kind, namespace);
 		}
 	}
 
@@ -353,9 +483,13 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 			if(client.getAuthorizationStrategy() == null) {
 				client.setAuthorizationStrategy(getAuthorizationStrategy());
 			}
-			return client.get(resource.getKind(), resource.getName(), resource.getNamespace());
+			T refreshed = client.get(resource.getKind(), resource.getName(), resource.getNamespace());
+			resourceCache.update(refreshed);
+			return refreshed;
 		} catch (UnauthorizedException e) {
-			return retryGet("Unauthorized.  Trying to reauthenticate", e, resource);
+			T refreshed = retryGet("Unauthorized.  Trying to reauthenticate", e, resource);
+			resourceCache.update(refreshed);
+			return refreshed;
 		}
 	}
 	
@@ -379,12 +513,12 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 		throw e;
 	}
 
-	private <T extends IResource> List<T> retryList(String message, OpenShiftException e, String kind){
+	private <T extends IResource> List<T> retryList(String message, OpenShiftException e, String kind, String namespace){
 		OpenShiftCoreActivator.pluginLog().logInfo(message);
 		setToken(null);// token must be invalid, make sure not to try with
 		// cache
 		if (connect()) {
-			return client.list(kind);
+			return client.list(kind, namespace);
 		}
 		throw e;
 	}
@@ -398,6 +532,16 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 	 */
 	public void deleteResource(IResource resource) {
 		client.delete(resource);
+		resourceCache.remove(resource);
+	}
+
+	/**
+	 * Returns the cache that holds the resources of this connection
+	 * 
+	 * @return the resource cache
+	 */
+	public ResourceCache getResourceCache() {
+		return resourceCache;
 	}
 
 	@Override
@@ -462,13 +606,17 @@ public class Connection extends ObservablePojo implements IConnection, IRefresha
 		if (resource == null) {
 			return false;
 		}
-		IClient client =  resource.accept(new CapabilityVisitor<IClientCapability, IClient>() {
+		return ObjectUtils.equals(this.client, getClient(resource));
+	}
 
-			@Override
-			public IClient visit(IClientCapability capability) {
-				return capability.getClient();
-			}
-		}, null);
-		return ObjectUtils.equals(this.client, client);
+	IClient getClient() {
+		return client;
+	}
+
+	/**
+	 * Returns the client that the given resource was retrieved with.
+	 */
+	static IClient getClient(IResource resource) {
+		return resource.accept(CLIENT_VISITOR, null);
 	}
 }
@@ -19,5 +19,7 @@ package org.jboss.tools.openshift.core.connection;
 public interface ConnectionProperties {
 	
 	static final String PROPERTY_RESOURCE = "openshift.resource";
+	/** several resources of the same kind within the same namespace changed, values are lists of resources */
+	static final String PROPERTY_RESOURCES = "openshift.resources";
 	static final String PROPERTY_PROJECTS = "openshift.projects";
 }
@@ -10,10 +10,15 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.core.connection;
 
-import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
+import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistry;
+import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistryAdapter;
 import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistrySingleton;
+import org.jboss.tools.openshift.common.core.connection.IConnection;
 
+import com.openshift.restclient.IClient;
 import com.openshift.restclient.model.IResource;
 
 /**
@@ -25,6 +30,8 @@ import com.openshift.restclient.model.IResource;
  */
 public class ConnectionsRegistryUtil {
 	
+	private static ConnectionsIndex index;
+
 	private ConnectionsRegistryUtil() {
 	}
 	
@@ -49,13 +56,116 @@ public class ConnectionsRegistryUtil {
 	 * @return the connection or null if not found
 	 */
 	public static Connection safeGetConnectionFor(IResource resource) {
-		Collection<Connection> all = ConnectionsRegistrySingleton.getInstance().getAll(Connection.class);
-		for (Connection connection : all) {
-			if(connection.ownsResource(resource)) {
-				return connection;
-			}
+		if (resource == null) {
+			return null;
+		}
+		IClient client = Connection.getClient(resource);
+		if (client == null) {
+			return null;
 		}
-		return null;
+		return getIndex().get(client);
 	}
 
+	private static synchronized ConnectionsIndex getIndex() {
+		if (index == null) {
+			index = new ConnectionsIndex(ConnectionsRegistrySingleton.getInstance());
+		}
+		return index;
+	}
+
+	/**
+	 * An index of the connections in the registry by the client that they use.
+	 * Resources carry the client that they were retrieved with, looking up
+	 * their connection thus is a single lookup by identity. The index is
+	 * dropped whenever a connection is added, removed or switches to a new
+	 * client and is built again on the next lookup. Other changes (ex. in
+	 * resources or projects) leave it untouched.
+	 */
+	private static class ConnectionsIndex extends ConnectionsRegistryAdapter {
+
+		private final ConnectionsRegistry registry;
+		/** the connections by client, copied on write, <code>null</code> if it needs to be built */
+		private volatile Map<IClient, Connection> connectionsByClient;
+		/** the number of times the index was dropped */
+		private volatile int modCount;
+
+		private ConnectionsIndex(ConnectionsRegistry registry) {
+			this.registry = registry;
+			registry.addListener(this);
+		}
+
+		private Connection get(IClient client) {
+			Map<IClient, Connection> connectionsByClient = this.connectionsByClient;
+			if (connectionsByClient == null) {
+				connectionsByClient = build();
+			}
+			Connection connection = connectionsByClient.get(client);
+			if (connection != null
+					&& connection.getClient() == client) {
+				if (registry.contains(connection)) {
+					return connection;
+				}
+				// removed, removal event not dispatched yet
+				invalidate();
+			}
+			// client is equal but not the same or connection was updated with a new client
+			connection = find(client);
+			if (connection != null) {
+				put(client, connection);
+			}
+			return connection;
+		}
+
+		private Connection find(IClient client) {
+			for (Connection connection : registry.getAll(Connection.class)) {
+				if (client.equals(connection.getClient())) {
+					return connection;
+				}
+			}
+			return null;
+		}
+
+		private synchronized Map<IClient, Connection> build() {
+			int modCount = this.modCount;
+			Map<IClient, Connection> connectionsByClient = new IdentityHashMap<IClient, Connection>();
+			for (Connection connection : registry.getAll(Connection.class)) {
+				connectionsByClient.put(connection.getClient(), connection);
+			}
+			if (modCount == this.modCount) {
+				this.connectionsByClient = connectionsByClient;
+			}
+			return connectionsByClient;
+		}
+
+		private synchronized void put(IClient client, Connection connection) {
+			if (connectionsByClient == null) {
+				return;
+			}
+			Map<IClient, Connection> connectionsByClient = new IdentityHashMap<IClient, Connection>(this.connectionsByClient);
+			connectionsByClient.put(client, connection);
+			this.connectionsByClient = connectionsByClient;
+		}
+
+		private synchronized void invalidate() {
+			this.connectionsByClient = null;
+			this.modCount++;
+		}
+
+		@Override
+		public void connectionAdded(IConnection connection) {
+			invalidate();
+		}
+
+		@Override
+		public void connectionRemoved(IConnection connection) {
+			invalidate();
+		}
+
+		@Override
+		public void connectionChanged(IConnection connection, String property, Object oldValue, Object newValue) {
+			if (Connection.PROPERTY_CLIENT.equals(property)) {
+				invalidate();
+			}
+		}
+	}
 }
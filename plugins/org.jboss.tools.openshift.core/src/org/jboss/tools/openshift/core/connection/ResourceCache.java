@@ -0,0 +1,581 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.core.connection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.lang.ObjectUtils;
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jboss.dmr.ModelNode;
+import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistry;
+import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistrySingleton;
+import org.jboss.tools.openshift.internal.common.core.util.ThreadUtils;
+import org.jboss.tools.openshift.internal.core.OpenShiftCoreActivator;
+
+import com.openshift.restclient.OpenShiftException;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.authorization.UnauthorizedException;
+import com.openshift.restclient.model.IResource;
+
+/**
+ * An in-memory cache of the resources of a connection. Each (kind, namespace)
+ * is listed once. The ones that are viewed (see
+ * {@link #subscribe(String, String)}) are then kept current by a background
+ * job that re-lists them (the rest client offers no watch api) and publishes
+ * the differences (additions, modifications and deletions) as
+ * {@link ConnectionProperties#PROPERTY_RESOURCE} change events. The others are
+ * discarded once they're older than {@link #RESYNC_INTERVAL}.
+ * The background job never reauthenticates, it backs off if the server rejects
+ * the requests.
+ * Resources that are created, refreshed or deleted through the connection are
+ * updated in the cache right away.
+ * Concurrent requests for the same (kind, namespace) are served by a single
+ * list request. Several kinds may be prefetched in parallel on an executor
+ * that is bounded per connection.
+ */
+public class ResourceCache {
+
+	/** the delay in between 2 synchronizations with the server */
+	public static final long RESYNC_INTERVAL = 30 * 1000;
+
+	/** the maximum delay in between 2 synchronizations if they keep failing */
+	public static final long MAX_RESYNC_INTERVAL = 10 * 60 * 1000;
+
+	/** the maximum number of concurrent list requests per connection */
+	public static final int MAX_CONCURRENT_REQUESTS = 4;
+
+	private static final String NAMESPACE_ALL = "";
+	private static final String METADATA = "metadata";
+	private static final String RESOURCE_VERSION = "resourceVersion";
+
+	private final Connection connection;
+	private final ConcurrentMap<Key, Map<String, IResource>> entries = new ConcurrentHashMap<Key, Map<String, IResource>>();
+	private final ConcurrentMap<Key, FutureTask<List<IResource>>> loading = new ConcurrentHashMap<Key, FutureTask<List<IResource>>>();
+	private final ConcurrentMap<Key, Long> listed = new ConcurrentHashMap<Key, Long>();
+	private final Set<Key> outdated = Collections.newSetFromMap(new ConcurrentHashMap<Key, Boolean>());
+	private final Map<Key, Integer> subscriptions = new HashMap<Key, Integer>();
+	private final Job resyncJob;
+	private volatile long resyncDelay = RESYNC_INTERVAL;
+	private ExecutorService executor;
+
+	public ResourceCache(Connection connection) {
+		this.connection = connection;
+		this.resyncJob = new ResyncJob();
+	}
+
+	/**
+	 * Returns the cached resources of the given kind within the given
+	 * namespace. Returns <code>null</code> if they were not cached yet.
+	 *
+	 * @param kind the kind of resources
+	 * @param namespace the namespace, empty for all namespaces
+	 * @return the cached resources or null
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends IResource> List<T> get(String kind, String namespace) {
+		Map<String, IResource> resources = entries.get(new Key(kind, namespace));
+		if (resources == null) {
+			return null;
+		}
+		synchronized (resources) {
+			return new ArrayList<T>((Collection<T>) resources.values());
+		}
+	}
+
+	/**
+	 * Returns the resources of the given kind within the given namespace.
+	 * Lists them if they're not cached yet. Waits for the pending request if
+	 * they're being listed already.
+	 *
+	 * @param kind the kind of resources
+	 * @param namespace the namespace, empty for all namespaces
+	 * @return the resources
+	 * @throws OpenShiftException
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends IResource> List<T> load(String kind, String namespace) {
+		List<T> resources = get(kind, namespace);
+		if (resources != null) {
+			return resources;
+		}
+		FutureTask<List<IResource>> request = requestLoad(new Key(kind, namespace));
+		if (request == null) {
+			// loaded in the meantime
+			return get(kind, namespace);
+		}
+		request.run(); // noop if it's already running in another thread
+		try {
+			return new ArrayList<T>((Collection<T>) request.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OpenShiftException(e, "Interrupted while loading %s resources in namespace \"%s\"", kind, namespace);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new OpenShiftException(e.getCause(), "Could not load %s resources in namespace \"%s\"", kind, namespace);
+		}
+	}
+
+	/**
+	 * Loads the given kinds of resources within the given namespace in
+	 * parallel, in the background. Kinds that are cached or being loaded
+	 * already are skipped.
+	 *
+	 * @param namespace the namespace, empty for all namespaces
+	 * @param kinds the kinds of resources
+	 */
+	public void prefetch(String namespace, String... kinds) {
+		for (String kind : kinds) {
+			Key key = new Key(kind, namespace);
+			if (loading.containsKey(key)) {
+				continue;
+			}
+			FutureTask<List<IResource>> request = requestLoad(key);
+			if (request != null) {
+				getExecutor().execute(request);
+			}
+		}
+	}
+
+	/**
+	 * Returns a new request for the given key or the pending one if it is
+	 * being loaded already. Returns <code>null</code> if it is cached.
+	 */
+	private FutureTask<List<IResource>> requestLoad(final Key key) {
+		if (entries.containsKey(key)) {
+			return null;
+		}
+		FutureTask<List<IResource>> request = new FutureTask<List<IResource>>(new Callable<List<IResource>>() {
+
+			@Override
+			public List<IResource> call() throws Exception {
+				try {
+					List<IResource> resources = connection.listResources(key.kind, key.namespace);
+					put(key.kind, key.namespace, resources);
+					return resources;
+				} finally {
+					loading.remove(key);
+				}
+			}
+		});
+		FutureTask<List<IResource>> pending = loading.putIfAbsent(key, request);
+		if (pending != null) {
+			return pending;
+		}
+		if (entries.containsKey(key)) {
+			// loaded in the meantime
+			loading.remove(key, request);
+			return null;
+		}
+		return request;
+	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			this.executor = ThreadUtils.newBoundedExecutor(
+					String.format("OpenShift resources loader for %s", connection), MAX_CONCURRENT_REQUESTS);
+		}
+		return executor;
+	}
+
+	/**
+	 * Marks the resources of the given kind and namespace as being viewed.
+	 * They're kept in sync with the server until they're unsubscribed (as
+	 * many times as they were subscribed).
+	 *
+	 * @param kind the kind of resources
+	 * @param namespace the namespace, empty for all namespaces
+	 * 
+	 * @see #unsubscribe(String, String)
+	 */
+	public void subscribe(String kind, String namespace) {
+		Key key = new Key(kind, namespace);
+		synchronized (subscriptions) {
+			Integer count = subscriptions.get(key);
+			subscriptions.put(key, count == null ? 1 : count + 1);
+		}
+		scheduleResync();
+	}
+
+	/**
+	 * Marks the resources of the given kind and namespace as no longer being
+	 * viewed. They're discarded once they're older than
+	 * {@link #RESYNC_INTERVAL} if no one else subscribed to them.
+	 *
+	 * @param kind the kind of resources
+	 * @param namespace the namespace, empty for all namespaces
+	 * 
+	 * @see #subscribe(String, String)
+	 */
+	public void unsubscribe(String kind, String namespace) {
+		Key key = new Key(kind, namespace);
+		synchronized (subscriptions) {
+			Integer count = subscriptions.get(key);
+			if (count == null) {
+				return;
+			}
+			if (count > 1) {
+				subscriptions.put(key, count - 1);
+			} else {
+				subscriptions.remove(key);
+			}
+		}
+	}
+
+	private boolean isSubscribed(Key key) {
+		synchronized (subscriptions) {
+			return subscriptions.containsKey(key);
+		}
+	}
+
+	/**
+	 * Returns the kinds of resources that are cached for the given namespace.
+	 *
+	 * @param namespace the namespace, empty for all namespaces
+	 * @return the cached kinds
+	 */
+	public List<String> getKinds(String namespace) {
+		namespace = StringUtils.defaultString(namespace, NAMESPACE_ALL);
+		List<String> kinds = new ArrayList<String>();
+		for (Key key : entries.keySet()) {
+			if (key.namespace.equals(namespace)) {
+				kinds.add(key.kind);
+			}
+		}
+		return kinds;
+	}
+
+	/**
+	 * Caches the given resources of the given kind and namespace. Starts
+	 * synchronizing them with the server.
+	 */
+	public void put(String kind, String namespace, List<? extends IResource> resources) {
+		Key key = new Key(kind, namespace);
+		entries.put(key, toMap(resources));
+		listed.put(key, System.currentTimeMillis());
+		outdated.remove(key);
+		// listed successfully, stop backing off
+		this.resyncDelay = RESYNC_INTERVAL;
+		scheduleResync();
+	}
+
+	private void scheduleResync() {
+		if (resyncJob.getState() == Job.NONE
+				&& !entries.isEmpty()) {
+			resyncJob.schedule(resyncDelay);
+		}
+	}
+
+	/**
+	 * Caches the given resources of the given kind and namespace unless they
+	 * are cached already. The given resources may be outdated (ex. restored
+	 * from a {@link ResourceCacheSnapshot}), they are thus synchronized with
+	 * the server right away.
+	 */
+	public void prime(String kind, String namespace, List<? extends IResource> resources) {
+		Key key = new Key(kind, namespace);
+		if (entries.putIfAbsent(key, toMap(resources)) == null) {
+			listed.put(key, System.currentTimeMillis());
+			outdated.add(key);
+			resyncJob.schedule();
+		}
+	}
+
+	/**
+	 * Adds or replaces the given resource in all the cached lists that
+	 * it belongs to.
+	 */
+	public void update(IResource resource) {
+		if (resource == null) {
+			return;
+		}
+		for (Map<String, IResource> resources : getEntriesFor(resource)) {
+			synchronized (resources) {
+				resources.put(getId(resource), resource);
+			}
+		}
+	}
+
+	/**
+	 * Removes the given resource from all the cached lists that it belongs to.
+	 */
+	public void remove(IResource resource) {
+		if (resource == null) {
+			return;
+		}
+		for (Map<String, IResource> resources : getEntriesFor(resource)) {
+			synchronized (resources) {
+				resources.remove(getId(resource));
+			}
+		}
+	}
+
+	/**
+	 * Discards all the cached resources. They'll get listed again when they
+	 * are requested.
+	 */
+	public void clear() {
+		entries.clear();
+		listed.clear();
+		outdated.clear();
+		resyncJob.cancel();
+	}
+
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * Lists the subscribed and the outdated (kind, namespace) again and
+	 * publishes the differences to the cached state as connection change
+	 * events. Discards the other ones if they're older than
+	 * {@link #RESYNC_INTERVAL}. Never reauthenticates, stops at the first
+	 * request that the server rejects.
+	 * 
+	 * @return <code>false</code> if a request failed, <code>true</code> otherwise
+	 */
+	protected boolean resync(IProgressMonitor monitor) {
+		boolean succeeded = true;
+		for (Map.Entry<Key, Map<String, IResource>> entry : entries.entrySet()) {
+			if (monitor.isCanceled()) {
+				break;
+			}
+			Key key = entry.getKey();
+			Map<String, IResource> oldResources = entry.getValue();
+			if (!isSubscribed(key)
+					&& !outdated.contains(key)) {
+				if (isExpired(key)
+						&& entries.remove(key, oldResources)) {
+					// no longer viewed, list again when requested
+					listed.remove(key);
+				}
+				continue;
+			}
+			try {
+				List<IResource> resources = connection.listResources(key.kind, key.namespace, false);
+				Map<String, IResource> newResources = toMap(resources);
+				List<IResource> oldList = null;
+				synchronized (oldResources) {
+					oldList = new ArrayList<IResource>(oldResources.values());
+				}
+				if (!entries.replace(key, oldResources, newResources)) {
+					// cleared or updated in the meantime
+					continue;
+				}
+				listed.put(key, System.currentTimeMillis());
+				outdated.remove(key);
+				fireDeltas(key, oldList, newResources);
+			} catch (UnauthorizedException e) {
+				// don't prompt from the background, wait for the user to reauthenticate
+				OpenShiftCoreActivator.pluginLog().logInfo(
+						String.format("Unauthorized to synchronize the resources for connection %s", connection));
+				return false;
+			} catch (OpenShiftException e) {
+				OpenShiftCoreActivator.logWarning(
+						String.format("Could not synchronize %s resources in namespace \"%s\" for connection %s",
+								key.kind, key.namespace, connection), e);
+				succeeded = false;
+			}
+		}
+		return succeeded;
+	}
+
+	private boolean isExpired(Key key) {
+		Long listedAt = listed.get(key);
+		return listedAt == null
+				|| System.currentTimeMillis() - listedAt >= RESYNC_INTERVAL;
+	}
+
+	private void fireDeltas(Key key, List<IResource> oldList, Map<String, IResource> newResources) {
+		ConnectionsRegistry registry = ConnectionsRegistrySingleton.getInstance();
+		List<IResource> newList = new ArrayList<IResource>(newResources.values());
+		if (ResourceKind.PROJECT.equals(key.kind)) {
+			if (!isSame(oldList, newResources)) {
+				registry.fireConnectionChanged(connection, ConnectionProperties.PROPERTY_PROJECTS, oldList, newList);
+			}
+			return;
+		}
+		Map<String, IResource> removed = toMap(oldList);
+		for (IResource newResource : newList) {
+			IResource oldResource = removed.remove(getId(newResource));
+			if (oldResource == null) {
+				registry.fireConnectionChanged(connection, ConnectionProperties.PROPERTY_RESOURCE, null, newResource);
+			} else if (isModified(oldResource, newResource)) {
+				registry.fireConnectionChanged(connection, ConnectionProperties.PROPERTY_RESOURCE, oldResource, newResource);
+			}
+		}
+		for (IResource oldResource : removed.values()) {
+			registry.fireConnectionChanged(connection, ConnectionProperties.PROPERTY_RESOURCE, oldResource, null);
+		}
+	}
+
+	private boolean isSame(List<IResource> oldList, Map<String, IResource> newResources) {
+		if (oldList.size() != newResources.size()) {
+			return false;
+		}
+		for (IResource oldResource : oldList) {
+			IResource newResource = newResources.get(getId(oldResource));
+			if (newResource == null
+					|| isModified(oldResource, newResource)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given resources differ. Compares the
+	 * resource versions if both resources have one, the json representations
+	 * otherwise.
+	 */
+	private boolean isModified(IResource oldResource, IResource newResource) {
+		String oldVersion = getResourceVersion(oldResource);
+		String newVersion = getResourceVersion(newResource);
+		if (oldVersion != null
+				&& newVersion != null) {
+			return !oldVersion.equals(newVersion);
+		}
+		return !ObjectUtils.equals(oldResource.toJson(true), newResource.toJson(true));
+	}
+
+	/**
+	 * Returns the resource version of the given resource or
+	 * <code>null</code> if it has none. The rest client does not expose it in
+	 * its api, it is read from the json of the resource.
+	 */
+	private static String getResourceVersion(IResource resource) {
+		String json = resource.toJson(true);
+		if (StringUtils.isEmpty(json)) {
+			return null;
+		}
+		ModelNode node = ModelNode.fromJSONString(json);
+		if (!node.hasDefined(METADATA)
+				|| !node.get(METADATA).hasDefined(RESOURCE_VERSION)) {
+			return null;
+		}
+		return node.get(METADATA).get(RESOURCE_VERSION).asString();
+	}
+
+	private List<Map<String, IResource>> getEntriesFor(IResource resource) {
+		List<Map<String, IResource>> matching = new ArrayList<Map<String, IResource>>();
+		for (Map.Entry<Key, Map<String, IResource>> entry : entries.entrySet()) {
+			if (entry.getKey().contains(resource)) {
+				matching.add(entry.getValue());
+			}
+		}
+		return matching;
+	}
+
+	private Map<String, IResource> toMap(Collection<? extends IResource> resources) {
+		Map<String, IResource> map = new LinkedHashMap<String, IResource>();
+		if (resources != null) {
+			for (IResource resource : resources) {
+				map.put(getId(resource), resource);
+			}
+		}
+		return map;
+	}
+
+	private String getId(IResource resource) {
+		return resource.getNamespace() + "/" + resource.getName();
+	}
+
+	/**
+	 * Returns <code>true</code> if the connection that this cache belongs to
+	 * is (still) in the registry.
+	 */
+	private boolean isRegistered() {
+		return ConnectionsRegistrySingleton.getInstance().contains(connection);
+	}
+
+	private class ResyncJob extends Job {
+
+		public ResyncJob() {
+			super(String.format("Synchronizing OpenShift resources for %s", connection));
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			if (!isRegistered()) {
+				entries.clear();
+				listed.clear();
+				outdated.clear();
+				return Status.OK_STATUS;
+			}
+			if (resync(monitor)) {
+				resyncDelay = RESYNC_INTERVAL;
+			} else {
+				resyncDelay = Math.min(resyncDelay * 2, MAX_RESYNC_INTERVAL);
+			}
+			if (!monitor.isCanceled()
+					&& !entries.isEmpty()) {
+				schedule(resyncDelay);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	private static class Key {
+
+		private final String kind;
+		private final String namespace;
+
+		private Key(String kind, String namespace) {
+			this.kind = kind;
+			this.namespace = StringUtils.defaultString(namespace, NAMESPACE_ALL);
+		}
+
+		private boolean contains(IResource resource) {
+			return kind.equals(resource.getKind())
+					&& (NAMESPACE_ALL.equals(namespace)
+							|| namespace.equals(resource.getNamespace()));
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((kind == null) ? 0 : kind.hashCode());
+			result = prime * result + namespace.hashCode();
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return ObjectUtils.equals(kind, other.kind)
+					&& namespace.equals(other.namespace);
+		}
+	}
+}
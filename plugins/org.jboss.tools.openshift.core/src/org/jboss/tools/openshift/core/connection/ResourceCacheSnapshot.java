@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.core.connection;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.tools.openshift.common.core.connection.ConnectionURL;
+import org.jboss.tools.openshift.internal.core.OpenShiftCoreActivator;
+
+import com.openshift.restclient.model.IResource;
+
+/**
+ * An on-disk snapshot of cached resources. Allows to prime the
+ * {@link ResourceCache} of a connection after a restart so that the resources
+ * are available instantly while they're being synchronized with the server.
+ * The resources are stored as lists in the json format of the server.
+ */
+public class ResourceCacheSnapshot {
+
+	private static final String SNAPSHOTS_DIRECTORY = "snapshots";
+	private static final String ENCODING = "UTF-8";
+	private static final Charset UTF_8 = Charset.forName(ENCODING);
+	private static final String KIND = "kind";
+	private static final String API_VERSION = "apiVersion";
+	private static final String ITEMS = "items";
+	private static final String LIST_SUFFIX = "List";
+
+	private final File directory;
+
+	public ResourceCacheSnapshot() {
+		this(OpenShiftCoreActivator.getDefault().getStateLocation().append(SNAPSHOTS_DIRECTORY).toFile());
+	}
+
+	public ResourceCacheSnapshot(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Stores the given resources of the given kind and namespace for the
+	 * given connection. Replaces the existing snapshot atomically.
+	 */
+	public void save(Connection connection, String kind, String namespace, List<? extends IResource> resources) throws IOException {
+		File file = getFile(connection, kind, namespace);
+		if (file == null
+				|| resources == null) {
+			return;
+		}
+		ModelNode list = new ModelNode();
+		list.get(KIND).set(kind + LIST_SUFFIX);
+		list.get(ITEMS).setEmptyList();
+		for (IResource resource : resources) {
+			if (!list.hasDefined(API_VERSION)) {
+				list.get(API_VERSION).set(resource.getApiVersion());
+			}
+			list.get(ITEMS).add(ModelNode.fromJSONString(resource.toJson(true)));
+		}
+		Files.createDirectories(directory.toPath());
+		Path temporary = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+		try {
+			Files.write(temporary, list.toJSONString(true).getBytes(UTF_8));
+			Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Returns the stored resources of the given kind and namespace for the
+	 * given connection. Returns <code>null</code> if there are none.
+	 */
+	public List<IResource> load(Connection connection, String kind, String namespace) throws IOException {
+		File file = getFile(connection, kind, namespace);
+		if (file == null
+				|| !file.isFile()) {
+			return null;
+		}
+		String json = new String(Files.readAllBytes(file.toPath()), UTF_8);
+		if (!ModelNode.fromJSONString(json).hasDefined(API_VERSION)) {
+			// empty list
+			return null;
+		}
+		return connection.getResourceFactory().createList(json, kind);
+	}
+
+	/**
+	 * Removes the stored resources of the given kind and namespace for the
+	 * given connection.
+	 */
+	public void remove(Connection connection, String kind, String namespace) throws IOException {
+		File file = getFile(connection, kind, namespace);
+		if (file != null) {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+
+	private File getFile(Connection connection, String kind, String namespace) {
+		ConnectionURL url = ConnectionURL.safeForConnection(connection);
+		if (url == null) {
+			return null;
+		}
+		try {
+			String name = URLEncoder.encode(String.format("%s/%s/%s", url, namespace, kind), ENCODING);
+			return new File(directory, name + ".json");
+		} catch (UnsupportedEncodingException e) {
+			return null;
+		}
+	}
+}
@@ -17,4 +17,7 @@ public interface IOpenShiftCoreConstants {
 	
 	static final String OPENSHIFT_CLI_LOC = "openshift.cli.location"; 
 
+	/** whether the common templates are stored on disk and restored at startup */
+	static final String TEMPLATES_SNAPSHOT = "org.jboss.tools.openshift.core.connection.TEMPLATES_SNAPSHOT";
+
 }
@@ -28,6 +28,8 @@ public class OpenShiftCorePreferences {
 
 	private final StringsPreferenceValue connectionsPreferenceValue = 
 			new StringsPreferenceValue('|', CONNECTIONS, OpenShiftCoreActivator.PLUGIN_ID);
+	private final StringPreferenceValue templatesSnapshotPreferenceValue = 
+			new StringPreferenceValue(IOpenShiftCoreConstants.TEMPLATES_SNAPSHOT, OpenShiftCoreActivator.PLUGIN_ID);
 
 
 	private OpenShiftCorePreferences() {
@@ -41,6 +43,14 @@ public class OpenShiftCorePreferences {
 		connectionsPreferenceValue.set(connections);
 	}
 	
+	public boolean isTemplatesSnapshot() {
+		return Boolean.valueOf(templatesSnapshotPreferenceValue.get());
+	}
+
+	public void saveTemplatesSnapshot(boolean snapshot) {
+		templatesSnapshotPreferenceValue.set(String.valueOf(snapshot));
+	}
+
 	public void saveAuthScheme(String connectionURL, String scheme) {
 		createPreferenceValue(connectionURL).set(scheme);
 	}
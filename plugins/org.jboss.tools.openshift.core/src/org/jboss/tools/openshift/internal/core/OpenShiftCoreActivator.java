@@ -76,6 +76,9 @@ public class OpenShiftCoreActivator extends BaseCorePlugin {
 	public void stop(BundleContext context) throws Exception {
     	Collection<Connection> connections = ConnectionsRegistrySingleton.getInstance().getAll(Connection.class);
 		new ConnectionPersistency().save(connections);
+		for (Connection connection : connections) {
+			connection.saveCommonTemplates();
+		}
     	super.stop(context);
 	}
 
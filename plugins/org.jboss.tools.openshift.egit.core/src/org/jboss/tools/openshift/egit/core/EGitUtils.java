@@ -554,6 +554,7 @@ public class EGitUtils {
 			}
 			PushOperation op = createPushOperation(remoteConfig, repository, force, out);
 			op.run(monitor);
+			RemoteRefTracker.getInstance().invalidate(repository, remoteConfig.getName());
 			PushOperationResult pushResult = op.getOperationResult();
 			if (hasFailedEntries(pushResult)) {
 				throw new CoreException(EGitCoreActivator.createErrorStatus(NLS
@@ -1309,20 +1310,38 @@ public class EGitUtils {
 			return false;
 		}
 		Ref currentBranchRef = repo.getRef(repo.getBranch());
+		int aheadCount = countCommitsNotIn(repo, currentBranchRef.getObjectId(), ref.getObjectId());
 
+		return aheadCount > 0;
+	}	
+
+	/**
+	 * Returns the number of commits that are reachable from the given commit
+	 * but not from the given other commit. Both commits have to be present in
+	 * the given repository, no network access is required.
+	 * 
+	 * @param repo
+	 *            the repository to look into
+	 * @param commitId
+	 *            the commit to count the commits of
+	 * @param otherCommitId
+	 *            the commit whose commits shall not be counted
+	 * @return the number of commits in commitId that are not in otherCommitId
+	 * @throws IOException
+	 */
+	static int countCommitsNotIn(Repository repo, ObjectId commitId, ObjectId otherCommitId)
+			throws MissingObjectException, IncorrectObjectTypeException, IOException {
 		RevWalk walk = new RevWalk(repo);
-		RevCommit localCommit = walk.parseCommit(currentBranchRef.getObjectId());
-		RevCommit trackingCommit = walk.parseCommit(ref.getObjectId());
+		RevCommit commit = walk.parseCommit(commitId);
+		RevCommit otherCommit = walk.parseCommit(otherCommitId);
 		walk.setRevFilter(RevFilter.MERGE_BASE);
-		walk.markStart(localCommit);
-		walk.markStart(trackingCommit);
+		walk.markStart(commit);
+		walk.markStart(otherCommit);
 		RevCommit mergeBase = walk.next();
 		walk.reset();
 		walk.setRevFilter(RevFilter.ALL);
-		int aheadCount = RevWalkUtils.count(walk, localCommit, mergeBase);
-
-		return aheadCount > 0;
-	}	
+		return RevWalkUtils.count(walk, commit, mergeBase);
+	}
 
 	public static boolean isValidGitUrl(String url) {
 		return GIT_SSH_URL_PATTERN.matcher(url).matches()
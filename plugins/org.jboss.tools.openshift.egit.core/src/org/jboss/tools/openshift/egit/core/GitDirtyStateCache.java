@@ -0,0 +1,332 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.egit.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.egit.core.EclipseGitProgressTransformer;
+import org.eclipse.egit.core.IteratorService;
+import org.eclipse.egit.core.project.RepositoryMapping;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Caches the uncommitted changes of repositories so that asking whether a
+ * repository is dirty does not need to diff the whole working tree each
+ * time. The cached state is invalidated:
+ * <ul>
+ * <li>entirely if the index or HEAD changed (ex. add, commit, checkout) or
+ * if the last full scan is older than {@link #FULL_SCAN_INTERVAL}</li>
+ * <li>for the touched paths only if workspace resources were added, changed
+ * or removed</li>
+ * </ul>
+ * Changes in the working tree that happen outside of the workspace are
+ * detected with the next full scan only. The cached state is thus meant for
+ * hints in the UI. Use
+ * {@link EGitUtils#countChanges(Repository, boolean, IProgressMonitor)} where
+ * exact results are required (ex. before publishing).
+ */
+public class GitDirtyStateCache implements IResourceChangeListener {
+
+	/** the maximum age in milliseconds of the last full scan of a repository */
+	public static final long FULL_SCAN_INTERVAL = 10 * 60 * 1000;
+
+	/** the number of touched paths above which the whole working tree is scanned */
+	private static final int MAX_TOUCHED_PATHS = 1000;
+
+	private static GitDirtyStateCache instance;
+
+	private final Map<File, DirtyState> states = new ConcurrentHashMap<File, DirtyState>();
+
+	public static synchronized GitDirtyStateCache getInstance() {
+		if (instance == null) {
+			instance = new GitDirtyStateCache();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(instance, IResourceChangeEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance == null) {
+			return;
+		}
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(instance);
+		instance.states.clear();
+		instance = null;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given repository has uncommitted
+	 * changes and (if includeUntracked is <code>true</code>) non-tracked
+	 * resources.
+	 *
+	 * @see EGitUtils#isDirty(Repository, boolean, IProgressMonitor)
+	 */
+	public boolean isDirty(Repository repository, boolean includeUntracked, IProgressMonitor monitor) throws IOException {
+		return countChanges(repository, includeUntracked, monitor) > 0;
+	}
+
+	/**
+	 * Returns the number of changes for a given repository. If
+	 * <strong>includeUntracked</strong> is set to <code>true</code> then
+	 * non-tracked changes are taken into account.
+	 *
+	 * @see EGitUtils#countChanges(Repository, boolean, IProgressMonitor)
+	 */
+	public int countChanges(Repository repository, boolean includeUntracked, IProgressMonitor monitor) throws IOException {
+		Assert.isLegal(repository != null);
+
+		DirtyState state = states.get(repository.getDirectory());
+		if (state == null) {
+			state = new DirtyState(repository);
+			states.put(repository.getDirectory(), state);
+		}
+		return state.countChanges(includeUntracked, monitor);
+	}
+
+	/**
+	 * Discards the cached state of the given repository.
+	 */
+	public void invalidate(Repository repository) {
+		if (repository != null) {
+			states.remove(repository.getDirectory());
+		}
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		if (states.isEmpty()
+				|| event.getDelta() == null) {
+			return;
+		}
+		try {
+			event.getDelta().accept(new IResourceDeltaVisitor() {
+
+				@Override
+				public boolean visit(IResourceDelta delta) throws CoreException {
+					return onResourceChanged(delta);
+				}
+			});
+		} catch (CoreException e) {
+			// cannot tell what changed
+			states.clear();
+		}
+	}
+
+	/**
+	 * Marks the path of the changed resource as touched. Returns
+	 * <code>true</code> if the children of the given delta need to be
+	 * visited.
+	 */
+	private boolean onResourceChanged(IResourceDelta delta) {
+		IResource resource = delta.getResource();
+		if (resource.getType() == IResource.ROOT) {
+			return true;
+		}
+		if (resource.isTeamPrivateMember()) {
+			// the index is checked when queried
+			return false;
+		}
+		if (delta.getKind() == IResourceDelta.CHANGED
+				&& resource.getType() != IResource.FILE) {
+			// changes are reported for the children
+			return true;
+		}
+		if (delta.getKind() == IResourceDelta.CHANGED
+				&& (delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED | IResourceDelta.TYPE)) == 0) {
+			// markers, sync info, etc.
+			return false;
+		}
+		RepositoryMapping mapping = RepositoryMapping.getMapping(resource);
+		if (mapping == null) {
+			return false;
+		}
+		DirtyState state = states.get(mapping.getRepository().getDirectory());
+		if (state != null) {
+			state.touch(mapping.getRepoRelativePath(resource));
+		}
+		// added or removed containers are rescanned as a whole
+		return false;
+	}
+
+	private static class DirtyState {
+
+		private final Repository repository;
+		/** added, changed, removed, missing, modified and conflicting paths */
+		private final Set<String> changes = new HashSet<String>();
+		private final Set<String> untracked = new HashSet<String>();
+		/** touched while scanning is allowed, without waiting for the scan to finish */
+		private final Set<String> touched = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+		private boolean scanned;
+		private volatile boolean fullScanRequired;
+		private long scanTime;
+		private long indexModified;
+		private long indexLength;
+		private ObjectId head;
+
+		private DirtyState(Repository repository) {
+			this.repository = repository;
+		}
+
+		private void touch(String path) {
+			if (path == null
+					|| path.isEmpty()
+					|| touched.size() >= MAX_TOUCHED_PATHS) {
+				this.fullScanRequired = true;
+			} else {
+				touched.add(path);
+			}
+		}
+
+		private synchronized int countChanges(boolean includeUntracked, IProgressMonitor monitor) throws IOException {
+			if (!scanned
+					|| fullScanRequired
+					|| isOutdated()) {
+				scanAll(monitor);
+			} else if (!touched.isEmpty()) {
+				scanTouched(monitor);
+			}
+			int count = changes.size();
+			if (includeUntracked) {
+				// a path may be both (ex. removed from the index but still in the working tree)
+				for (String path : untracked) {
+					if (!changes.contains(path)) {
+						count++;
+					}
+				}
+			}
+			return count;
+		}
+
+		private boolean isOutdated() throws IOException {
+			File index = repository.getIndexFile();
+			return System.currentTimeMillis() - scanTime > FULL_SCAN_INTERVAL
+					|| index.lastModified() != indexModified
+					|| index.length() != indexLength
+					|| !equals(head, repository.resolve(Constants.HEAD));
+		}
+
+		private void scanAll(IProgressMonitor monitor) throws IOException {
+			File index = repository.getIndexFile();
+			long indexModified = index.lastModified();
+			long indexLength = index.length();
+			ObjectId head = repository.resolve(Constants.HEAD);
+			long scanTime = System.currentTimeMillis();
+			this.fullScanRequired = false;
+			// the full scan covers all the paths that were touched so far
+			drainTouched();
+
+			IndexDiff diff = diff(null, monitor);
+			changes.clear();
+			untracked.clear();
+			if (diff == null) {
+				this.scanned = false;
+				return;
+			}
+			add(diff);
+			this.indexModified = indexModified;
+			this.indexLength = indexLength;
+			this.head = head;
+			this.scanTime = scanTime;
+			this.scanned = true;
+		}
+
+		private void scanTouched(IProgressMonitor monitor) throws IOException {
+			List<String> paths = drainTouched();
+			IndexDiff diff = diff(paths, monitor);
+			if (diff == null) {
+				this.fullScanRequired = true;
+				return;
+			}
+			removeUnder(paths, changes);
+			removeUnder(paths, untracked);
+			add(diff);
+		}
+
+		/**
+		 * Removes the touched paths and returns them. Paths that are touched
+		 * while draining are either returned or kept for the next scan.
+		 */
+		private List<String> drainTouched() {
+			List<String> paths = new ArrayList<String>();
+			for (Iterator<String> it = touched.iterator(); it.hasNext();) {
+				paths.add(it.next());
+				it.remove();
+			}
+			return paths;
+		}
+
+		private IndexDiff diff(Collection<String> paths, IProgressMonitor monitor) throws IOException {
+			IndexDiff diff = new IndexDiff(repository, Constants.HEAD, IteratorService.createInitialIterator(repository));
+			if (paths != null) {
+				diff.setFilter(PathFilterGroup.createFromStrings(paths));
+			}
+			if (!diff.diff(new EclipseGitProgressTransformer(monitor), 0, 0,
+					NLS.bind("Repository: {0}", repository.getDirectory().getPath()))) {
+				return null;
+			}
+			return diff;
+		}
+
+		private void add(IndexDiff diff) {
+			changes.addAll(diff.getAdded());
+			changes.addAll(diff.getChanged());
+			changes.addAll(diff.getModified());
+			changes.addAll(diff.getRemoved());
+			changes.addAll(diff.getMissing());
+			changes.addAll(diff.getConflicting());
+			untracked.addAll(diff.getUntracked());
+		}
+
+		private void removeUnder(Collection<String> paths, Set<String> changes) {
+			for (Iterator<String> it = changes.iterator(); it.hasNext();) {
+				String change = it.next();
+				for (String path : paths) {
+					if (change.equals(path)
+							|| change.startsWith(path + "/")) {
+						it.remove();
+						break;
+					}
+				}
+			}
+		}
+
+		private static boolean equals(ObjectId thisId, ObjectId thatId) {
+			if (thisId == null) {
+				return thatId == null;
+			}
+			return thisId.equals(thatId);
+		}
+	}
+}
@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.egit.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.BranchTrackingStatus;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.FetchResult;
+import org.eclipse.jgit.transport.RemoteConfig;
+import org.eclipse.osgi.util.NLS;
+import org.jboss.tools.openshift.egit.core.internal.EGitCoreActivator;
+
+/**
+ * Tracks the HEAD that the remotes of repositories advertise. The remotes are
+ * fetched in the background, once they were queried the first time and then
+ * every {@link #REFRESH_INTERVAL} for as long as they keep being queried.
+ * Ahead and behind counts are then computed locally against the last known
+ * remote HEAD, without waiting for the network. The remote is fetched
+ * synchronously only if its HEAD is not known yet.
+ * <p>
+ * The counts may thus be outdated by up to {@link #REFRESH_INTERVAL}. Use
+ * {@link EGitUtils#isAhead(Repository, String, IProgressMonitor)} where exact
+ * results are required.
+ */
+public class RemoteRefTracker {
+
+	/** the interval in milliseconds at which remotes are fetched in the background */
+	public static final long REFRESH_INTERVAL = 5 * 60 * 1000;
+
+	/** the time in milliseconds after which remotes that were not queried any more are not fetched any more */
+	private static final long IDLE_TIMEOUT = 30 * 60 * 1000;
+
+	/** returned if the count cannot be computed since the remote HEAD is not known (yet) */
+	public static final int UNKNOWN = -1;
+
+	private static RemoteRefTracker instance;
+
+	private final ConcurrentMap<String, RemoteHead> heads = new ConcurrentHashMap<String, RemoteHead>();
+
+	public static synchronized RemoteRefTracker getInstance() {
+		if (instance == null) {
+			instance = new RemoteRefTracker();
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance == null) {
+			return;
+		}
+		for (RemoteHead head : new ArrayList<RemoteHead>(instance.heads.values())) {
+			head.cancel();
+		}
+		instance.heads.clear();
+		instance = null;
+	}
+
+	public boolean isAhead(IProject project, String remote, IProgressMonitor monitor)
+			throws IOException, InvocationTargetException, URISyntaxException {
+		return isAhead(EGitUtils.getRepository(project), remote, monitor);
+	}
+
+	/**
+	 * Returns <code>true</code> if the given repo has commits that are not
+	 * contained in the last known HEAD of the given remote. Branches that
+	 * track a branch of the given remote are compared to their (local)
+	 * tracking branch. Fetches the remote synchronously if its HEAD is not
+	 * known yet and in the background if it was fetched more than
+	 * {@link #REFRESH_INTERVAL} ago.
+	 *
+	 * @param repo
+	 *            the repo to check
+	 * @param remote
+	 *            the name of the remote to check against
+	 * @param monitor
+	 *            the monitor to report progress to
+	 * @return
+	 *
+	 * @see EGitUtils#isAhead(Repository, String, IProgressMonitor)
+	 */
+	public boolean isAhead(Repository repo, String remote, IProgressMonitor monitor)
+			throws IOException, InvocationTargetException, URISyntaxException {
+		Assert.isLegal(remote != null);
+		Assert.isLegal(repo != null);
+		RemoteHead head = getRemoteHead(repo, remote);
+		if (remote.equals(EGitUtils.getRemote(repo.getBranch(), repo.getConfig()))) {
+			// tracking branches are updated by the background fetch
+			BranchTrackingStatus status = BranchTrackingStatus.of(repo, repo.getBranch());
+			if (status != null) {
+				return status.getAheadCount() > 0;
+			}
+		}
+		head.fetchOnce(monitor);
+		return getAheadCount(repo, remote) > 0;
+	}
+
+	/**
+	 * Returns the number of commits in the current branch of the given
+	 * repository that are not in the last known HEAD of the given remote.
+	 * Returns {@link #UNKNOWN} if the HEAD of the remote is not known yet.
+	 * Never accesses the network, a fetch is scheduled in the background if
+	 * the remote HEAD is unknown or outdated.
+	 */
+	public int getAheadCount(Repository repo, String remote) throws IOException {
+		ObjectId remoteHead = getRemoteHead(repo, remote).getObjectId();
+		ObjectId localHead = repo.resolve(Constants.HEAD);
+		if (remoteHead == null
+				|| localHead == null) {
+			return UNKNOWN;
+		}
+		return count(repo, localHead, remoteHead);
+	}
+
+	/**
+	 * Returns the number of commits in the last known HEAD of the given
+	 * remote that are not in the current branch of the given repository.
+	 * Returns {@link #UNKNOWN} if the HEAD of the remote is not known yet.
+	 * Never accesses the network, a fetch is scheduled in the background if
+	 * the remote HEAD is unknown or outdated.
+	 */
+	public int getBehindCount(Repository repo, String remote) throws IOException {
+		ObjectId remoteHead = getRemoteHead(repo, remote).getObjectId();
+		ObjectId localHead = repo.resolve(Constants.HEAD);
+		if (remoteHead == null
+				|| localHead == null) {
+			return UNKNOWN;
+		}
+		return count(repo, remoteHead, localHead);
+	}
+
+	/**
+	 * Fetches the given remote of the given repository and updates the known
+	 * remote HEAD. Blocks until the fetch is done.
+	 */
+	public void refresh(Repository repo, String remote, IProgressMonitor monitor)
+			throws InvocationTargetException, URISyntaxException {
+		getRemoteHead(repo, remote).fetch(monitor);
+	}
+
+	/**
+	 * Schedules fetching the given remote of the given repository in the
+	 * background.
+	 */
+	public void refreshLater(Repository repo, String remote) {
+		getRemoteHead(repo, remote).refreshLater();
+	}
+
+	/**
+	 * Discards the known HEAD of the given remote (ex. once it was pushed
+	 * to) and fetches it again in the background.
+	 */
+	public void invalidate(Repository repo, String remote) {
+		if (repo == null
+				|| remote == null) {
+			return;
+		}
+		RemoteHead head = heads.get(getKey(repo, remote));
+		if (head != null) {
+			head.invalidate();
+		}
+	}
+
+	private RemoteHead getRemoteHead(Repository repo, String remote) {
+		String key = getKey(repo, remote);
+		RemoteHead head = heads.get(key);
+		if (head == null) {
+			RemoteHead newHead = new RemoteHead(repo, remote);
+			head = heads.putIfAbsent(key, newHead);
+			if (head == null) {
+				head = newHead;
+			}
+		}
+		head.query();
+		return head;
+	}
+
+	private String getKey(Repository repo, String remote) {
+		File directory = repo.getDirectory();
+		return (directory == null ? repo.toString() : directory.getAbsolutePath()) + "#" + remote;
+	}
+
+	private int count(Repository repo, ObjectId commitId, ObjectId otherCommitId) throws IOException {
+		try {
+			return EGitUtils.countCommitsNotIn(repo, commitId, otherCommitId);
+		} catch (MissingObjectException e) {
+			// not fetched (yet)
+			return UNKNOWN;
+		}
+	}
+
+	/**
+	 * The last known HEAD of a remote and the job that fetches it
+	 * periodically.
+	 */
+	private class RemoteHead extends Job {
+
+		private final Repository repo;
+		private final String remote;
+		private volatile ObjectId objectId;
+		private volatile long fetchTime;
+		private volatile boolean fetched;
+		private volatile long queryTime;
+		/** serializes the background and the synchronous fetches */
+		private final Object fetchLock = new Object();
+
+		private RemoteHead(Repository repo, String remote) {
+			super(NLS.bind("Fetching remote {0} of repository {1}", remote, repo.getDirectory()));
+			this.repo = repo;
+			this.remote = remote;
+			setSystem(true);
+		}
+
+		private void query() {
+			this.queryTime = System.currentTimeMillis();
+			if (isOutdated()
+					&& getState() == Job.NONE) {
+				schedule();
+			}
+		}
+
+		private ObjectId getObjectId() {
+			return objectId;
+		}
+
+		private void refreshLater() {
+			this.fetchTime = 0;
+			schedule();
+		}
+
+		private void invalidate() {
+			this.objectId = null;
+			this.fetched = false;
+			refreshLater();
+		}
+
+		/**
+		 * Fetches the remote unless it was fetched already (ex. by the
+		 * background job while waiting for it).
+		 */
+		private void fetchOnce(IProgressMonitor monitor) throws InvocationTargetException, URISyntaxException {
+			synchronized (fetchLock) {
+				if (!fetched) {
+					fetch(monitor);
+				}
+			}
+		}
+
+		private boolean isOutdated() {
+			return System.currentTimeMillis() - fetchTime > REFRESH_INTERVAL;
+		}
+
+		private void fetch(IProgressMonitor monitor) throws InvocationTargetException, URISyntaxException {
+			synchronized (fetchLock) {
+				RemoteConfig remoteConfig = new RemoteConfig(repo.getConfig(), remote);
+				FetchResult fetchResult = EGitUtils.fetch(remoteConfig, repo, monitor);
+				Ref ref = fetchResult.getAdvertisedRef(Constants.HEAD);
+				this.objectId = ref == null ? null : ref.getObjectId();
+				this.fetchTime = System.currentTimeMillis();
+				this.fetched = true;
+			}
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				synchronized (fetchLock) {
+					if (isOutdated()) {
+						fetch(monitor);
+					}
+				}
+			} catch (InvocationTargetException | URISyntaxException | RuntimeException e) {
+				// remote not reachable or misconfigured, retry at next interval
+				this.fetchTime = System.currentTimeMillis();
+			}
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
+			if (System.currentTimeMillis() - queryTime < IDLE_TIMEOUT) {
+				schedule(REFRESH_INTERVAL);
+			} else {
+				heads.remove(getKey(repo, remote), this);
+			}
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return EGitCoreActivator.PLUGIN_ID.equals(family);
+		}
+	}
+}
@@ -12,6 +12,8 @@ package org.jboss.tools.openshift.egit.core.internal;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.jboss.tools.openshift.egit.core.GitDirtyStateCache;
+import org.jboss.tools.openshift.egit.core.RemoteRefTracker;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 
@@ -34,6 +36,8 @@ public class EGitCoreActivator implements BundleActivator {
 
 
 	public void stop(BundleContext bundleContext) throws Exception {
+		GitDirtyStateCache.dispose();
+		RemoteRefTracker.dispose();
 		EGitCoreActivator.context = null;
 	}
 	
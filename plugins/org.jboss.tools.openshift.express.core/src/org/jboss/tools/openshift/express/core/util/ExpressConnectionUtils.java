@@ -10,7 +10,6 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.express.core.util;
 
-import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 
@@ -18,16 +17,14 @@ import org.eclipse.osgi.util.NLS;
 import org.jboss.tools.openshift.common.core.OpenShiftCoreException;
 import org.jboss.tools.openshift.common.core.connection.ConnectionURL;
 import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistry;
-import org.jboss.tools.openshift.common.core.utils.StringUtils;
 import org.jboss.tools.openshift.common.core.utils.UrlUtils;
-import org.jboss.tools.openshift.express.internal.core.ExpressCoreActivator;
 import org.jboss.tools.openshift.express.internal.core.connection.ExpressConnection;
 import org.jboss.tools.openshift.express.internal.core.preferences.ExpressCorePreferences;
+import org.jboss.tools.openshift.express.internal.core.util.DefaultHostResolver;
 
 import com.openshift.client.IApplication;
 import com.openshift.client.IUser;
 import com.openshift.client.configuration.IOpenShiftConfiguration;
-import com.openshift.client.configuration.OpenShiftConfiguration;
 
 /**
  * @author Rob Stryker
@@ -122,24 +119,17 @@ public class ExpressConnectionUtils {
 	/**
 	 * Returns the default host from the preferences if present. If it's not it
 	 * will return the host defined in the OpenShift configuration. The host
-	 * that is returned will always have the scheme prefix.
+	 * that is returned will always have the scheme prefix. The host is cached
+	 * until the preferences or the configuration change.
 	 * 
 	 * @return the default host
 	 * 
 	 * @see ExpressCorePreferences#getDefaultHost()
 	 * @see IOpenShiftConfiguration#getLibraServer()
+	 * @see DefaultHostResolver
 	 */
 	public static String getDefaultHostUrl() {
-		try {
-			String defaultHost = ExpressCorePreferences.INSTANCE.getDefaultHost();
-			if (!StringUtils.isEmpty(defaultHost)) {
-				return defaultHost;
-			}
-			return new OpenShiftConfiguration().getLibraServer();
-		} catch (IOException e) {
-			ExpressCoreActivator.pluginLog().logError("Could not load default server from OpenShift configuration.", e);
-		}
-		return null;
+		return DefaultHostResolver.getInstance().getDefaultHostUrl();
 	}
 
 	/**
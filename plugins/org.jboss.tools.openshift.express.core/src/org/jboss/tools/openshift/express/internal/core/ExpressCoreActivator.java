@@ -18,6 +18,8 @@ import org.jboss.tools.foundation.core.plugin.log.StatusFactory;
 import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistrySingleton;
 import org.jboss.tools.openshift.express.internal.core.connection.ExpressConnection;
 import org.jboss.tools.openshift.express.internal.core.connection.ExpressConnectionPersistency;
+import org.jboss.tools.openshift.express.internal.core.server.OpenShiftProjectIndex;
+import org.jboss.tools.openshift.express.internal.core.util.DefaultHostResolver;
 import org.osgi.framework.BundleContext;
 
 /**
@@ -84,6 +86,8 @@ public class ExpressCoreActivator extends BaseCorePlugin {
 	public void stop(BundleContext context) throws Exception {
 		new ExpressConnectionPersistency().save(
 				ConnectionsRegistrySingleton.getInstance().getAll(ExpressConnection.class));
+		OpenShiftProjectIndex.dispose();
+		DefaultHostResolver.dispose();
 		
 		super.stop(context);
 		context = null;
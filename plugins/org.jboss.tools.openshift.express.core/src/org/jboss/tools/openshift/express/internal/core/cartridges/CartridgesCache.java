@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.express.internal.core.cartridges;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.jboss.tools.openshift.express.internal.core.ExpressCoreActivator;
+
+import com.openshift.client.cartridge.EmbeddableCartridge;
+import com.openshift.client.cartridge.ICartridge;
+import com.openshift.client.cartridge.IEmbeddableCartridge;
+import com.openshift.client.cartridge.IStandaloneCartridge;
+import com.openshift.client.cartridge.StandaloneCartridge;
+
+/**
+ * An on-disk cache of the cartridge catalog of an OpenShift server. Allows
+ * wizards to show the cartridges instantly while the catalog is being
+ * revalidated with the server. There's a catalog per host, it is stored in a
+ * versioned properties file. Catalogs in another version are ignored.
+ */
+public class CartridgesCache {
+
+	/** the version of the file format, catalogs in other versions are ignored */
+	private static final String FORMAT_VERSION = "1";
+
+	private static final String CATALOGS_DIRECTORY = "catalogs";
+	private static final String ENCODING = "UTF-8";
+	private static final String VERSION = "version";
+	private static final String STANDALONE = "standalone";
+	private static final String EMBEDDABLE = "embeddable";
+	private static final String SIZE = "size";
+	private static final String NAME = "name";
+	private static final String DISPLAY_NAME = "displayName";
+	private static final String DESCRIPTION = "description";
+	private static final String URL = "url";
+	private static final String OBSOLETE = "obsolete";
+
+	private final File directory;
+
+	public CartridgesCache() {
+		this(ExpressCoreActivator.getDefault().getStateLocation().append(CATALOGS_DIRECTORY).toFile());
+	}
+
+	public CartridgesCache(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * The standalone and embeddable cartridges of a server.
+	 */
+	public static class Cartridges {
+
+		private final List<IStandaloneCartridge> standaloneCartridges;
+		private final List<IEmbeddableCartridge> embeddableCartridges;
+
+		public Cartridges(List<IStandaloneCartridge> standaloneCartridges, List<IEmbeddableCartridge> embeddableCartridges) {
+			this.standaloneCartridges = toUnmodifiableList(standaloneCartridges);
+			this.embeddableCartridges = toUnmodifiableList(embeddableCartridges);
+		}
+
+		public List<IStandaloneCartridge> getStandaloneCartridges() {
+			return standaloneCartridges;
+		}
+
+		public List<IEmbeddableCartridge> getEmbeddableCartridges() {
+			return embeddableCartridges;
+		}
+
+		private static <C> List<C> toUnmodifiableList(List<C> cartridges) {
+			if (cartridges == null) {
+				return Collections.emptyList();
+			}
+			return Collections.unmodifiableList(new ArrayList<C>(cartridges));
+		}
+	}
+
+	/**
+	 * Stores the given cartridges for the given host. Replaces the existing
+	 * catalog atomically. Returns <code>true</code> if the catalog changed,
+	 * <code>false</code> if the same catalog was already stored.
+	 */
+	public boolean save(String host, Cartridges cartridges) throws IOException {
+		File file = getFile(host);
+		if (file == null
+				|| cartridges == null) {
+			return false;
+		}
+		Properties catalog = new Properties();
+		catalog.setProperty(VERSION, FORMAT_VERSION);
+		put(STANDALONE, cartridges.getStandaloneCartridges(), catalog);
+		put(EMBEDDABLE, cartridges.getEmbeddableCartridges(), catalog);
+		if (catalog.equals(read(file))) {
+			return false;
+		}
+
+		Files.createDirectories(directory.toPath());
+		Path temporary = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(temporary)) {
+				catalog.store(out, null);
+			}
+			Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the stored cartridges for the given host. Returns
+	 * <code>null</code> if there are none or if they were stored in another
+	 * version.
+	 */
+	public Cartridges load(String host) throws IOException {
+		Properties catalog = read(getFile(host));
+		if (catalog == null
+				|| !FORMAT_VERSION.equals(catalog.getProperty(VERSION))) {
+			return null;
+		}
+		List<IStandaloneCartridge> standaloneCartridges = new ArrayList<IStandaloneCartridge>();
+		for (int i = 0; i < getSize(STANDALONE, catalog); i++) {
+			standaloneCartridges.add(createStandaloneCartridge(STANDALONE + '.' + i + '.', catalog));
+		}
+		List<IEmbeddableCartridge> embeddableCartridges = new ArrayList<IEmbeddableCartridge>();
+		for (int i = 0; i < getSize(EMBEDDABLE, catalog); i++) {
+			embeddableCartridges.add(createEmbeddableCartridge(EMBEDDABLE + '.' + i + '.', catalog));
+		}
+		return new Cartridges(standaloneCartridges, embeddableCartridges);
+	}
+
+	private void put(String type, List<? extends ICartridge> cartridges, Properties catalog) {
+		catalog.setProperty(type + '.' + SIZE, String.valueOf(cartridges.size()));
+		for (int i = 0; i < cartridges.size(); i++) {
+			ICartridge cartridge = cartridges.get(i);
+			String prefix = type + '.' + i + '.';
+			put(prefix + NAME, cartridge.getName(), catalog);
+			put(prefix + DISPLAY_NAME, cartridge.getDisplayName(), catalog);
+			put(prefix + DESCRIPTION, cartridge.getDescription(), catalog);
+			if (cartridge.getUrl() != null) {
+				put(prefix + URL, cartridge.getUrl().toString(), catalog);
+			}
+			put(prefix + OBSOLETE, String.valueOf(cartridge.isObsolete()), catalog);
+		}
+	}
+
+	private void put(String key, String value, Properties catalog) {
+		if (value != null) {
+			catalog.setProperty(key, value);
+		}
+	}
+
+	private int getSize(String type, Properties catalog) throws IOException {
+		try {
+			return Integer.parseInt(catalog.getProperty(type + '.' + SIZE, "0"));
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid cartridge catalog", e);
+		}
+	}
+
+	private IStandaloneCartridge createStandaloneCartridge(String prefix, Properties catalog) throws IOException {
+		String name = catalog.getProperty(prefix + NAME);
+		URL url = getUrl(prefix, catalog);
+		String displayName = catalog.getProperty(prefix + DISPLAY_NAME);
+		String description = catalog.getProperty(prefix + DESCRIPTION);
+		boolean obsolete = Boolean.parseBoolean(catalog.getProperty(prefix + OBSOLETE));
+		if (url != null) {
+			return new StandaloneCartridge(name, url, displayName, description, obsolete);
+		}
+		return new StandaloneCartridge(name, displayName, description, obsolete);
+	}
+
+	private IEmbeddableCartridge createEmbeddableCartridge(String prefix, Properties catalog) throws IOException {
+		String name = catalog.getProperty(prefix + NAME);
+		URL url = getUrl(prefix, catalog);
+		String displayName = catalog.getProperty(prefix + DISPLAY_NAME);
+		String description = catalog.getProperty(prefix + DESCRIPTION);
+		boolean obsolete = Boolean.parseBoolean(catalog.getProperty(prefix + OBSOLETE));
+		if (url != null) {
+			return new DownloadableEmbeddableCartridge(name, url, displayName, description, obsolete);
+		}
+		return new EmbeddableCartridge(name, displayName, description, obsolete);
+	}
+
+	/**
+	 * A downloadable embeddable cartridge with a display name, description
+	 * and obsolete flag. {@link EmbeddableCartridge} has no constructor for
+	 * these with an url (unlike {@link StandaloneCartridge}).
+	 */
+	private static class DownloadableEmbeddableCartridge extends EmbeddableCartridge {
+
+		private final String displayName;
+		private final String description;
+		private final boolean obsolete;
+
+		private DownloadableEmbeddableCartridge(String name, URL url, String displayName, String description, boolean obsolete) {
+			super(name, url);
+			this.displayName = displayName;
+			this.description = description;
+			this.obsolete = obsolete;
+		}
+
+		@Override
+		public String getDisplayName() {
+			if (displayName == null) {
+				return super.getDisplayName();
+			}
+			return displayName;
+		}
+
+		@Override
+		public String getDescription() {
+			if (description == null) {
+				return super.getDescription();
+			}
+			return description;
+		}
+
+		@Override
+		public boolean isObsolete() {
+			return obsolete;
+		}
+	}
+
+	private URL getUrl(String prefix, Properties catalog) throws IOException {
+		String url = catalog.getProperty(prefix + URL);
+		if (url == null) {
+			return null;
+		}
+		try {
+			return new URL(url);
+		} catch (MalformedURLException e) {
+			throw new IOException("Invalid cartridge catalog", e);
+		}
+	}
+
+	private Properties read(File file) throws IOException {
+		if (file == null
+				|| !file.isFile()) {
+			return null;
+		}
+		Properties catalog = new Properties();
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			catalog.load(in);
+		}
+		return catalog;
+	}
+
+	private File getFile(String host) {
+		if (host == null) {
+			return null;
+		}
+		try {
+			return new File(directory, URLEncoder.encode(host, ENCODING) + ".properties");
+		} catch (UnsupportedEncodingException e) {
+			return null;
+		}
+	}
+}
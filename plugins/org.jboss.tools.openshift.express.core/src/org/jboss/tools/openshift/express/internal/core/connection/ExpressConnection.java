@@ -20,7 +20,10 @@ import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.osgi.util.NLS;
 import org.jboss.tools.openshift.common.core.ICredentialsPrompter;
 import org.jboss.tools.openshift.common.core.connection.AbstractConnection;
@@ -31,6 +34,8 @@ import org.jboss.tools.openshift.common.core.utils.UrlUtils;
 import org.jboss.tools.openshift.express.client.ClientSystemProperties;
 import org.jboss.tools.openshift.express.core.util.ExpressConnectionUtils;
 import org.jboss.tools.openshift.express.internal.core.ExpressCoreActivator;
+import org.jboss.tools.openshift.express.internal.core.cartridges.CartridgesCache;
+import org.jboss.tools.openshift.express.internal.core.cartridges.CartridgesCache.Cartridges;
 import org.jboss.tools.openshift.express.internal.core.preferences.ExpressCorePreferences;
 import org.jboss.tools.openshift.express.internal.core.util.ExpressResourceLabelUtils;
 import org.jboss.tools.openshift.internal.common.core.UsageStats;
@@ -44,6 +49,7 @@ import com.openshift.client.IApplication;
 import com.openshift.client.IDomain;
 import com.openshift.client.IGearProfile;
 import com.openshift.client.IHttpClient.ISSLCertificateCallback;
+import com.openshift.client.IOpenShiftConnection;
 import com.openshift.client.IOpenShiftSSHKey;
 import com.openshift.client.IQuickstart;
 import com.openshift.client.ISSHPublicKey;
@@ -62,6 +68,9 @@ import com.openshift.internal.client.utils.StreamUtils;
  */
 public class ExpressConnection extends AbstractConnection {
 
+	/** the standalone and embeddable cartridges that this connection offers, notified as {@link Cartridges} */
+	public static final String PROPERTY_CARTRIDGES = "cartridges";
+
 	private static final String SECURE_STORAGE_PASSWORD = "pass";
 
 	/*
@@ -78,6 +87,10 @@ public class ExpressConnection extends AbstractConnection {
 	private boolean passwordLoaded;
 	private ICredentialsPrompter passwordPrompter;
 	private ISSLCertificateCallback sslCallback;
+	/** the cartridge catalog, <code>null</code> if it was not loaded yet, guarded by this */
+	private Cartridges cartridges;
+	/** <code>true</code> once the cached catalog was revalidated with the server, guarded by this */
+	private boolean cartridgesRevalidated;
 
 	public ExpressConnection(String host, ISSLCertificateCallback callback) {
 		this(null, null, UrlUtils.getScheme(host), UrlUtils.cutScheme(host), false, null, callback);
@@ -311,7 +324,7 @@ public class ExpressConnection extends AbstractConnection {
 
 	public List<IStandaloneCartridge> getStandaloneCartridges() throws OpenShiftException {
 		if (connect()) {
-			return user.getConnection().getStandaloneCartridges();
+			return getCartridgeCatalog().getStandaloneCartridges();
 		} else {
 			return null;
 		}
@@ -319,12 +332,75 @@ public class ExpressConnection extends AbstractConnection {
 	
 	public List<IEmbeddableCartridge> getEmbeddableCartridges() throws OpenShiftException {
 		if (connect()) {
-			return user.getConnection().getEmbeddableCartridges();
+			return getCartridgeCatalog().getEmbeddableCartridges();
 		} else {
 			return null;
 		}
 	}
 
+	/**
+	 * Returns the cartridge catalog of this connection. The catalog is read
+	 * from the on-disk cache if it was not loaded yet and is then revalidated
+	 * with the server in the background. It is loaded from the server if
+	 * there's no cached catalog.
+	 * 
+	 * @see CartridgesCache
+	 */
+	private Cartridges getCartridgeCatalog() throws OpenShiftException {
+		synchronized (this) {
+			if (cartridges != null) {
+				return cartridges;
+			}
+			this.cartridges = loadCachedCartridges();
+			if (cartridges != null) {
+				if (!cartridgesRevalidated) {
+					this.cartridgesRevalidated = true;
+					new RevalidateCartridgesJob().schedule();
+				}
+				return cartridges;
+			}
+		}
+		return loadCartridges();
+	}
+
+	private Cartridges loadCachedCartridges() {
+		try {
+			return new CartridgesCache().load(getHost());
+		} catch (IOException e) {
+			ExpressCoreActivator.pluginLog().logWarning(
+					NLS.bind("Could not read the cached cartridges for {0}", getHost()), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Loads the cartridge catalog from the server and stores it in the
+	 * on-disk cache. Notifies listeners if it differs from the catalog that
+	 * this connection held so far.
+	 */
+	private Cartridges loadCartridges() throws OpenShiftException {
+		IOpenShiftConnection connection = user.getConnection();
+		Cartridges loaded = new Cartridges(connection.getStandaloneCartridges(), connection.getEmbeddableCartridges());
+		Cartridges previous = null;
+		synchronized (this) {
+			previous = this.cartridges;
+			this.cartridges = loaded;
+			this.cartridgesRevalidated = true;
+		}
+		boolean changed = true;
+		try {
+			changed = new CartridgesCache().save(getHost(), loaded);
+		} catch (IOException e) {
+			ExpressCoreActivator.pluginLog().logWarning(
+					NLS.bind("Could not cache the cartridges for {0}", getHost()), e);
+		}
+		if (previous != null
+				&& changed) {
+			firePropertyChange(PROPERTY_CARTRIDGES, previous, loaded);
+		}
+		return loaded;
+	}
+
 	public List<ICartridge> getCartridges() throws OpenShiftException {
 		if (connect()) {
 			return user.getConnection().getCartridges();
@@ -346,6 +422,35 @@ public class ExpressConnection extends AbstractConnection {
 		getDomains();
 	}
 
+	/**
+	 * Loads the cartridges from the server to replace the ones that were read
+	 * from the on-disk cache. Also loads the quickstarts so that they're
+	 * available once they're needed. The quickstarts are not cached on disk
+	 * since they refer to the server to look up their cartridges.
+	 */
+	private class RevalidateCartridgesJob extends Job {
+
+		private RevalidateCartridgesJob() {
+			super(NLS.bind("Refreshing the cartridges of {0}", getHost()));
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				if (!isConnected()) {
+					return Status.OK_STATUS;
+				}
+				loadCartridges();
+				user.getConnection().getQuickstarts();
+			} catch (OpenShiftException e) {
+				ExpressCoreActivator.pluginLog().logWarning(
+						NLS.bind("Could not refresh the cartridges of {0}", getHost()), e);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
 	public IApplication getApplication(String name, IDomain domain) throws OpenShiftException {
 		if (domain == null) {
 			return null;
@@ -432,6 +537,10 @@ public class ExpressConnection extends AbstractConnection {
 
 	public void refresh() throws OpenShiftException {
 		isDomainLoaded = false;
+		synchronized (this) {
+			this.cartridges = null;
+			this.cartridgesRevalidated = false;
+		}
 		if (connect()) {
 			user.refresh();
 		}
@@ -501,6 +610,7 @@ public class ExpressConnection extends AbstractConnection {
 				} else {
 					store.remove(SECURE_STORAGE_PASSWORD);
 				}
+				store.flush();
 			} catch (SecureStoreException e) {
 				//ExpressCoreActivator.pluginLog().logError(e.getMessage(), e);
 			}
@@ -521,10 +631,10 @@ public class ExpressConnection extends AbstractConnection {
 	}
 
 	/**
-	 * Returns a secure store for the current host and username
+	 * Returns the (shared) secure store for the current host and username
 	 */
 	private SecureStore getSecureStore(final String host, final String username) {
-		return new SecureStore(new OpenShiftSecureStorageKey(SECURE_STORAGE_BASEKEY, host, username));
+		return SecureStore.getInstance(new OpenShiftSecureStorageKey(SECURE_STORAGE_BASEKEY, host, username));
 	}
 
 	public String getId() {
@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.jboss.tools.openshift.common.core.utils.StringUtils;
 import org.jboss.tools.openshift.express.internal.core.ExpressCoreActivator;
@@ -117,6 +118,20 @@ public class ExpressCorePreferences implements IExpressCoreConstants {
 		getPrefs(ExpressCoreActivator.PLUGIN_ID).put(DEFAULT_HOST, host);
 	}
 
+	/**
+	 * Adds the given listener to the preferences that hold the default host.
+	 * The listener is notified of changes to any of their keys.
+	 */
+	public void addDefaultHostListener(IPreferenceChangeListener listener) {
+		getPrefs(ExpressCoreActivator.PLUGIN_ID).addPreferenceChangeListener(listener);
+		getPrefs(UI_PLUGIN_ID).addPreferenceChangeListener(listener);
+	}
+
+	public void removeDefaultHostListener(IPreferenceChangeListener listener) {
+		getPrefs(ExpressCoreActivator.PLUGIN_ID).removePreferenceChangeListener(listener);
+		getPrefs(UI_PLUGIN_ID).removePreferenceChangeListener(listener);
+	}
+
 	public String getLastUsername() {
 		String ret = getPrefs(ExpressCoreActivator.PLUGIN_ID).get(LAST_USERNAME, null);
 		return ret == null ? getPrefs(UI_PLUGIN_ID).get(LAST_USERNAME, null) : ret;
@@ -126,6 +141,10 @@ public class ExpressCorePreferences implements IExpressCoreConstants {
 		getPrefs(ExpressCoreActivator.PLUGIN_ID).put(LAST_USERNAME, username);
 	}
 
+	public boolean isExplorerPrefetch() {
+		return getPrefs(ExpressCoreActivator.PLUGIN_ID).getBoolean(EXPLORER_PREFETCH, DEFAULT_EXPLORER_PREFETCH);
+	}
+
 	public String getTailFileOptions(IApplication application) {
 		String tailFileOptions = null;
 		if (application != null) {
@@ -19,6 +19,9 @@ public interface IExpressCoreConstants {
 
 	/** the timeout that's the client's using when reading the OpenShift response */ 
 	public static final String CLIENT_READ_TIMEOUT = IHttpClient.SYSPROP_OPENSHIFT_READ_TIMEOUT;
+	/** whether the explorer loads the applications and cartridges of a connection in advance */
+	public static final String EXPLORER_PREFETCH = "org.jboss.tools.openshift.express.EXPLORER_PREFETCH";
+	public static final boolean DEFAULT_EXPLORER_PREFETCH = true;
 	/** snapshot files */
 
 }
@@ -0,0 +1,342 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.express.internal.core.server;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.egit.core.project.GitProjectData;
+import org.eclipse.egit.core.project.RepositoryChangeListener;
+import org.eclipse.egit.core.project.RepositoryMapping;
+import org.eclipse.jgit.events.ConfigChangedEvent;
+import org.eclipse.jgit.events.ConfigChangedListener;
+import org.eclipse.jgit.events.ListenerHandle;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.transport.RemoteConfig;
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.osgi.util.NLS;
+import org.jboss.tools.openshift.common.core.utils.StringUtils;
+import org.jboss.tools.openshift.egit.core.EGitUtils;
+import org.jboss.tools.openshift.express.internal.core.ExpressCoreActivator;
+
+/**
+ * An index of the workspace projects by the urls of their git remotes and by
+ * their OpenShift project settings. The index is built when it is first
+ * queried. Projects are re-indexed lazily (when the index is queried next)
+ * once they were added, removed, opened or closed, connected to a git
+ * repository, their OpenShift settings changed or the config of their
+ * repository changed.
+ *
+ * @see OpenShiftServerUtils#findProjectsForApplication
+ * @see OpenShiftServerUtils#findAllSuitableOpenshiftProjects
+ */
+public class OpenShiftProjectIndex implements IResourceChangeListener, ConfigChangedListener, RepositoryChangeListener {
+
+	private static final IPath SETTINGS_FILE =
+			new Path(".settings").append(OpenShiftServerUtils.QUALIFIER).addFileExtension("prefs");
+	private static final IPath GIT_CONFIG_FILE = new Path(".git").append("config");
+
+	private static OpenShiftProjectIndex instance;
+
+	/** may be read while the index is being updated */
+	private final Map<IProject, ProjectEntry> entries = new ConcurrentHashMap<IProject, ProjectEntry>();
+	private final Map<String, Set<IProject>> projectsByGitUrl = new HashMap<String, Set<IProject>>();
+	private final Set<IProject> openShiftProjects = new HashSet<IProject>();
+	/** projects that need to be re-indexed, may be added to while the index is being queried */
+	private final Set<IProject> outdated = Collections.newSetFromMap(new ConcurrentHashMap<IProject, Boolean>());
+	private volatile boolean built;
+	private ListenerHandle configListenerHandle;
+
+	public static synchronized OpenShiftProjectIndex getInstance() {
+		if (instance == null) {
+			instance = new OpenShiftProjectIndex();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(instance, IResourceChangeEvent.POST_CHANGE);
+			instance.configListenerHandle = Repository.getGlobalListenerList().addConfigChangedListener(instance);
+			GitProjectData.addRepositoryChangeListener(instance);
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance == null) {
+			return;
+		}
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(instance);
+		instance.configListenerHandle.remove();
+		GitProjectData.removeRepositoryChangeListener(instance);
+		instance = null;
+	}
+
+	/**
+	 * Returns the projects that have a remote whose url contains the given git
+	 * url. Surrounding blanks and trailing slashes of the given url are
+	 * ignored. If the OpenShift settings of a project name a remote, only this
+	 * remote is taken into account. The remote urls are matched in the index,
+	 * the projects and their repositories are not looked at.
+	 */
+	public synchronized IProject[] getProjectsForGitUrl(String gitUrl) {
+		update();
+		String normalized = normalize(gitUrl);
+		if (StringUtils.isEmptyOrNull(normalized)) {
+			return new IProject[0];
+		}
+		Set<IProject> projects = new HashSet<IProject>();
+		for (Map.Entry<String, Set<IProject>> entry : projectsByGitUrl.entrySet()) {
+			if (entry.getKey().contains(normalized)) {
+				projects.addAll(entry.getValue());
+			}
+		}
+		return toSortedArray(projects);
+	}
+
+	/**
+	 * Returns the projects that are shared with git and have OpenShift
+	 * settings.
+	 */
+	public synchronized IProject[] getOpenShiftProjects() {
+		update();
+		return toSortedArray(openShiftProjects);
+	}
+
+	/**
+	 * Marks the given project to be re-indexed when the index is queried
+	 * next.
+	 */
+	public void invalidate(IProject project) {
+		if (project != null) {
+			outdated.add(project);
+		}
+	}
+
+	private void update() {
+		if (!built) {
+			outdated.addAll(Arrays.asList(ResourcesPlugin.getWorkspace().getRoot().getProjects()));
+			this.built = true;
+		}
+		if (outdated.isEmpty()) {
+			return;
+		}
+		List<IProject> projects = new ArrayList<IProject>(outdated);
+		outdated.removeAll(projects);
+		for (IProject project : projects) {
+			index(project);
+		}
+	}
+
+	private void index(IProject project) {
+		remove(project);
+		if (!project.isAccessible()) {
+			return;
+		}
+		Repository repository = EGitUtils.getRepository(project);
+		ProjectEntry entry = new ProjectEntry(repository, getGitUrls(project, repository));
+		entries.put(project, entry);
+		for (String gitUrl : entry.gitUrls) {
+			Set<IProject> projects = projectsByGitUrl.get(gitUrl);
+			if (projects == null) {
+				projects = new HashSet<IProject>();
+				projectsByGitUrl.put(gitUrl, projects);
+			}
+			projects.add(project);
+		}
+		if (repository != null
+				&& OpenShiftServerUtils.hasOpenShiftSettings(project)) {
+			openShiftProjects.add(project);
+		}
+	}
+
+	private void remove(IProject project) {
+		ProjectEntry entry = entries.remove(project);
+		openShiftProjects.remove(project);
+		if (entry == null) {
+			return;
+		}
+		for (String gitUrl : entry.gitUrls) {
+			Set<IProject> projects = projectsByGitUrl.get(gitUrl);
+			if (projects != null) {
+				projects.remove(project);
+				if (projects.isEmpty()) {
+					projectsByGitUrl.remove(gitUrl);
+				}
+			}
+		}
+	}
+
+	private Set<String> getGitUrls(IProject project, Repository repository) {
+		Set<String> gitUrls = new HashSet<String>();
+		if (repository == null) {
+			return gitUrls;
+		}
+		try {
+			Collection<RemoteConfig> remotes = null;
+			String remoteName = OpenShiftServerUtils.getProjectAttribute(project, OpenShiftServerUtils.SETTING_REMOTE_NAME, null);
+			if (!StringUtils.isEmptyOrNull(remoteName)) {
+				RemoteConfig remote = EGitUtils.getRemoteByName(remoteName, repository);
+				remotes = remote == null ? Collections.<RemoteConfig> emptyList() : Collections.singletonList(remote);
+			} else {
+				remotes = EGitUtils.getAllRemoteConfigs(repository);
+			}
+			for (RemoteConfig remote : remotes) {
+				for (URIish uri : remote.getURIs()) {
+					gitUrls.add(uri.toString());
+				}
+			}
+		} catch (CoreException e) {
+			ExpressCoreActivator.pluginLog().logError(NLS.bind("Could not look up remotes for project {0}", project), e);
+		}
+		return gitUrls;
+	}
+
+	/**
+	 * Returns the given git url without surrounding blanks and trailing
+	 * slashes so that it is contained in remote urls that only differ in
+	 * those.
+	 */
+	private static String normalize(String gitUrl) {
+		if (gitUrl == null) {
+			return null;
+		}
+		String normalized = gitUrl.trim();
+		while (normalized.endsWith("/")) {
+			normalized = normalized.substring(0, normalized.length() - 1);
+		}
+		return normalized;
+	}
+
+	private static IProject[] toSortedArray(Collection<IProject> projects) {
+		IProject[] sorted = projects.toArray(new IProject[projects.size()]);
+		Arrays.sort(sorted, new Comparator<IProject>() {
+
+			@Override
+			public int compare(IProject thisProject, IProject thatProject) {
+				return thisProject.getName().compareTo(thatProject.getName());
+			}
+		});
+		return sorted;
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		if (!built
+				|| event.getDelta() == null) {
+			return;
+		}
+		try {
+			event.getDelta().accept(new IResourceDeltaVisitor() {
+
+				@Override
+				public boolean visit(IResourceDelta delta) throws CoreException {
+					return onResourceChanged(delta);
+				}
+			}, IContainer.INCLUDE_TEAM_PRIVATE_MEMBERS);
+		} catch (CoreException e) {
+			// cannot tell what changed
+			this.built = false;
+		}
+	}
+
+	/**
+	 * Marks the project of the given delta as outdated if the project was
+	 * added, removed, opened or closed or if its OpenShift settings or the
+	 * config of its (nested) repository changed. Returns <code>true</code> if
+	 * the children of the given delta need to be visited.
+	 */
+	private boolean onResourceChanged(IResourceDelta delta) {
+		IResource resource = delta.getResource();
+		switch (resource.getType()) {
+		case IResource.ROOT:
+			return true;
+		case IResource.PROJECT:
+			if (delta.getKind() != IResourceDelta.CHANGED
+					|| (delta.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0) {
+				invalidate((IProject) resource);
+				return false;
+			}
+			return true;
+		case IResource.FOLDER:
+			IPath path = resource.getProjectRelativePath();
+			return SETTINGS_FILE.uptoSegment(1).equals(path)
+					|| GIT_CONFIG_FILE.uptoSegment(1).equals(path);
+		default:
+			path = resource.getProjectRelativePath();
+			if (SETTINGS_FILE.equals(path)
+					|| GIT_CONFIG_FILE.equals(path)) {
+				invalidate(resource.getProject());
+			}
+			return false;
+		}
+	}
+
+	@Override
+	public void onConfigChanged(ConfigChangedEvent event) {
+		File directory = event.getRepository().getDirectory();
+		if (!built
+				|| directory == null) {
+			return;
+		}
+		for (Map.Entry<IProject, ProjectEntry> entry : entries.entrySet()) {
+			if (entry.getValue().isIn(directory)) {
+				invalidate(entry.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Marks the project of the given mapping as outdated. EGit notifies
+	 * mappings once a project is connected to a repository, which does not
+	 * show up in the resource deltas.
+	 */
+	@Override
+	public void repositoryChanged(RepositoryMapping which) {
+		if (!built
+				|| which == null
+				|| which.getContainer() == null) {
+			return;
+		}
+		invalidate(which.getContainer().getProject());
+	}
+
+	private static class ProjectEntry {
+
+		private final File repositoryDirectory;
+		private final Set<String> gitUrls;
+
+		private ProjectEntry(Repository repository, Set<String> gitUrls) {
+			this.repositoryDirectory = repository == null ? null : repository.getDirectory();
+			this.gitUrls = gitUrls;
+		}
+
+		private boolean isIn(File directory) {
+			return directory.equals(repositoryDirectory);
+		}
+	}
+}
@@ -14,6 +14,9 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IProject;
@@ -47,6 +50,8 @@ import org.jboss.ide.eclipse.as.wtp.core.server.publish.LocalZippedModulePublish
 import org.jboss.tools.as.core.internal.modules.ModuleDeploymentPrefsUtil;
 import org.jboss.tools.openshift.common.core.utils.ProjectUtils;
 import org.jboss.tools.openshift.egit.core.EGitUtils;
+import org.jboss.tools.openshift.egit.core.GitDirtyStateCache;
+import org.jboss.tools.openshift.egit.core.RemoteRefTracker;
 import org.jboss.tools.openshift.express.core.ExpressCoreUIIntegration;
 import org.jboss.tools.openshift.express.internal.core.ExpressCoreActivator;
 
@@ -55,7 +60,15 @@ import org.jboss.tools.openshift.express.internal.core.ExpressCoreActivator;
  */
 public class OpenShiftServerPublishMethod  {
 
+	/** the archives that were written in the current publish, they're refreshed and added to the index once it finishes */
+	private final List<IResource> writtenArchives = Collections.synchronizedList(new ArrayList<IResource>());
+
+	/** the full packagings of the current publish, modules are zipped in parallel */
+	private final List<Job> packagingJobs = Collections.synchronizedList(new ArrayList<Job>());
+
 	public void publishStart(final IServer server, final IProgressMonitor monitor) throws CoreException {
+		writtenArchives.clear();
+		packagingJobs.clear();
 		String destProjName = OpenShiftServerUtils.getDeployProjectName(server);
 		IProject magicProject = destProjName == null ? 
 				null : ResourcesPlugin.getWorkspace().getRoot().getProject(destProjName);
@@ -68,6 +81,7 @@ public class OpenShiftServerPublishMethod  {
 	}
 
 	public int publishFinish(IServer server, IProgressMonitor monitor) throws CoreException {
+		waitForPackaging(monitor);
 		IProject project = OpenShiftServerUtils.getDeployProject(server);
 		boolean allSubModulesPublished = areAllModulesPublished(server);
 
@@ -75,7 +89,14 @@ public class OpenShiftServerPublishMethod  {
 			IContainer deployFolder = OpenShiftServerUtils.getContainer(OpenShiftServerUtils.getDeployFolder(server), project);
 			if (allSubModulesPublished
 					|| (deployFolder != null && deployFolder.isAccessible())) {
-				project.refreshLocal(IResource.DEPTH_INFINITE, monitor);
+				if (deployFolder != null
+						&& deployFolder.isAccessible()) {
+					// archives were written and removed in the deploy folder only
+					deployFolder.refreshLocal(IResource.DEPTH_ONE, new SubProgressMonitor(monitor, 20));
+				}
+				addWrittenArchives(monitor);
+				// the project is not refreshed as a whole, the cached dirty state may miss changes
+				GitDirtyStateCache.getInstance().invalidate(EGitUtils.getRepository(project));
 				publish(project, server, monitor);
 			} // else ignore. (one or more modules not published AND magic
 				// folder doesn't exist
@@ -127,22 +148,18 @@ public class OpenShiftServerPublishMethod  {
 			IPath outputFileFullPath = getModuleNestedDeployPath(module, destPath.toOSString(), server);
 			String outputFileName = outputFileFullPath.lastSegment();
 			IResource changedResource = destFolder.getFile(new Path(outputFileName));
-			IResource[] resource = new IResource[] { changedResource };
 			
 			if (deltaKind == ServerBehaviourDelegate.REMOVED) {
 				changedResource.delete(false, monitor); // uses resource api
-			} else {
+			} else if (publishType == PublishControllerUtil.FULL_PUBLISH
+					|| !outputFileFullPath.toFile().exists()
+					|| hasChildModuleChanges(server, module, monitor)) {
+				schedulePackaging(createZippedRunner(server, module[0], outputFileFullPath), changedResource);
+			} else if (delta.length > 0) {
+				// only the resources of the module itself changed, update them in the existing archive
 				LocalZippedModulePublishRunner runner = createZippedRunner(server, module[0], outputFileFullPath);
-				monitor.beginTask("Moving module to " + destFolder.getName(), 100);
-				runner.fullPublishModule(new SubProgressMonitor(monitor, 20));
-				// util used file api, so a folder refresh is required
-				destFolder.refreshLocal(IResource.DEPTH_INFINITE, new SubProgressMonitor(monitor, 20));
-				final AddToIndexOperation operation = new AddToIndexOperation(resource);
-				try {
-					operation.execute(new SubProgressMonitor(monitor, 60));
-				} catch (CoreException e) {
-					ExpressCoreActivator.pluginLog().logStatus((e.getStatus()));
-				}
+				runner.incrementalPublishModule(new SubProgressMonitor(monitor, 100));
+				writtenArchives.add(changedResource);
 			}
 		} catch (Exception e) {
 			ExpressCoreActivator.pluginLog().logError(e.getMessage(), e);
@@ -150,6 +167,93 @@ public class OpenShiftServerPublishMethod  {
 		return IServer.PUBLISH_STATE_NONE;
 	}
 
+	/**
+	 * Returns <code>true</code> if the resources of any of the (nested) child
+	 * modules of the given module changed since they were last published.
+	 */
+	private boolean hasChildModuleChanges(IServer server, IModule[] module, IProgressMonitor monitor) {
+		IModule[] children = server.getChildModules(module, monitor);
+		if (children == null) {
+			return false;
+		}
+		for (IModule child : children) {
+			IModule[] childModule = new IModule[module.length + 1];
+			System.arraycopy(module, 0, childModule, 0, module.length);
+			childModule[module.length] = child;
+			if (server.getModulePublishState(childModule) != IServer.PUBLISH_STATE_NONE
+					|| ((Server) server).getPublishedResourceDelta(childModule).length > 0
+					|| hasChildModuleChanges(server, childModule, monitor)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Zips the given module in a job so that independent modules are
+	 * packaged in parallel. The runner uses the file api only and thus needs
+	 * no workspace lock. The jobs are waited for when the publish finishes.
+	 */
+	private void schedulePackaging(final LocalZippedModulePublishRunner runner, final IResource archive) {
+		Job job = new Job(NLS.bind("Packaging {0}", archive.getName())) {
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					runner.fullPublishModule(monitor);
+					writtenArchives.add(archive);
+				} catch (Exception e) {
+					ExpressCoreActivator.pluginLog().logError(e.getMessage(), e);
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		packagingJobs.add(job);
+		job.schedule();
+	}
+
+	private void waitForPackaging(IProgressMonitor monitor) {
+		List<Job> jobs = null;
+		synchronized (packagingJobs) {
+			jobs = new ArrayList<Job>(packagingJobs);
+			packagingJobs.clear();
+		}
+		monitor.subTask("Packaging modules...");
+		for (Job job : jobs) {
+			try {
+				job.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Refreshes the archives that were written by the publish and adds them
+	 * to the git index. Only those files are refreshed since the archives
+	 * were written with the file api.
+	 */
+	private void addWrittenArchives(IProgressMonitor monitor) {
+		IResource[] archives = null;
+		synchronized (writtenArchives) {
+			archives = writtenArchives.toArray(new IResource[writtenArchives.size()]);
+			writtenArchives.clear();
+		}
+		if (archives.length == 0) {
+			return;
+		}
+		try {
+			for (IResource archive : archives) {
+				archive.refreshLocal(IResource.DEPTH_ZERO, new NullProgressMonitor());
+			}
+			new AddToIndexOperation(archives).execute(new SubProgressMonitor(monitor, 60));
+		} catch (CoreException e) {
+			ExpressCoreActivator.pluginLog().logStatus((e.getStatus()));
+		}
+	}
+
 	
 	public static IPath getModuleNestedDeployPath(IModule[] moduleTree, String rootFolder, IServer server) {
 		return new ModuleDeploymentPrefsUtil().getModuleNestedDeployPath(moduleTree, rootFolder, server);
@@ -247,7 +351,7 @@ public class OpenShiftServerPublishMethod  {
 	private String getPushQuestion(IProject project, IServer server, IProgressMonitor monitor)
 			throws IOException, InvocationTargetException, URISyntaxException {
 		String openShiftRemoteName = OpenShiftServerUtils.getRemoteName(server);
-		if (!EGitUtils.isAhead(project, openShiftRemoteName, monitor)) {
+		if (!RemoteRefTracker.getInstance().isAhead(project, openShiftRemoteName, monitor)) {
 			return NLS.bind(OpenShiftServerMessages.noChangesPushAnywayMsg, project.getName());
 		} else {
 			return NLS.bind(OpenShiftServerMessages.committedChangesNotPushedYet, project.getName());
@@ -12,10 +12,8 @@ package org.jboss.tools.openshift.express.internal.core.server;
 
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IProject;
@@ -27,7 +25,6 @@ import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.IScopeContext;
-import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.wst.server.core.IServer;
@@ -39,7 +36,6 @@ import org.eclipse.wst.server.core.internal.Server;
 import org.eclipse.wst.server.core.internal.ServerWorkingCopy;
 import org.jboss.ide.eclipse.as.core.server.IDeployableServer;
 import org.jboss.ide.eclipse.as.core.util.IJBossToolingConstants;
-import org.jboss.ide.eclipse.as.core.util.RegExUtils;
 import org.jboss.ide.eclipse.as.core.util.ServerUtil;
 import org.jboss.tools.openshift.common.core.connection.ConnectionURL;
 import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistrySingleton;
@@ -487,37 +483,14 @@ public class OpenShiftServerUtils {
 	 * 
 	 * @param application
 	 * @return
+	 * 
+	 * @see OpenShiftProjectIndex#getProjectsForGitUrl(String)
 	 */
 	public static IProject[] findProjectsForApplication(final IApplication application) {
 		if (application == null)
 			return null;
-		final List<IProject> results = new ArrayList<IProject>();
-		final String gitUri = application.getGitUrl();
-		final IProject[] projects = ResourcesPlugin.getWorkspace().getRoot().getProjects();
-		for (int i = 0; i < projects.length; i++) {
-			if (hasGitUri(gitUri, projects[i])) {
-				results.add(projects[i]);
-			}
-		}
-		return results.toArray(new IProject[results.size()]);
+		return OpenShiftProjectIndex.getInstance().getProjectsForGitUrl(application.getGitUrl());
 	}
-	
-	private static boolean hasGitUri(String gitURI, IProject project) {
-		try {
-			Pattern gitURIPattern = Pattern.compile(RegExUtils.escapeRegex(gitURI));
-			Repository repository = EGitUtils.getRepository(project);
-			String remoteName = getProjectAttribute(project, SETTING_REMOTE_NAME, null);
-			if (!StringUtils.isEmptyOrNull(remoteName)) {
-				return EGitUtils.hasRemoteUrl(gitURIPattern, EGitUtils.getRemoteByName(remoteName, repository));
-			} else {
-				return EGitUtils.hasRemoteUrl(gitURIPattern, repository);
-			}
-		} catch (CoreException ce) {
-			ExpressCoreActivator.pluginLog().logError(NLS.bind("Could not look up remotes for project {0}", project), ce);
-		}
-		return false;
-	}
-
 
 	/**
 	 * This method will search for all projects connected to git and having the
@@ -525,20 +498,14 @@ public class OpenShiftServerUtils {
 	 * connection url
 	 * 
 	 * @return
+	 * 
+	 * @see OpenShiftProjectIndex#getOpenShiftProjects()
 	 */
 	public static IProject[] findAllSuitableOpenshiftProjects() {
-		final ArrayList<IProject> results = new ArrayList<IProject>();
-		final IProject[] projects = ResourcesPlugin.getWorkspace().getRoot().getProjects();
-		for (int i = 0; i < projects.length; i++) {
-			if (EGitUtils.getRepository(projects[i]) != null
-					&& hasOpenShiftSettings(projects[i])) {
-				results.add(projects[i]);
-			}
-		}
-		return results.toArray(new IProject[results.size()]);
+		return OpenShiftProjectIndex.getInstance().getOpenShiftProjects();
 	}
 
-	private static boolean hasOpenShiftSettings(IProject project) {
+	static boolean hasOpenShiftSettings(IProject project) {
 		String appName = getProjectAttribute(project, SETTING_APPLICATION_NAME, null);
 		String appId = getProjectAttribute(project, SETTING_APPLICATION_ID, null);
 		String domain = getProjectAttribute(project, SETTING_DOMAIN_ID, null);
@@ -573,6 +540,7 @@ public class OpenShiftServerUtils {
 		} catch (BackingStoreException e) {
 			ExpressCoreActivator.pluginLog().logError(e);
 		}
+		OpenShiftProjectIndex.getInstance().invalidate(project);
 	}
 
 	private static void setConnectionUrl(ExpressConnection connection, IEclipsePreferences node) {
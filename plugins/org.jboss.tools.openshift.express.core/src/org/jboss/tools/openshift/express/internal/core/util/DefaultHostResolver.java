@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.express.internal.core.util;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChangeEvent;
+import org.jboss.tools.openshift.common.core.utils.StringUtils;
+import org.jboss.tools.openshift.express.core.util.ExpressConnectionUtils;
+import org.jboss.tools.openshift.express.internal.core.ExpressCoreActivator;
+import org.jboss.tools.openshift.express.internal.core.preferences.ExpressCorePreferences;
+
+import com.openshift.client.configuration.OpenShiftConfiguration;
+
+/**
+ * Resolves and caches the default host. The host is taken from the
+ * preferences or, if there's none, from the OpenShift configuration files.
+ * The cached host is discarded when the preference changes. The configuration
+ * files are only parsed again once they changed, which is checked at most
+ * every {@link #CONFIGURATION_CHECK_INTERVAL}.
+ *
+ * @see ExpressConnectionUtils#getDefaultHostUrl()
+ */
+public class DefaultHostResolver implements IPreferenceChangeListener {
+
+	/** the interval in milliseconds at which the configuration files are checked for changes */
+	private static final long CONFIGURATION_CHECK_INTERVAL = 5 * 1000;
+
+	/** the user and the system configuration that {@link OpenShiftConfiguration} reads */
+	private static final File[] CONFIGURATION_FILES = new File[] {
+			new File(new File(System.getProperty("user.home"), ".openshift"), "express.conf"),
+			new File(new File(File.separator + "etc", "openshift"), "express.conf")
+	};
+
+	private static DefaultHostResolver instance;
+
+	private volatile String defaultHost;
+	private volatile boolean resolved;
+	/** <code>true</code> if the host was read from the configuration files */
+	private volatile boolean fromConfiguration;
+	private volatile long configurationStamp;
+	private volatile long checkTime;
+
+	public static synchronized DefaultHostResolver getInstance() {
+		if (instance == null) {
+			instance = new DefaultHostResolver();
+			ExpressCorePreferences.INSTANCE.addDefaultHostListener(instance);
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance == null) {
+			return;
+		}
+		ExpressCorePreferences.INSTANCE.removeDefaultHostListener(instance);
+		instance = null;
+	}
+
+	/**
+	 * Returns the default host. The host that is returned will always have the
+	 * scheme prefix. Returns <code>null</code> if the configuration could not
+	 * be read.
+	 */
+	public String getDefaultHostUrl() {
+		if (!resolved
+				|| isConfigurationChanged()) {
+			resolve();
+		}
+		return defaultHost;
+	}
+
+	/**
+	 * Discards the cached host so that it is resolved again when it is
+	 * queried next.
+	 */
+	public void invalidate() {
+		this.resolved = false;
+	}
+
+	private synchronized void resolve() {
+		String defaultHost = ExpressCorePreferences.INSTANCE.getDefaultHost();
+		boolean fromConfiguration = StringUtils.isEmpty(defaultHost);
+		if (fromConfiguration) {
+			this.configurationStamp = getConfigurationStamp();
+			this.checkTime = System.currentTimeMillis();
+			try {
+				defaultHost = new OpenShiftConfiguration().getLibraServer();
+			} catch (IOException e) {
+				ExpressCoreActivator.pluginLog().logError("Could not load default server from OpenShift configuration.", e);
+				defaultHost = null;
+			}
+		}
+		this.defaultHost = defaultHost;
+		this.fromConfiguration = fromConfiguration;
+		this.resolved = true;
+	}
+
+	private boolean isConfigurationChanged() {
+		if (!fromConfiguration) {
+			return false;
+		}
+		long now = System.currentTimeMillis();
+		if (now - checkTime < CONFIGURATION_CHECK_INTERVAL) {
+			return false;
+		}
+		this.checkTime = now;
+		return getConfigurationStamp() != configurationStamp;
+	}
+
+	private long getConfigurationStamp() {
+		long stamp = 17;
+		for (File file : CONFIGURATION_FILES) {
+			stamp = 31 * stamp + file.lastModified();
+			stamp = 31 * stamp + file.length();
+		}
+		return stamp;
+	}
+
+	@Override
+	public void preferenceChange(PreferenceChangeEvent event) {
+		if (ExpressCorePreferences.DEFAULT_HOST.equals(event.getKey())) {
+			invalidate();
+		}
+	}
+}
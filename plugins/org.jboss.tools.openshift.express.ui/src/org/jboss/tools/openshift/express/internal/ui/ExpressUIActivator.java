@@ -23,6 +23,8 @@ import org.eclipse.ui.preferences.ScopedPreferenceStore;
 import org.jboss.tools.openshift.express.core.ExpressCoreUIIntegration;
 import org.jboss.tools.openshift.express.internal.core.ExpressCoreActivator;
 import org.jboss.tools.openshift.express.internal.ui.console.ConsoleUtils;
+import org.jboss.tools.openshift.express.internal.ui.console.TailLogsJob;
+import org.jboss.tools.openshift.express.internal.ui.utils.SSHSessionRepository;
 import org.jboss.tools.openshift.express.internal.ui.wizard.connection.SSLCertificateCallback;
 import org.jboss.tools.openshift.internal.common.ui.connection.CredentialsPrompter;
 import org.osgi.framework.BundleContext;
@@ -62,6 +64,8 @@ public class ExpressUIActivator extends AbstractUIPlugin {
 	public void stop(BundleContext context) throws Exception {
 		// TODO: implement connection saving
 		// ConnectionsRegistrySingleton.getInstance().save();
+		TailLogsJob.dispose();
+		SSHSessionRepository.getInstance().dispose();
 		plugin = null;
 		super.stop(context);
 	}
@@ -35,6 +35,8 @@ public class ExpressUIMessages extends NLS {
 	public static String PublishDialogCustomizeGitCommitMsg;
 	public static String PublishDialogDefaultGitCommitMsg;
 	public static String ClientReadTimeout;
+	public static String ExplorerPrefetch;
+	public static String ConsoleMaxChars;
 	public static String TerminateConsole;
 	public static String DomainName;
 	public static String EnterDomainName;
@@ -10,14 +10,11 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.express.internal.ui.command;
 
-import java.io.IOException;
 import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.ExecutionEvent;
@@ -27,11 +24,6 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.window.Window;
-import org.eclipse.jgit.transport.CredentialsProvider;
-import org.eclipse.jgit.transport.RemoteSession;
-import org.eclipse.jgit.transport.SshSessionFactory;
-import org.eclipse.jgit.transport.URIish;
-import org.eclipse.jgit.util.FS;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.console.IConsole;
@@ -47,18 +39,20 @@ import org.jboss.tools.openshift.express.internal.core.server.OpenShiftServerUti
 import org.jboss.tools.openshift.express.internal.ui.ExpressUIActivator;
 import org.jboss.tools.openshift.express.internal.ui.console.ConsoleUtils;
 import org.jboss.tools.openshift.express.internal.ui.console.GearGroupsUtils;
-import org.jboss.tools.openshift.express.internal.ui.console.JschToEclipseLogger;
 import org.jboss.tools.openshift.express.internal.ui.console.TailFilesWizard;
+import org.jboss.tools.openshift.express.internal.ui.console.TailLogsJob;
 import org.jboss.tools.openshift.express.internal.ui.console.TailServerLogWorker;
 import org.jboss.tools.openshift.express.internal.ui.job.LoadApplicationJob;
 import org.jboss.tools.openshift.express.internal.ui.utils.Logger;
+import org.jboss.tools.openshift.express.internal.ui.utils.SSHSessionRepository;
+import org.jboss.tools.openshift.express.internal.ui.utils.SSHSessionRepository.ExecChannel;
 import org.jboss.tools.openshift.internal.common.core.job.JobChainBuilder;
 import org.jboss.tools.openshift.internal.common.ui.utils.UIUtils;
 
-import com.jcraft.jsch.JSch;
 import com.openshift.client.IApplication;
 import com.openshift.client.IGear;
 import com.openshift.client.IGearGroup;
+import com.openshift.client.OpenShiftSSHOperationException;
 import com.openshift.client.utils.Base64Coder;
 
 /**
@@ -74,7 +68,7 @@ public class TailFilesHandler extends AbstractHandler implements IConsoleListene
 	 * The message consoles associated with the 'tail' workers that write the
 	 * output.
 	 */
-	private Map<String, TailServerLogWorker> consoleWorkers = new HashMap<String, TailServerLogWorker>();
+	private ConcurrentMap<String, TailServerLogWorker> consoleWorkers = new ConcurrentHashMap<String, TailServerLogWorker>();
 
 	public TailFilesHandler() {
 		ConsoleUtils.registerConsoleListener(this);
@@ -110,7 +104,7 @@ public class TailFilesHandler extends AbstractHandler implements IConsoleListene
 						final MessageConsole console = ConsoleUtils.findMessageConsole(createConsoleId(host, gear.getId(), cartridgeNames));
 						ConsoleUtils.displayConsoleView(console);
 						if (!this.consoleWorkers.containsKey(console.getName())) {
-							launchTailServerJob(gear.getSshUrl(), wizard.getFilePattern(), console);
+							launchTailServerJob(gear.getSshUrl(), wizard.getFilePattern(), wizard.getFilter(), console);
 						}
 					}
 				}
@@ -149,19 +143,20 @@ public class TailFilesHandler extends AbstractHandler implements IConsoleListene
 		return Status.OK_STATUS;
 	}
 
-	private void launchTailServerJob(final String sshUrl, final String filePattern, final MessageConsole console) {
+	private void launchTailServerJob(final String sshUrl, final String filePattern, final String filter,
+			final MessageConsole console) {
 		new Job("Launching Tail Logs Operation") {
 			protected IStatus run(IProgressMonitor monitor) {
 				try {
 					final TailServerLogWorker tailServerLogWorker =
-							startTailProcess(sshUrl, filePattern, console);
-					consoleWorkers.put(console.getName(), tailServerLogWorker);
-					Thread thread = new Thread(tailServerLogWorker);
-					thread.start();
-				} catch (IOException e) {
-					return ExpressUIActivator.createErrorStatus(
-							NLS.bind("Failed to tail files from ''{0}''", sshUrl), e);
-				} catch (URISyntaxException e) {
+							startTailProcess(sshUrl, filePattern, filter, console);
+					if (consoleWorkers.putIfAbsent(console.getName(), tailServerLogWorker) != null) {
+						// console was launched concurrently
+						tailServerLogWorker.stop();
+						return Status.OK_STATUS;
+					}
+					TailLogsJob.getInstance().add(tailServerLogWorker);
+				} catch (OpenShiftSSHOperationException e) {
 					return ExpressUIActivator.createErrorStatus(
 							NLS.bind("Failed to tail files from ''{0}''", sshUrl), e);
 				}
@@ -172,33 +167,28 @@ public class TailFilesHandler extends AbstractHandler implements IConsoleListene
 	}
 
 	/**
-	 * Starting the tail process on the remote OpenShift Platform. This method
-	 * relies on the JGit SSH support (including JSch) to open a connection AND
-	 * execute a command in a single invocation. The connection establishement
-	 * requires an SSH key, and the passphrase is prompted to the user if
-	 * necessary.
+	 * Starting the tail process on the remote OpenShift Platform. The command
+	 * is executed in a channel of the SSH session that is pooled for the
+	 * given gear. The connection establishement requires an SSH key, and the
+	 * passphrase is prompted to the user if necessary.
 	 
 	 * @param sshUrl
 	 * @param filePattern
 	 * @param optionsAndFile
+	 * @param filter
 	 * @param console
 	 * @return
-	 * @throws URISyntaxException 
-	 * @throws IOException 
+	 * @throws OpenShiftSSHOperationException
 	 */
-	private TailServerLogWorker startTailProcess(final String sshUrl, final String optionsAndFile, final MessageConsole console) throws URISyntaxException, IOException {
-		JSch.setLogger(new JschToEclipseLogger());
-		final SshSessionFactory sshSessionFactory = SshSessionFactory.getInstance();
-		URI uri = new URI(sshUrl);
-		uri.getHost();
-		final URIish urish = new URIish().setHost(uri.getHost()).setUser(uri.getUserInfo());
-		RemoteSession remoteSession =
-				sshSessionFactory.getSession(urish, CredentialsProvider.getDefault(), FS.DETECTED, 0);
-		final String command = new TailCommandBuilder(optionsAndFile).build();
+	private TailServerLogWorker startTailProcess(final String sshUrl, final String optionsAndFile, final String filter,
+			final MessageConsole console) throws OpenShiftSSHOperationException {
+		final TailCommandBuilder builder = new TailCommandBuilder(optionsAndFile, filter);
+		final String command = builder.build();
 
 		Logger.debug("ssh command to execute: " + command);
-		Process process = remoteSession.exec(command, 0);
-		return new TailServerLogWorker(console, process, remoteSession);
+		// a pipeline would outlive the channel if it wasn't hung up on
+		ExecChannel channel = SSHSessionRepository.getInstance().exec(sshUrl, command, builder.isFiltered());
+		return new TailServerLogWorker(console, channel);
 	}
 
 
@@ -220,10 +210,9 @@ public class TailFilesHandler extends AbstractHandler implements IConsoleListene
 		// if the console is associated with a 'tail' process, stop that process
 		for (IConsole console : consoles) {
 			final String consoleName = console.getName();
-			if (consoleWorkers.containsKey(consoleName)) {
-				final TailServerLogWorker worker = consoleWorkers.get(consoleName);
-				worker.stop();
-				consoleWorkers.remove(consoleName);
+			final TailServerLogWorker worker = consoleWorkers.remove(consoleName);
+			if (worker != null) {
+				TailLogsJob.getInstance().remove(worker);
 			}
 		}
 
@@ -233,9 +222,13 @@ public class TailFilesHandler extends AbstractHandler implements IConsoleListene
 
 		private String options;
 		private String file;
+		private String filter;
 
-		public TailCommandBuilder(String optionsAndFile) {
+		public TailCommandBuilder(String optionsAndFile, String filter) {
 			init(optionsAndFile);
+			if (!StringUtils.isEmpty(filter)) {
+				this.filter = filter;
+			}
 		}
 
 		private void init(String optionsAndFile) {
@@ -250,7 +243,14 @@ public class TailFilesHandler extends AbstractHandler implements IConsoleListene
 			}
 		}
 
+		public boolean isFiltered() {
+			return filter != null;
+		}
+
 		public String build() {
+			if (isFiltered()) {
+				return buildFiltered();
+			}
 			StringBuilder builder = new StringBuilder("tail");
 			if (options != null) {
 				builder.append(" --opts ").append(Base64Coder.encode(options));
@@ -260,5 +260,32 @@ public class TailFilesHandler extends AbstractHandler implements IConsoleListene
 			}
 			return builder.toString();
 		}
+
+		/**
+		 * Builds a pipeline that filters the tailed lines on the gear. The
+		 * gear shell only handles the options of commands that start with
+		 * 'tail', the pipeline thus invokes tail by its path and is run by
+		 * the shell as is. The options and file pattern are thus passed
+		 * unquoted so that the pattern is expanded, the wizard rejects shell
+		 * metacharacters in them when a filter is set. grep flushes each line
+		 * so that matching lines are not held back. The pipeline has to run
+		 * in a pseudo terminal so that tail and grep are hung up on once the
+		 * channel is closed.
+		 */
+		private String buildFiltered() {
+			StringBuilder builder = new StringBuilder("/usr/bin/tail");
+			if (options != null) {
+				builder.append(' ').append(options);
+			}
+			if (file != null) {
+				builder.append(' ').append(file);
+			}
+			builder.append(" | grep --line-buffered -E -e ").append(quote(filter));
+			return builder.toString();
+		}
+
+		private String quote(String value) {
+			return "'" + value.replace("'", "'\\''") + "'";
+		}
 	}
 }
@@ -52,6 +52,10 @@ public class TailFilesWizard extends Wizard {
 		return model.getFilePattern();
 	}
 
+	public String getFilter() {
+		return model.getFilter();
+	}
+
 	/**
 	 * @return true if the 'tail' command be executed on all gears (if the
 	 *         application is scalable), false otherwise.
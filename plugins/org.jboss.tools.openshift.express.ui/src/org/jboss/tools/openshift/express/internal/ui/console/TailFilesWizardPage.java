@@ -14,11 +14,16 @@ import java.util.Collection;
 
 import org.eclipse.core.databinding.DataBindingContext;
 import org.eclipse.core.databinding.beans.BeanProperties;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.WritableList;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.validation.MultiValidator;
+import org.eclipse.core.databinding.validation.ValidationStatus;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.databinding.fieldassist.ControlDecorationSupport;
 import org.eclipse.jface.databinding.swt.WidgetProperties;
 import org.eclipse.jface.databinding.viewers.ViewerProperties;
 import org.eclipse.jface.layout.GridDataFactory;
@@ -42,8 +47,10 @@ import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.Text;
 import org.jboss.tools.common.ui.WizardUtils;
 import org.jboss.tools.common.ui.databinding.ValueBindingBuilder;
+import org.jboss.tools.openshift.common.core.utils.StringUtils;
 import org.jboss.tools.openshift.express.internal.ui.ExpressUIActivator;
 import org.jboss.tools.openshift.express.internal.ui.utils.Logger;
+import org.jboss.tools.openshift.internal.common.ui.databinding.RequiredControlDecorationUpdater;
 import org.jboss.tools.openshift.internal.common.ui.wizard.AbstractOpenShiftWizardPage;
 
 import com.openshift.client.IGearGroup;
@@ -96,7 +103,30 @@ public class TailFilesWizardPage extends AbstractOpenShiftWizardPage {
 				pageModel.resetFilePattern();
 			}
 		});
-		
+
+		// filter that is applied on the gear
+		final Label filterLabel = new Label(container, SWT.NONE);
+		filterLabel.setText("Filter:");
+		GridDataFactory.fillDefaults().align(SWT.LEFT, SWT.CENTER).grab(false, false)
+				.applyTo(filterLabel);
+		final Text filterText = new Text(container, SWT.BORDER);
+		filterText.setMessage("Regular expression that the lines have to match (optional)");
+		filterText.setToolTipText("Only the lines that match this (extended) regular expression are sent from the gears.\n"
+				+ "The tail options are then passed to the shell of the gears as is and may not contain any shell metacharacters.");
+		GridDataFactory.fillDefaults()
+				.align(SWT.FILL, SWT.CENTER).span(2, 1).grab(true, false).applyTo(filterText);
+		final IObservableValue filterModelObservable =
+				BeanProperties.value(TailFilesWizardPageModel.PROPERTY_FILTER).observe(pageModel);
+		ValueBindingBuilder
+				.bind(WidgetProperties.text(SWT.Modify).observe(filterText))
+				.to(filterModelObservable)
+				.in(dbc);
+		MultiValidator tailOptionsValidator =
+				new TailOptionsValidator(filePatternTextObservable, filterModelObservable);
+		dbc.addValidationStatusProvider(tailOptionsValidator);
+		ControlDecorationSupport.create(
+				tailOptionsValidator, SWT.LEFT | SWT.TOP, null, new RequiredControlDecorationUpdater());
+
 		// gears selection container
 		final Composite gearsSelectionContainer = new Composite(container, SWT.NONE);
 		GridDataFactory.fillDefaults().align(SWT.FILL, SWT.TOP).grab(true, false).span(3, 1)
@@ -255,4 +285,55 @@ public class TailFilesWizardPage extends AbstractOpenShiftWizardPage {
 		});
 	}
 
+	/**
+	 * Validates that the tail options contain no shell metacharacters when a
+	 * filter is set. The filtered tail is a pipeline that the gear shell runs
+	 * as is, the options and file pattern are not quoted so that the pattern
+	 * gets expanded.
+	 */
+	static class TailOptionsValidator extends MultiValidator {
+
+		/** the characters that the shell would interpret, the wildcards of file patterns are allowed */
+		private static final String SHELL_METACHARACTERS = ";&|`$<>()\\\"'\n\r";
+
+		private final IObservableValue optionsObservable;
+		private final IObservableValue filterObservable;
+
+		public TailOptionsValidator(IObservableValue optionsObservable, IObservableValue filterObservable) {
+			this.optionsObservable = optionsObservable;
+			this.filterObservable = filterObservable;
+		}
+
+		@Override
+		protected IStatus validate() {
+			String options = (String) optionsObservable.getValue();
+			String filter = (String) filterObservable.getValue();
+			if (!StringUtils.isEmpty(filter)
+					&& containsShellMetacharacter(options)) {
+				return ValidationStatus.error(
+						"The tail options may not contain any of the characters " + SHELL_METACHARACTERS.trim()
+						+ " when a filter is set, they are passed to the shell of the gears as is.");
+			}
+			return ValidationStatus.ok();
+		}
+
+		private boolean containsShellMetacharacter(String value) {
+			if (value == null) {
+				return false;
+			}
+			for (int i = 0; i < value.length(); i++) {
+				if (SHELL_METACHARACTERS.indexOf(value.charAt(i)) > -1) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public IObservableList getTargets() {
+			WritableList targets = new WritableList();
+			targets.add(optionsObservable);
+			return targets;
+		}
+	}
 }
\ No newline at end of file
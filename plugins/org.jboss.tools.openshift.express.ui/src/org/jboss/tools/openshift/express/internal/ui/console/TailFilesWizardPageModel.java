@@ -32,6 +32,8 @@ public class TailFilesWizardPageModel extends ObservableUIPojo {
 
 	public static final String PROPERTY_FILE_PATTERN = "filePattern";
 
+	public static final String PROPERTY_FILTER = "filter";
+
 	public static final String PROPERTY_GEAR_GROUPS = "gearGroups";
 
 	public static final String PROPERTY_SELECTED_GEAR_GROUPS = "selectedGearGroups";
@@ -40,6 +42,8 @@ public class TailFilesWizardPageModel extends ObservableUIPojo {
 
 	private String filePattern = DEFAULT_FILE_PATTERN;
 
+	private String filter;
+
 	private Collection<IGearGroup> gearGroups;
 
 	private Collection<IGearGroup> selectedGearGroups;
@@ -63,6 +67,20 @@ public class TailFilesWizardPageModel extends ObservableUIPojo {
 		setFilePattern(ensureValidDefault(null));
 	}
 
+	/**
+	 * Sets the (extended) regular expression that the tailed lines have to
+	 * match. The lines are filtered on the gear so that only the matching ones
+	 * are transferred.
+	 */
+	public void setFilter(final String filter) {
+		firePropertyChange(
+				PROPERTY_FILTER, this.filter, this.filter = filter);
+	}
+
+	public String getFilter() {
+		return filter;
+	}
+
 	private String ensureValidDefault(String filePattern) {
 		if (StringUtils.isEmpty(filePattern)) {
 			return DEFAULT_FILE_PATTERN;
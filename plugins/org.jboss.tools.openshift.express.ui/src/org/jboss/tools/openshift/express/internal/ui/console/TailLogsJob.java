@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.express.internal.ui.console;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Reads the output of all the tailed gears in a single job. The job polls the
+ * {@link TailServerLogWorker}s every {@link #POLL_INTERVAL} for as long as
+ * there are workers, tailing many gears thus does not need a thread per gear.
+ */
+public class TailLogsJob extends Job {
+
+	/** the interval in milliseconds at which the workers are polled */
+	private static final long POLL_INTERVAL = 200;
+
+	private static TailLogsJob instance;
+
+	private final Set<TailServerLogWorker> workers =
+			Collections.newSetFromMap(new ConcurrentHashMap<TailServerLogWorker, Boolean>());
+
+	public static synchronized TailLogsJob getInstance() {
+		if (instance == null) {
+			instance = new TailLogsJob();
+		}
+		return instance;
+	}
+
+	public static synchronized void dispose() {
+		if (instance == null) {
+			return;
+		}
+		instance.cancel();
+		for (TailServerLogWorker worker : new ArrayList<TailServerLogWorker>(instance.workers)) {
+			worker.stop();
+		}
+		instance.workers.clear();
+		instance = null;
+	}
+
+	private TailLogsJob() {
+		super("Tailing remote files");
+		setSystem(true);
+	}
+
+	/**
+	 * Adds the given worker and starts polling it.
+	 */
+	public void add(TailServerLogWorker worker) {
+		workers.add(worker);
+		schedule();
+	}
+
+	/**
+	 * Stops the given worker and removes it.
+	 */
+	public void remove(TailServerLogWorker worker) {
+		worker.stop();
+		workers.remove(worker);
+	}
+
+	@Override
+	protected IStatus run(IProgressMonitor monitor) {
+		for (TailServerLogWorker worker : workers) {
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
+			try {
+				if (!worker.read()) {
+					workers.remove(worker);
+				}
+			} catch (IOException | RuntimeException e) {
+				worker.error(e);
+				workers.remove(worker);
+			}
+		}
+		if (!workers.isEmpty()) {
+			schedule(POLL_INTERVAL);
+		}
+		return Status.OK_STATUS;
+	}
+}
@@ -1,84 +1,147 @@
-/******************************************************************************* 
- * Copyright (c) 2011 Red Hat, Inc. 
- * Distributed under license by Red Hat, Inc. All rights reserved. 
- * This program is made available under the terms of the 
- * Eclipse Public License v1.0 which accompanies this distribution, 
- * and is available at http://www.eclipse.org/legal/epl-v10.html 
- * 
- * Contributors: 
- * Red Hat, Inc. - initial API and implementation 
+/*******************************************************************************
+ * Copyright (c) 2011 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
  ******************************************************************************/
 package org.jboss.tools.openshift.express.internal.ui.console;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 
-import org.eclipse.jgit.transport.RemoteSession;
 import org.eclipse.ui.console.MessageConsole;
+import org.eclipse.ui.console.MessageConsoleStream;
+import org.jboss.tools.openshift.express.internal.ui.utils.SSHSessionRepository.ExecChannel;
+import org.jboss.tools.openshift.internal.common.ui.console.ConsoleUtils;
 
 
 /**
- * The underlying 'Tail' worker, that uses an established RemoteSession (with
- * the help of JGit), runs in a dedicated process and displays the outputstream
- * into a specific console. This worker is a <code>java.lang.Runnable</code> in
- * order to run in a separate thread
- * 
+ * The underlying 'Tail' worker, that uses a channel of a pooled SSH session,
+ * and displays the outputstream of the remote tail command into a specific
+ * console. The worker does not own a thread, it is polled by the
+ * {@link TailLogsJob} that reads the output of all tailed gears. The lines
+ * that are available at each poll are written to the console at once, through
+ * a single stream that is reused for the lifetime of the worker.
+ *
  * @author Xavier Coulon
- * 
+ *
  */
-public class TailServerLogWorker implements Runnable {
+public class TailServerLogWorker {
 
-	/** the remote 'tail' process. */
-	private final Process process;
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	/** the maximum number of bytes that are read in one poll so that other workers get their turn */
+	private static final int MAX_BYTES_PER_POLL = 256 * 1024;
+
+	/** the channel that runs the remote 'tail' command. */
+	private final ExecChannel channel;
 
 	/** the output message console. */
 	private final MessageConsole console;
 
-	/** the SSH session. */
-	private final RemoteSession remoteSession;
+	/** the stream that all output is written to. */
+	private final MessageConsoleStream stream;
+
+	private final CharsetDecoder decoder = Charset.defaultCharset().newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+	private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+	/** the output that was read but not written yet since it has no line end yet */
+	private final StringBuilder pending = new StringBuilder();
+
+	private volatile boolean stopped;
 
 	/**
 	 * Constructor.
-	 * 
+	 *
 	 * @param console
-	 * @param process
-	 * @param remoteSession
+	 * @param channel
 	 */
-	public TailServerLogWorker(final MessageConsole console, final Process process, final RemoteSession remoteSession) {
+	public TailServerLogWorker(final MessageConsole console, final ExecChannel channel) {
 		this.console = console;
-		this.process = process;
-		this.remoteSession = remoteSession;
+		this.channel = channel;
+		this.stream = console.newMessageStream();
+		ConsoleUtils.setBounded(console);
 	}
 
-	@Override
-	public void run() {
-		try {
-			// get I/O streams for remote tail
-			final InputStream in = process.getInputStream();
-			BufferedReader reader = new BufferedReader(new InputStreamReader(in));
-			String line;
-			// Read File Line By Line
-			while ((line = reader.readLine()) != null) {
-				console.newMessageStream().println(line);
-			}
-		} catch (Throwable e) {
-			org.jboss.tools.openshift.express.internal.ui.utils.Logger.error(
-					"Error while receiving the remote server adapter log", e);
-			console.newMessageStream().println("Error while receiving the remote server adapter log: " + e.getMessage());
-		} finally {
+	public MessageConsole getConsole() {
+		return console;
+	}
 
+	/**
+	 * Reads the output that the remote command made available so far, without
+	 * blocking, and writes the complete lines to the console. Returns
+	 * <code>false</code> once the worker was stopped or the remote command
+	 * terminated and all its output was written.
+	 */
+	boolean read() throws IOException {
+		if (stopped) {
+			return false;
 		}
+		InputStream in = channel.getInputStream();
+		int total = 0;
+		int available = 0;
+		while (total < MAX_BYTES_PER_POLL
+				&& (available = in.available()) > 0) {
+			int read = in.read(bytes.array(), bytes.position(), Math.min(available, bytes.remaining()));
+			if (read == -1) {
+				break;
+			}
+			total += read;
+			bytes.position(bytes.position() + read);
+			decode();
+		}
+		int end = pending.lastIndexOf("\n");
+		if (end != -1) {
+			stream.print(pending.substring(0, end + 1));
+			pending.delete(0, end + 1);
+		}
+		if (channel.isClosed()
+				&& in.available() <= 0) {
+			if (pending.length() > 0) {
+				stream.println(pending.toString());
+				pending.setLength(0);
+			}
+			channel.close();
+			return false;
+		}
+		return true;
+	}
+
+	private void decode() {
+		bytes.flip();
+		decoder.decode(bytes, chars, false);
+		bytes.compact();
+		chars.flip();
+		pending.append(chars);
+		chars.clear();
+	}
+
+	void error(Exception e) {
+		org.jboss.tools.openshift.express.internal.ui.utils.Logger.error(
+				"Error while receiving the remote server adapter log", e);
+		stream.println("Error while receiving the remote server adapter log: " + e.getMessage());
+		channel.close();
 	}
 
 	/**
 	 * Method called when the overall 'tail' process should be stopped: the
-	 * underlying ssh remote session must be disconnected and the running
-	 * process must be destroyed.
+	 * channel that runs the remote command is closed. The underlying ssh
+	 * session stays connected for other operations on the same gear.
 	 */
 	public void stop() {
-		this.remoteSession.disconnect();
-		this.process.destroy();
+		this.stopped = true;
+		this.channel.close();
 	}
 
 }
@@ -10,11 +10,27 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.express.internal.ui.explorer;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.osgi.util.NLS;
 import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistry;
 import org.jboss.tools.openshift.common.core.connection.IConnection;
 import org.jboss.tools.openshift.express.internal.core.connection.ExpressConnection;
+import org.jboss.tools.openshift.express.internal.core.preferences.ExpressCorePreferences;
+import org.jboss.tools.openshift.express.internal.ui.utils.Logger;
+import org.jboss.tools.openshift.internal.common.core.util.ThreadUtils;
 import org.jboss.tools.openshift.internal.common.ui.explorer.BaseExplorerContentProvider;
 
 import com.openshift.client.IApplication;
@@ -22,10 +38,22 @@ import com.openshift.client.IDomain;
 import com.openshift.client.OpenShiftException;
 
 /**
- * Content Provider for OpenShift v2 content
+ * Content Provider for OpenShift v2 content. Once the domains of a connection
+ * are loaded, their applications and cartridges are loaded in advance (unless
+ * disabled in the preferences) so that expanding them does not need to wait
+ * for the server.
  */
 public class ExpressExplorerContentProvider extends BaseExplorerContentProvider {
 
+	/** the maximum number of requests that are sent in parallel when prefetching */
+	private static final int MAX_PARALLEL_LOADS = 4;
+
+	/** the connections whose applications and cartridges are being prefetched */
+	private final Set<ExpressConnection> prefetching =
+			Collections.newSetFromMap(new ConcurrentHashMap<ExpressConnection, Boolean>());
+
+	/** the executor that runs the prefetch requests, created on first use */
+	private ExecutorService executor;
 	
 	@Override
 	protected void handleConnectionChanged(IConnection connection, String property, Object oldValue, Object newValue) {
@@ -86,7 +114,9 @@ public class ExpressExplorerContentProvider extends BaseExplorerContentProvider
 				children = new Object[] { user };
 			} else if (parentElement instanceof ExpressConnection) {
 				final ExpressConnection connection = (ExpressConnection) parentElement;
-				children = connection.getDomains().toArray();
+				List<IDomain> domains = connection.getDomains();
+				children = domains.toArray();
+				prefetch(connection, domains);
 			} else if (parentElement instanceof IDomain) {
 				final IDomain domain = (IDomain) parentElement;
 				children = domain.getApplications().toArray();
@@ -107,4 +137,128 @@ public class ExpressExplorerContentProvider extends BaseExplorerContentProvider
 				|| element instanceof IDomain
 				|| element instanceof IApplication;
 	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			this.executor = ThreadUtils.newBoundedExecutor("OpenShift explorer prefetch", MAX_PARALLEL_LOADS);
+		}
+		return executor;
+	}
+
+	@Override
+	public void dispose() {
+		super.dispose();
+		synchronized (this) {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	private void prefetch(ExpressConnection connection, List<IDomain> domains) {
+		if (domains == null
+				|| domains.isEmpty()
+				|| !ExpressCorePreferences.INSTANCE.isExplorerPrefetch()
+				|| !prefetching.add(connection)) {
+			return;
+		}
+		new PrefetchJob(connection, domains).schedule();
+	}
+
+	/**
+	 * Loads the applications of the given domains and then the cartridges of
+	 * these applications, with at most {@link #MAX_PARALLEL_LOADS} requests at
+	 * a time. All the jobs of a content provider share its executor. The loaded
+	 * children are kept by the domains and applications and are marked as
+	 * loaded in the content provider. The job belongs to the family of its
+	 * content provider.
+	 */
+	private class PrefetchJob extends Job {
+
+		private final ExpressConnection connection;
+		private final List<IDomain> domains;
+
+		private PrefetchJob(ExpressConnection connection, List<IDomain> domains) {
+			super(NLS.bind("Loading OpenShift applications for {0}", connection.getUsername()));
+			this.connection = connection;
+			this.domains = new ArrayList<IDomain>(domains);
+			setPriority(Job.LONG);
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == ExpressExplorerContentProvider.this;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			ExecutorService executor = getExecutor();
+			try {
+				List<Callable<List<IApplication>>> applicationLoads = new ArrayList<Callable<List<IApplication>>>();
+				for (IDomain domain : domains) {
+					applicationLoads.add(loadApplications(domain));
+				}
+				List<IApplication> applications = new ArrayList<IApplication>();
+				for (List<IApplication> loaded : getAll(executor.invokeAll(applicationLoads))) {
+					applications.addAll(loaded);
+				}
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				List<Callable<List<Object>>> cartridgeLoads = new ArrayList<Callable<List<Object>>>();
+				for (IApplication application : applications) {
+					cartridgeLoads.add(loadCartridges(application));
+				}
+				getAll(executor.invokeAll(cartridgeLoads));
+				return Status.OK_STATUS;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return Status.CANCEL_STATUS;
+			} finally {
+				prefetching.remove(connection);
+			}
+		}
+
+		private Callable<List<IApplication>> loadApplications(final IDomain domain) {
+			return new Callable<List<IApplication>>() {
+
+				@Override
+				public List<IApplication> call() throws Exception {
+					List<IApplication> applications = domain.getApplications();
+					addLoadedChildren(domain);
+					return applications;
+				}
+			};
+		}
+
+		private Callable<List<Object>> loadCartridges(final IApplication application) {
+			return new Callable<List<Object>>() {
+
+				@Override
+				public List<Object> call() throws Exception {
+					List<Object> cartridges = new ArrayList<Object>(application.getEmbeddedCartridges());
+					addLoadedChildren(application);
+					return cartridges;
+				}
+			};
+		}
+
+		/**
+		 * Returns the results of the given loads. Loads that failed are
+		 * skipped, they are loaded again and report their error when their
+		 * parent is expanded.
+		 */
+		private <T> List<T> getAll(List<Future<T>> loads) throws InterruptedException {
+			List<T> results = new ArrayList<T>(loads.size());
+			for (Future<T> load : loads) {
+				try {
+					results.add(load.get());
+				} catch (ExecutionException e) {
+					Logger.warn(NLS.bind("Could not prefetch the OpenShift resources of connection {0}",
+							connection.getUsername()), e.getCause());
+				}
+			}
+			return results;
+		}
+	}
 }
@@ -10,7 +10,11 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.express.internal.ui.preferences;
 
+import java.io.IOException;
+
+import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IPersistentPreferenceStore;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.ui.IWorkbench;
@@ -19,6 +23,8 @@ import org.jboss.tools.openshift.express.client.ClientSystemProperties;
 import org.jboss.tools.openshift.express.internal.core.preferences.IExpressCoreConstants;
 import org.jboss.tools.openshift.express.internal.ui.ExpressUIActivator;
 import org.jboss.tools.openshift.express.internal.ui.ExpressUIMessages;
+import org.jboss.tools.openshift.express.internal.ui.utils.Logger;
+import org.jboss.tools.openshift.internal.common.ui.console.ConsoleUtils;
 
 /**
  * @author Andre Dietisheim
@@ -26,6 +32,7 @@ import org.jboss.tools.openshift.express.internal.ui.ExpressUIMessages;
 public class OpenShiftPreferencePage extends FieldEditorPreferencePage implements IWorkbenchPreferencePage {
 
 	private IntegerFieldEditor clientReadTimeout;
+	private IntegerFieldEditor consoleMaxChars;
 
 	public OpenShiftPreferencePage() {
 		super(GRID);
@@ -38,11 +45,29 @@ public class OpenShiftPreferencePage extends FieldEditorPreferencePage implement
 						ExpressUIMessages.ClientReadTimeout, getFieldEditorParent());
 		clientReadTimeout.setValidRange(0, Integer.MAX_VALUE / 1000); // seconds
 		addField(clientReadTimeout);
+		addField(new BooleanFieldEditor(
+				IExpressCoreConstants.EXPLORER_PREFETCH,
+				ExpressUIMessages.ExplorerPrefetch, getFieldEditorParent()));
+		this.consoleMaxChars =
+				new IntegerFieldEditor(
+						ConsoleUtils.BOUNDED_CONSOLE_MAX_CHARS,
+						ExpressUIMessages.ConsoleMaxChars, getFieldEditorParent());
+		consoleMaxChars.setValidRange(ConsoleUtils.MIN_BOUNDED_CONSOLE_MAX_CHARS, Integer.MAX_VALUE);
+		addField(consoleMaxChars);
+	}
+
+	@Override
+	protected void initialize() {
+		super.initialize();
+		// shared with the other OpenShift plugins
+		consoleMaxChars.setPreferenceStore(ConsoleUtils.getPreferenceStore());
+		consoleMaxChars.load();
 	}
 
 	public void init(IWorkbench workbench) {
 		IPreferenceStore preferenceStore = ExpressUIActivator.getDefault().getCorePreferenceStore();
 		preferenceStore.setDefault(IExpressCoreConstants.CLIENT_READ_TIMEOUT, ClientSystemProperties.getReadTimeoutSeconds());
+		preferenceStore.setDefault(IExpressCoreConstants.EXPLORER_PREFETCH, IExpressCoreConstants.DEFAULT_EXPLORER_PREFETCH);
 		setPreferenceStore(preferenceStore);
 	}
 
@@ -50,6 +75,11 @@ public class OpenShiftPreferencePage extends FieldEditorPreferencePage implement
 	public boolean performOk() {
 		boolean returnValue = super.performOk();
 		ClientSystemProperties.setReadTimeoutSeconds(clientReadTimeout.getIntValue());
+		try {
+			((IPersistentPreferenceStore) ConsoleUtils.getPreferenceStore()).save();
+		} catch (IOException e) {
+			Logger.warn("Could not save the console preferences", e);
+		}
 		return returnValue;
 	}
 	
@@ -133,7 +133,7 @@ import org.eclipse.ui.forms.widgets.FormToolkit;
 import org.eclipse.ui.forms.widgets.Section;
 import org.eclipse.ui.model.BaseWorkbenchContentProvider;
 import org.eclipse.ui.progress.WorkbenchJob;
-import org.jboss.tools.openshift.egit.core.EGitUtils;
+import org.jboss.tools.openshift.egit.core.RemoteRefTracker;
 import org.jboss.tools.openshift.express.internal.ui.ExpressImages;
 import org.jboss.tools.openshift.express.internal.ui.server.CommitItem.Status;
 
@@ -501,7 +501,7 @@ public class CommitDialog extends TitleAreaDialog {
 	private boolean isAhead(String remote, Repository repository) {
 		if (remote != null && remote.length() > 0) {
 			try {
-				return EGitUtils.isAhead(repository, remote, new NullProgressMonitor());
+				return RemoteRefTracker.getInstance().isAhead(repository, remote, new NullProgressMonitor());
 			} catch (IOException e) {
 				Activator.logError(NLS.bind("Could not check if local branch is ahead of remote {0}", remote), e);
 				return false;
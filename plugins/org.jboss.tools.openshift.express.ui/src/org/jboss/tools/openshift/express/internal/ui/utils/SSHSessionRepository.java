@@ -10,11 +10,21 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.express.internal.ui.utils;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.egit.ui.internal.credentials.EGitCredentialsProvider;
 import org.eclipse.jgit.transport.CredentialsProviderUserInfo;
 import org.eclipse.jgit.transport.JschConfigSessionFactory;
@@ -28,6 +38,7 @@ import org.jboss.tools.openshift.express.internal.ui.console.JschToEclipseLogger
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceReference;
 
+import com.jcraft.jsch.ChannelExec;
 import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
@@ -36,7 +47,17 @@ import com.openshift.client.IApplication;
 import com.openshift.client.OpenShiftSSHOperationException;
 
 /**
- * Same as EclipseSshSessinFactory, but provides a mean to retrieve the pure Jsch Session, not a RemoteSession.
+ * Same as EclipseSshSessinFactory, but provides a mean to retrieve the pure
+ * Jsch Session, not a RemoteSession.
+ * <p>
+ * Sessions are pooled per gear (user and host) and shared by all the
+ * operations on this gear (tailing files, snapshots, port forwarding,
+ * environment variables). The pool is safe to be used by concurrent jobs,
+ * the handshake for a given gear is only done once. Pooled sessions are kept
+ * alive by the server alive messages of JSch and probed before they're
+ * handed out once they were not used for {@link #PROBE_INTERVAL}. Sessions
+ * that were not used for {@link #IDLE_TIMEOUT} and have no open channels,
+ * leases or port forwardings are disconnected.
  * 
  * @author Xavier Coulon
  * 
@@ -44,6 +65,22 @@ import com.openshift.client.OpenShiftSSHOperationException;
 @SuppressWarnings("restriction")
 public class SSHSessionRepository extends JschConfigSessionFactory {
 
+	/** the interval in milliseconds at which keep-alive messages are sent to the server */
+	public static final int KEEP_ALIVE_INTERVAL = 30 * 1000;
+	/** the number of unanswered keep-alive messages after which a session is disconnected */
+	public static final int KEEP_ALIVE_COUNT_MAX = 3;
+	/** the time in milliseconds after which an unused session is probed before it is handed out */
+	public static final long PROBE_INTERVAL = 60 * 1000;
+	/** the time in milliseconds after which an unused session is disconnected */
+	public static final long IDLE_TIMEOUT = 10 * 60 * 1000;
+	/** the maximum number of channels that are open on a gear at the same time */
+	public static final int MAX_CHANNELS_PER_GEAR = 8;
+	/** the time in milliseconds to wait for a channel once all channels of a gear are in use */
+	private static final long CHANNEL_TIMEOUT = 30 * 1000;
+	private static final int SSH_PORT = 22;
+	/** the encoded terminal modes (RFC 4254, 8) that turn off ONLCR (opcode 72) */
+	private static final byte[] TERMINAL_MODES_NO_ONLCR = new byte[] { 72, 0, 0, 0, 0, 0 };
+
 	private static SSHSessionRepository INSTANCE = new SSHSessionRepository();
 
 	/**
@@ -62,7 +99,9 @@ public class SSHSessionRepository extends JschConfigSessionFactory {
 
 	private OpenSshConfig config;
 
-	private final Map<URIish, Session> cache = new HashMap<URIish, Session>();
+	private final ConcurrentMap<URIish, PooledSession> pool = new ConcurrentHashMap<URIish, PooledSession>();
+
+	private final Job evictionJob = new EvictionJob();
 
 	SSHSessionRepository() {
 		final BundleContext context = ExpressUIActivator.getDefault().getBundle().getBundleContext();
@@ -70,41 +109,146 @@ public class SSHSessionRepository extends JschConfigSessionFactory {
 		this.provider = (IJSchService) context.getService(ssh);
 	}
 
+	/**
+	 * Returns a connected session to the (main gear of the) given
+	 * application. The session is shared and may be evicted once it is idle.
+	 * Use {@link #lease(IApplication)} for long running operations that don't
+	 * use the channels of this pool.
+	 */
 	public Session getSession(final IApplication application) throws OpenShiftSSHOperationException {
 		try {
-			final URIish uri = getSshUri(application);
-			final Session session = cache.get(uri);
-			if (session == null 
-					|| !session.isConnected()) {
-				final FS fs = FS.DETECTED;
-				if (config == null) {
-					config = OpenSshConfig.get(fs);
-				}
-				String user = uri.getUser();
-				String host = uri.getHost();
-				int port = uri.getPort();
-				JSch.setLogger(new JschToEclipseLogger());
-				final OpenSshConfig.Host hc = config.lookup(host);
-				try {
-					cache.put(uri, createSession(hc, user, host, port, fs));
-				} catch (JSchException e) {
-					throw new OpenShiftSSHOperationException(e, "Could not create SSH session for application ''{0}''", application.getName());
-				}
+			return getPooledSession(getSshUri(application)).get(application.getName());
+		} catch (URISyntaxException e) {
+			throw new OpenShiftSSHOperationException(e, "Could not create SSH Session for application ''{0}''", application.getName());
+		}
+	}
+
+	/**
+	 * Returns a connected session to the given application that won't be
+	 * evicted until it is released.
+	 * 
+	 * @see #release(IApplication)
+	 */
+	public Session lease(final IApplication application) throws OpenShiftSSHOperationException {
+		try {
+			return getPooledSession(getSshUri(application)).lease(application.getName());
+		} catch (URISyntaxException e) {
+			throw new OpenShiftSSHOperationException(e, "Could not create SSH Session for application ''{0}''", application.getName());
+		}
+	}
+
+	/**
+	 * Releases a session that was leased for the given application.
+	 * 
+	 * @see #lease(IApplication)
+	 */
+	public void release(final IApplication application) {
+		try {
+			PooledSession pooledSession = pool.get(getSshUri(application));
+			if (pooledSession != null) {
+				pooledSession.release();
+			}
+		} catch (URISyntaxException e) {
+			// was never leased
+		}
+	}
+
+	/**
+	 * Executes the given command on the gear with the given ssh url. The
+	 * command runs in a channel of the session that is shared by all
+	 * operations on this gear. Blocks while all channels of the gear are in
+	 * use.
+	 * 
+	 * @param sshUrl
+	 *            the ssh url of the gear (ex. ssh://uuid@host)
+	 * @param command
+	 *            the command to execute
+	 * @return the channel that executes the command
+	 * @throws OpenShiftSSHOperationException
+	 */
+	public ExecChannel exec(final String sshUrl, final String command) throws OpenShiftSSHOperationException {
+		return exec(sshUrl, command, false);
+	}
+
+	/**
+	 * Executes the given command on the gear with the given ssh url, in a
+	 * pseudo terminal if requested. The processes of a command that runs in a
+	 * pseudo terminal are hung up on when the channel is closed, which
+	 * pipelines need since they are not terminated otherwise. The standard
+	 * error of such a command is merged into its standard output.
+	 * 
+	 * @param sshUrl
+	 *            the ssh url of the gear (ex. ssh://uuid@host)
+	 * @param command
+	 *            the command to execute
+	 * @param pty
+	 *            whether the command runs in a pseudo terminal
+	 * @return the channel that executes the command
+	 * @throws OpenShiftSSHOperationException
+	 */
+	public ExecChannel exec(final String sshUrl, final String command, final boolean pty) throws OpenShiftSSHOperationException {
+		try {
+			return getPooledSession(getSshUri(sshUrl)).exec(command, pty);
+		} catch (URISyntaxException e) {
+			throw new OpenShiftSSHOperationException(e, "Could not create SSH Session for gear ''{0}''", sshUrl);
+		}
+	}
+
+	/**
+	 * Disconnects all pooled sessions.
+	 */
+	public void dispose() {
+		evictionJob.cancel();
+		for (PooledSession pooledSession : pool.values()) {
+			pooledSession.disconnect();
+		}
+		pool.clear();
+	}
+
+	private PooledSession getPooledSession(URIish uri) {
+		PooledSession pooledSession = pool.get(uri);
+		if (pooledSession == null) {
+			PooledSession newSession = new PooledSession(uri);
+			pooledSession = pool.putIfAbsent(uri, newSession);
+			if (pooledSession == null) {
+				pooledSession = newSession;
 			}
-			return cache.get(uri);
-		} catch (URISyntaxException e1) {
-			throw new OpenShiftSSHOperationException(e1, "Could not create SSH Session for application ''{0}''", application.getName());
 		}
+		if (evictionJob.getState() == Job.NONE) {
+			evictionJob.schedule(IDLE_TIMEOUT);
+		}
+		return pooledSession;
 	}
 
 	static URIish getSshUri(IApplication application) throws URISyntaxException {
-		final URI sshURI = new URI(application.getSshUrl());
+		return getSshUri(application.getSshUrl());
+	}
+
+	static URIish getSshUri(String sshUrl) throws URISyntaxException {
+		final URI sshURI = new URI(sshUrl);
 		final String host = sshURI.getHost();
 		final String user = sshURI.getUserInfo();
-		final URIish uri = new URIish().setHost(host).setPort(22).setUser(user);
+		final URIish uri = new URIish().setHost(host).setPort(SSH_PORT).setUser(user);
 		return uri;
 	}
-	
+
+	private synchronized OpenSshConfig getConfig(FS fs) {
+		if (config == null) {
+			config = OpenSshConfig.get(fs);
+		}
+		return config;
+	}
+
+	private Session connect(URIish uri) throws JSchException {
+		final FS fs = FS.DETECTED;
+		String user = uri.getUser();
+		String host = uri.getHost();
+		int port = uri.getPort();
+		JSch.setLogger(new JschToEclipseLogger());
+		final OpenSshConfig.Host hc = getConfig(fs).lookup(host);
+		return createSession(hc, user, host, port, fs);
+	}
+
 	@Override
 	protected Session createSession(final OpenSshConfig.Host hc, final String user, final String host, final int port,
 			FS fs) throws JSchException {
@@ -115,6 +259,7 @@ public class SSHSessionRepository extends JschConfigSessionFactory {
 			//
 			final Session session = provider.createSession(host, port, user);
 			configure(hc, session);
+			keepAlive(session);
 			session.connect();
 			return session;
 		} else {
@@ -123,11 +268,17 @@ public class SSHSessionRepository extends JschConfigSessionFactory {
 			//
 			final Session session = jsch.getSession(user, host, port);
 			configure(hc, session);
+			keepAlive(session);
 			session.connect(0);
 			return session;
 		}
 	}
 
+	private void keepAlive(Session session) throws JSchException {
+		session.setServerAliveInterval(KEEP_ALIVE_INTERVAL);
+		session.setServerAliveCountMax(KEEP_ALIVE_COUNT_MAX);
+	}
+
 	@Override
 	protected JSch createDefaultJSch(FS fs) throws JSchException {
 		// Forcing a dummy session to be created will cause the known hosts
@@ -151,4 +302,229 @@ public class SSHSessionRepository extends JschConfigSessionFactory {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * The session to a gear. Connects (again) when it is requested and not
+	 * connected (any more).
+	 */
+	private class PooledSession {
+
+		private final URIish uri;
+		private final Semaphore channels = new Semaphore(MAX_CHANNELS_PER_GEAR);
+		private final AtomicInteger leases = new AtomicInteger();
+		private Session session;
+		private volatile long lastUsed;
+		private long lastProbed;
+
+		private PooledSession(URIish uri) {
+			this.uri = uri;
+		}
+
+		/**
+		 * Returns the connected session. Concurrent requests wait for a
+		 * single handshake.
+		 */
+		private synchronized Session get(String name) throws OpenShiftSSHOperationException {
+			this.lastUsed = System.currentTimeMillis();
+			if (!isAlive()) {
+				disconnect();
+				try {
+					this.session = connect(uri);
+					this.lastProbed = System.currentTimeMillis();
+				} catch (JSchException e) {
+					throw new OpenShiftSSHOperationException(e, "Could not create SSH session for application ''{0}''", name);
+				}
+			}
+			return session;
+		}
+
+		private Session lease(String name) throws OpenShiftSSHOperationException {
+			leases.incrementAndGet();
+			try {
+				return get(name);
+			} catch (OpenShiftSSHOperationException e) {
+				leases.decrementAndGet();
+				throw e;
+			}
+		}
+
+		private void release() {
+			this.lastUsed = System.currentTimeMillis();
+			if (leases.decrementAndGet() < 0) {
+				leases.set(0);
+			}
+		}
+
+		private ExecChannel exec(String command, boolean pty) throws OpenShiftSSHOperationException {
+			String name = uri.getUser() + "@" + uri.getHost();
+			acquireChannel(name);
+			try {
+				ChannelExec channel = (ChannelExec) get(name).openChannel("exec");
+				channel.setCommand(command);
+				if (pty) {
+					channel.setPty(true);
+					// keep the line endings of the output, don't translate them to CR-LF
+					channel.setTerminalMode(TERMINAL_MODES_NO_ONLCR);
+				}
+				ExecChannel execChannel = new ExecChannel(channel, this);
+				channel.connect();
+				return execChannel;
+			} catch (JSchException e) {
+				channels.release();
+				throw new OpenShiftSSHOperationException(e, "Could not execute \"{0}\" on gear {1}", command, name);
+			} catch (IOException e) {
+				channels.release();
+				throw new OpenShiftSSHOperationException(e, "Could not execute \"{0}\" on gear {1}", command, name);
+			} catch (OpenShiftSSHOperationException e) {
+				channels.release();
+				throw e;
+			}
+		}
+
+		private void acquireChannel(String name) throws OpenShiftSSHOperationException {
+			try {
+				if (!channels.tryAcquire(CHANNEL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+					throw new OpenShiftSSHOperationException(
+							"All {0} channels to gear {1} are in use", MAX_CHANNELS_PER_GEAR, name);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OpenShiftSSHOperationException(e, "Interrupted while waiting for a channel to gear {0}", name);
+			}
+		}
+
+		private void releaseChannel() {
+			this.lastUsed = System.currentTimeMillis();
+			channels.release();
+		}
+
+		private boolean isAlive() {
+			if (session == null
+					|| !session.isConnected()) {
+				return false;
+			}
+			long now = System.currentTimeMillis();
+			if (now - lastProbed < PROBE_INTERVAL) {
+				return true;
+			}
+			try {
+				session.sendKeepAliveMsg();
+				this.lastProbed = now;
+				return true;
+			} catch (Exception e) {
+				return false;
+			}
+		}
+
+		/**
+		 * Disconnects the session if it was not used for
+		 * {@link SSHSessionRepository#IDLE_TIMEOUT} and is not in use.
+		 * Returns <code>true</code> if it was disconnected.
+		 */
+		private synchronized boolean evictIfIdle() {
+			if (System.currentTimeMillis() - lastUsed < IDLE_TIMEOUT
+					|| leases.get() > 0
+					|| channels.availablePermits() < MAX_CHANNELS_PER_GEAR
+					|| hasPortForwardings()) {
+				return false;
+			}
+			disconnect();
+			return true;
+		}
+
+		private boolean hasPortForwardings() {
+			if (!isConnected()) {
+				return false;
+			}
+			try {
+				return session.getPortForwardingL().length > 0;
+			} catch (JSchException e) {
+				return false;
+			}
+		}
+
+		private synchronized boolean isConnected() {
+			return session != null
+					&& session.isConnected();
+		}
+
+		private synchronized void disconnect() {
+			if (session != null) {
+				session.disconnect();
+				this.session = null;
+			}
+		}
+	}
+
+	/**
+	 * A command that is executed in a channel of a pooled session. Needs to
+	 * be closed once it is not needed any more so that the channel is
+	 * returned to the gear.
+	 */
+	public static class ExecChannel {
+
+		private final ChannelExec channel;
+		private final PooledSession pooledSession;
+		private final InputStream inputStream;
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private ExecChannel(ChannelExec channel, PooledSession pooledSession) throws IOException {
+			this.channel = channel;
+			this.pooledSession = pooledSession;
+			// needs to be requested before the channel is connected
+			this.inputStream = channel.getInputStream();
+		}
+
+		/**
+		 * Returns the standard output of the command.
+		 */
+		public InputStream getInputStream() {
+			return inputStream;
+		}
+
+		public boolean isClosed() {
+			return closed.get()
+					|| channel.isClosed();
+		}
+
+		/**
+		 * Closes the channel, the session stays connected.
+		 */
+		public void close() {
+			if (closed.compareAndSet(false, true)) {
+				channel.disconnect();
+				pooledSession.releaseChannel();
+			}
+		}
+	}
+
+	/**
+	 * Disconnects the sessions that are idle. Runs for as long as there are
+	 * connected sessions in the pool.
+	 */
+	private class EvictionJob extends Job {
+
+		private EvictionJob() {
+			super("Disconnecting idle SSH sessions");
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			boolean connected = false;
+			for (PooledSession pooledSession : pool.values()) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				if (pooledSession.evictIfIdle()) {
+					Logger.debug("Disconnected idle SSH session to {}", pooledSession.uri);
+				} else {
+					connected |= pooledSession.isConnected();
+				}
+			}
+			if (connected) {
+				schedule(IDLE_TIMEOUT / 2);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+}
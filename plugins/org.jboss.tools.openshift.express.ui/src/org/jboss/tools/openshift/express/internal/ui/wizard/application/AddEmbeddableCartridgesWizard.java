@@ -46,6 +46,12 @@ public class AddEmbeddableCartridgesWizard extends AbstractOpenShiftWizard<Embed
 				));
 	}
 
+	@Override
+	public void dispose() {
+		getModel().dispose();
+		super.dispose();
+	}
+
 	@Override
 	public boolean performFinish() {
 		return true;
@@ -401,6 +401,12 @@ public class ApplicationTemplateWizardPage extends AbstractOpenShiftWizardPage {
 		}
 	}
 
+	@Override
+	public void dispose() {
+		pageModel.dispose();
+		super.dispose();
+	}
+
 	/**
 	 * Checks that the user has a domain, opens the creation dialog in case he
 	 * hasn't, closes the wizard if the user does not create a domain (required
@@ -15,11 +15,22 @@ import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.jboss.tools.common.ui.databinding.ObservableUIPojo;
+import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistryAdapter;
+import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistrySingleton;
+import org.jboss.tools.openshift.common.core.connection.IConnection;
+import org.jboss.tools.openshift.common.core.connection.IConnectionsRegistryListener;
 import org.jboss.tools.openshift.common.core.utils.StringUtils;
 import org.jboss.tools.openshift.express.internal.core.QuickstartNameComparator;
 import org.jboss.tools.openshift.express.internal.core.cartridges.CartridgeNameComparator;
+import org.jboss.tools.openshift.express.internal.core.cartridges.CartridgesCache.Cartridges;
 import org.jboss.tools.openshift.express.internal.core.connection.ExpressConnection;
 import org.jboss.tools.openshift.express.internal.ui.utils.Logger;
 import org.jboss.tools.openshift.express.internal.ui.utils.PojoEventBridge;
@@ -29,6 +40,7 @@ import org.jboss.tools.openshift.express.internal.ui.wizard.application.template
 import org.jboss.tools.openshift.express.internal.ui.wizard.application.template.IApplicationTemplate;
 import org.jboss.tools.openshift.express.internal.ui.wizard.application.template.IApplicationTemplateCategory;
 import org.jboss.tools.openshift.express.internal.ui.wizard.application.template.QuickstartApplicationTemplate;
+import org.jboss.tools.openshift.internal.common.core.util.ThreadUtils;
 
 import com.openshift.client.IApplication;
 import com.openshift.client.IDomain;
@@ -50,6 +62,9 @@ public class ApplicationTemplateWizardPageModel extends ObservableUIPojo {
 	public static final String PROPERTY_SELECTED_APPLICATION_TEMPLATE = "selectedApplicationTemplate";
 	public static final String PROPERTY_USE_EXISTING_APPLICATION = "useExistingApplication";
 
+	/** the maximum number of resources that are loaded from the server in parallel */
+	private static final int MAX_PARALLEL_LOADS = 4;
+
 	private final OpenShiftApplicationWizardModel wizardModel;
 
 	// start with a null value as a marker of non-initialized state (used during
@@ -65,12 +80,36 @@ public class ApplicationTemplateWizardPageModel extends ObservableUIPojo {
 			new ApplicationTemplateCategory("Quickstarts", 
 					"A quick way to try out a new technology with code and libraries preconfigured. "
 					+ "You are responsible for updating core libraries for security updates");
+	private IConnectionsRegistryListener connectionChangeListener;
+	private ExecutorService executor;
 
 	protected ApplicationTemplateWizardPageModel(OpenShiftApplicationWizardModel wizardModel) {
 		this.wizardModel = wizardModel;
 		setExistingApplication(wizardModel.getApplication());
 		setUseExistingApplication(wizardModel.isUseExistingApplication());
 		setupWizardModelListeners(wizardModel);
+		this.connectionChangeListener = onCartridgesChanged();
+		ConnectionsRegistrySingleton.getInstance().addListener(connectionChangeListener);
+	}
+
+	/**
+	 * Replaces the basic cartridges once the connection revalidated the
+	 * cartridges that it had read from the on-disk cache and got others from
+	 * the server.
+	 */
+	private IConnectionsRegistryListener onCartridgesChanged() {
+		return new ConnectionsRegistryAdapter() {
+
+			@Override
+			public void connectionChanged(IConnection connection, String property, Object oldValue, Object newValue) {
+				if (connection != getConnection()
+						|| !ExpressConnection.PROPERTY_CARTRIDGES.equals(property)
+						|| !(newValue instanceof Cartridges)) {
+					return;
+				}
+				setStandaloneCartridges(((Cartridges) newValue).getStandaloneCartridges());
+			}
+		};
 	}
 
 	private void setupWizardModelListeners(OpenShiftApplicationWizardModel wizardModel) {
@@ -230,14 +269,107 @@ public class ApplicationTemplateWizardPageModel extends ObservableUIPojo {
 
 		setResourcesLoaded(false);
 
-		ensureHasDomain();
-		setDomains(connection.getDomains());
-		setQuickstarts(connection.getQuickstarts());
-		setStandaloneCartridges(connection.getStandaloneCartridges());
+		List<Future<Runnable>> pending = new ArrayList<Future<Runnable>>();
+		try {
+			CompletionService<Runnable> loads = new ExecutorCompletionService<Runnable>(getExecutor());
+			pending.add(loads.submit(loadDomains(connection)));
+			pending.add(loads.submit(loadQuickstarts(connection)));
+			pending.add(loads.submit(loadStandaloneCartridges(connection)));
+			for (int i = 0; i < 3; i++) {
+				// populate the model in the order in which the loads finish
+				getResult(loads.take()).run();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		} finally {
+			for (Future<Runnable> load : pending) {
+				load.cancel(true);
+			}
+		}
 
 		setResourcesLoaded(true);
 	}
 
+	/**
+	 * Loads the domains and returns the operation that loads their
+	 * applications and sets both to this model. The model itself is only ever
+	 * updated by the thread that loads the resources. The applications are
+	 * loaded by this thread too (on the same executor) so that no load ever
+	 * waits for another one on the executor.
+	 */
+	private Callable<Runnable> loadDomains(final ExpressConnection connection) {
+		return new Callable<Runnable>() {
+
+			@Override
+			public Runnable call() throws Exception {
+				final List<IDomain> domains = connection.getDomains();
+				return new Runnable() {
+
+					@Override
+					public void run() {
+						List<IApplication> applications = loadApplications(domains);
+						ensureHasDomain();
+						firePropertyChange(PROPERTY_DOMAINS, wizardModel.getDomains(), wizardModel.setDomains(domains));
+						setExistingApplications(applications);
+					}
+				};
+			}
+		};
+	}
+
+	private Callable<Runnable> loadQuickstarts(final ExpressConnection connection) {
+		return new Callable<Runnable>() {
+
+			@Override
+			public Runnable call() throws Exception {
+				final List<IQuickstart> quickstarts = connection.getQuickstarts();
+				return new Runnable() {
+
+					@Override
+					public void run() {
+						setQuickstarts(quickstarts);
+					}
+				};
+			}
+		};
+	}
+
+	private Callable<Runnable> loadStandaloneCartridges(final ExpressConnection connection) {
+		return new Callable<Runnable>() {
+
+			@Override
+			public Runnable call() throws Exception {
+				final List<IStandaloneCartridge> cartridges = connection.getStandaloneCartridges();
+				return new Runnable() {
+
+					@Override
+					public void run() {
+						setStandaloneCartridges(cartridges);
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Returns the result of the given load. Rethrows the exception that the
+	 * load failed with.
+	 */
+	private static <T> T getResult(Future<T> load) throws InterruptedException, OpenShiftException {
+		try {
+			return load.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new OpenShiftException(cause, "Could not load OpenShift resources");
+		}
+	}
+
 	protected void setStandaloneCartridges(List<IStandaloneCartridge> cartridges) {
 		cartridges = new ArrayList<IStandaloneCartridge>(cartridges);
 		Collections.sort(cartridges, new CartridgeNameComparator());
@@ -290,14 +422,54 @@ public class ApplicationTemplateWizardPageModel extends ObservableUIPojo {
 	}
 
 	protected void setExistingApplicationsFor(List<IDomain> domains) throws OpenShiftException {
-		List<IApplication> existingApplications = new ArrayList<IApplication>();
-		if (domains != null) {
-			for (IDomain domain : domains) {
-				// long-running
-				existingApplications.addAll(domain.getApplications());
+		setExistingApplications(loadApplications(domains));
+	}
+
+	/**
+	 * Returns the applications of the given domains, in the order of the
+	 * domains. The applications of several domains are loaded in parallel.
+	 */
+	private List<IApplication> loadApplications(List<IDomain> domains) throws OpenShiftException {
+		List<IApplication> applications = new ArrayList<IApplication>();
+		if (domains == null
+				|| domains.isEmpty()) {
+			return applications;
+		} else if (domains.size() == 1) {
+			applications.addAll(domains.get(0).getApplications());
+			return applications;
+		}
+
+		List<Future<List<IApplication>>> loads = new ArrayList<Future<List<IApplication>>>(domains.size());
+		try {
+			for (final IDomain domain : domains) {
+				loads.add(getExecutor().submit(new Callable<List<IApplication>>() {
+
+					@Override
+					public List<IApplication> call() throws Exception {
+						// long-running
+						return domain.getApplications();
+					}
+				}));
+			}
+			for (Future<List<IApplication>> load : loads) {
+				applications.addAll(getResult(load));
+			}
+			return applications;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OpenShiftException(e, "Loading the applications was interrupted");
+		} finally {
+			for (Future<List<IApplication>> load : loads) {
+				load.cancel(true);
 			}
 		}
-		setExistingApplications(existingApplications);
+	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			this.executor = ThreadUtils.newBoundedExecutor("OpenShift application template loader", MAX_PARALLEL_LOADS);
+		}
+		return executor;
 	}
 
 	public void setExistingApplications(List<IApplication> applications) throws OpenShiftException {
@@ -312,4 +484,13 @@ public class ApplicationTemplateWizardPageModel extends ObservableUIPojo {
 	public final OpenShiftApplicationWizardModel getWizardModel() {
 		return wizardModel;
 	}
+
+	public void dispose() {
+		ConnectionsRegistrySingleton.getInstance().removeListener(connectionChangeListener);
+		synchronized (this) {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+	}
 }
@@ -42,7 +42,15 @@ public class EditAlternativeCartridgesWizard extends AbstractOpenShiftWizard<Emb
 						, alternativeCartridges
 						, new NewApplicationProperties(wizardModel)
 						, wizardModel.getDomain()
-						, wizardModel.getConnection()));
+						, wizardModel.getConnection()
+						// alternatives are no catalog cartridges
+						, false));
+	}
+
+	@Override
+	public void dispose() {
+		getModel().dispose();
+		super.dispose();
 	}
 
 	@Override
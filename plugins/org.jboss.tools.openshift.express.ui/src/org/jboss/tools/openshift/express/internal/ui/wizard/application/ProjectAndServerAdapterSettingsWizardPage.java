@@ -37,7 +37,6 @@ import org.eclipse.jface.fieldassist.TextContentAdapter;
 import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.jface.wizard.IWizard;
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.errors.NoWorkTreeException;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
@@ -53,6 +52,7 @@ import org.jboss.tools.common.ui.databinding.ValueBindingBuilder;
 import org.jboss.tools.openshift.common.core.utils.ProjectUtils;
 import org.jboss.tools.openshift.common.core.utils.StringUtils;
 import org.jboss.tools.openshift.egit.core.EGitUtils;
+import org.jboss.tools.openshift.egit.core.GitDirtyStateCache;
 import org.jboss.tools.openshift.internal.common.ui.SelectExistingProjectDialog;
 import org.jboss.tools.openshift.internal.common.ui.wizard.AbstractOpenShiftWizardPage;
 
@@ -326,7 +326,9 @@ public class ProjectAndServerAdapterSettingsWizardPage extends AbstractOpenShift
 					"The git repository for project {0} looks corrupt. Please fix it before using it.",
 					project.getName()));
 			try {
-				if (EGitUtils.isDirty(project, false, new NullProgressMonitor())) {
+				// validated while typing, the cached state is good enough, the import checks again
+				if (GitDirtyStateCache.getInstance().isDirty(
+						EGitUtils.getRepository(project), false, new NullProgressMonitor())) {
 					return ValidationStatus.error(NLS.bind(
 							"The project {0} has uncommitted changes. Please commit those changes first.",
 							project.getName()));
@@ -337,8 +339,6 @@ public class ProjectAndServerAdapterSettingsWizardPage extends AbstractOpenShift
 				return repoCorruptError;
 			} catch (IOException e) {
 				return repoCorruptError;
-			} catch (GitAPIException e) {
-				return repoCorruptError;
 			}
 		}
 
@@ -67,6 +67,12 @@ public class EditEmbeddedCartridgesWizard extends Wizard {
 		setWindowTitle("Edit Embedded Cartridges");
 	}
 
+	@Override
+	public void dispose() {
+		wizardModel.dispose();
+		super.dispose();
+	}
+
 	@Override
 	public boolean performFinish() {
 		return processCartridges();
@@ -10,32 +10,54 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.express.internal.ui.wizard.embed;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.jboss.tools.common.databinding.ObservablePojo;
+import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistryAdapter;
+import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistrySingleton;
+import org.jboss.tools.openshift.common.core.connection.IConnection;
+import org.jboss.tools.openshift.common.core.connection.IConnectionsRegistryListener;
 import org.jboss.tools.openshift.express.internal.core.IApplicationProperties;
+import org.jboss.tools.openshift.express.internal.core.cartridges.CartridgesCache.Cartridges;
 import org.jboss.tools.openshift.express.internal.core.connection.ExpressConnection;
 
 import com.openshift.client.ApplicationScale;
 import com.openshift.client.IDomain;
 import com.openshift.client.cartridge.ICartridge;
+import com.openshift.client.cartridge.IEmbeddableCartridge;
 
 /**
  * @author Andre Dietisheim
  */
 public class EmbeddedCartridgesWizardModel extends ObservablePojo {
 
+	public static final String PROPERTY_EMBEDDABLE_CARTRIDGES = "embeddableCartridges";
+
 	private Set<ICartridge> checkedEmbeddedCartridges;
 	private List<ICartridge> availableCartridges;
 	private ExpressConnection connection;
 	private IDomain domain;
 	private IApplicationProperties applicationProperties;
 	private Set<ICartridge> embeddedCartridges;
+	private IConnectionsRegistryListener connectionChangeListener;
 
 	public EmbeddedCartridgesWizardModel(Set<ICartridge> embeddedCartidges, List<ICartridge> availableCartridges, 
 			IApplicationProperties applicationProperties, IDomain domain, ExpressConnection connection) {
+		this(embeddedCartidges, availableCartridges, applicationProperties, domain, connection, true);
+	}
+
+	/**
+	 * @param followCatalog
+	 *            whether the available cartridges are the embeddable
+	 *            cartridges of the connection and should be updated once it
+	 *            gets others from the server
+	 */
+	public EmbeddedCartridgesWizardModel(Set<ICartridge> embeddedCartidges, List<ICartridge> availableCartridges, 
+			IApplicationProperties applicationProperties, IDomain domain, ExpressConnection connection,
+			boolean followCatalog) {
 		this.embeddedCartridges = embeddedCartidges;
 		this.checkedEmbeddedCartridges = new HashSet<ICartridge>();
 		this.checkedEmbeddedCartridges.addAll(embeddedCartidges);
@@ -43,6 +65,60 @@ public class EmbeddedCartridgesWizardModel extends ObservablePojo {
 		this.applicationProperties = applicationProperties;
 		this.domain = domain;
 		this.connection = connection;
+		if (followCatalog) {
+			this.connectionChangeListener = onCartridgesChanged();
+			ConnectionsRegistrySingleton.getInstance().addListener(connectionChangeListener);
+		}
+	}
+
+	private IConnectionsRegistryListener onCartridgesChanged() {
+		return new ConnectionsRegistryAdapter() {
+
+			@Override
+			public void connectionChanged(IConnection connection, String property, Object oldValue, Object newValue) {
+				if (connection != getConnection()
+						|| !ExpressConnection.PROPERTY_CARTRIDGES.equals(property)
+						|| !(oldValue instanceof Cartridges)
+						|| !(newValue instanceof Cartridges)) {
+					return;
+				}
+				updateEmbeddableCartridges(
+						((Cartridges) oldValue).getEmbeddableCartridges(),
+						((Cartridges) newValue).getEmbeddableCartridges());
+			}
+		};
+	}
+
+	/**
+	 * Updates the available cartridges to the given new catalog: cartridges
+	 * that are not offered any more are removed, new ones are added and the
+	 * others are replaced by their new version. Embedded cartridges are left
+	 * untouched.
+	 */
+	protected void updateEmbeddableCartridges(List<IEmbeddableCartridge> previous, List<IEmbeddableCartridge> current) {
+		List<ICartridge> cartridges = new ArrayList<ICartridge>(availableCartridges);
+		for (IEmbeddableCartridge cartridge : previous) {
+			if (!current.contains(cartridge)
+					&& !embeddedCartridges.contains(cartridge)) {
+				cartridges.remove(cartridge);
+			}
+		}
+		for (IEmbeddableCartridge cartridge : current) {
+			if (embeddedCartridges.contains(cartridge)) {
+				continue;
+			}
+			int index = cartridges.indexOf(cartridge);
+			if (index >= 0) {
+				cartridges.set(index, cartridge);
+			} else {
+				cartridges.add(cartridge);
+			}
+		}
+		setEmbeddableCartridges(cartridges);
+	}
+
+	public void setEmbeddableCartridges(List<ICartridge> cartridges) {
+		firePropertyChange(PROPERTY_EMBEDDABLE_CARTRIDGES, this.availableCartridges, this.availableCartridges = cartridges);
 	}
 
 	public List<ICartridge> getEmbeddableCartridges() {
@@ -87,4 +163,8 @@ public class EmbeddedCartridgesWizardModel extends ObservablePojo {
 	public IDomain getDomain() {
 		return domain;
 	}
+
+	public void dispose() {
+		ConnectionsRegistrySingleton.getInstance().removeListener(connectionChangeListener);
+	}
 }
\ No newline at end of file
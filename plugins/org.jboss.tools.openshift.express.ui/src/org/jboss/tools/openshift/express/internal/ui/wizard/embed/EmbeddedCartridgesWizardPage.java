@@ -130,6 +130,12 @@ public class EmbeddedCartridgesWizardPage extends AbstractOpenShiftWizardPage {
 		deselectAllButton.addSelectionListener(onDeselectAll());
 	}
 
+	@Override
+	public void dispose() {
+		pageModel.dispose();
+		super.dispose();
+	}
+
 	protected ICheckStateListener onCartridgeChecked(EmbeddedCartridgesWizardPageModel pageModel, IWizardPage wizardPage) {
 		return new FullfillRequirementsCheckStrategy(pageModel, wizardPage);
 	}
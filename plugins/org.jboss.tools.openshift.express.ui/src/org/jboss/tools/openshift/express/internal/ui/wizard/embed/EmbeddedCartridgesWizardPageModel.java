@@ -10,6 +10,8 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.express.internal.ui.wizard.embed;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -36,9 +38,24 @@ public class EmbeddedCartridgesWizardPageModel extends ObservableUIPojo implemen
 	private EmbeddedCartridgesWizardModel applicationCartridges;
 	private List<ICartridge> embeddableCartridges = new ArrayList<ICartridge>();
 	private ICartridge selectedCartridge;
+	private PropertyChangeListener embeddableCartridgesListener;
 
 	public EmbeddedCartridgesWizardPageModel(EmbeddedCartridgesWizardModel applicationCartridges) {
 		this.applicationCartridges = applicationCartridges;
+		this.embeddableCartridgesListener = onEmbeddableCartridgesChanged();
+		applicationCartridges.addPropertyChangeListener(
+				EmbeddedCartridgesWizardModel.PROPERTY_EMBEDDABLE_CARTRIDGES, embeddableCartridgesListener);
+	}
+
+	private PropertyChangeListener onEmbeddableCartridgesChanged() {
+		return new PropertyChangeListener() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public void propertyChange(PropertyChangeEvent event) {
+				setEmbeddableCartridges((List<ICartridge>) event.getNewValue());
+			}
+		};
 	}
 	
 	public void loadOpenShiftResources() throws OpenShiftException {
@@ -133,4 +150,9 @@ public class EmbeddedCartridgesWizardPageModel extends ObservableUIPojo implemen
 	public String getApplicationName() {
 		return applicationCartridges.getApplicationName();
 	}
+
+	public void dispose() {
+		applicationCartridges.removePropertyChangeListener(
+				EmbeddedCartridgesWizardModel.PROPERTY_EMBEDDABLE_CARTRIDGES, embeddableCartridgesListener);
+	}
 }
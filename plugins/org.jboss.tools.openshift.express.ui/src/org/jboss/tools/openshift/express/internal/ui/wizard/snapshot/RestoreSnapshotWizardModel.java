@@ -10,9 +10,7 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.express.internal.ui.wizard.snapshot;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -24,7 +22,6 @@ import org.jboss.tools.openshift.express.internal.ui.utils.SSHSessionRepository;
 import com.jcraft.jsch.Session;
 import com.openshift.client.IApplication;
 import com.openshift.internal.client.ApplicationSSHSession;
-import com.openshift.internal.client.utils.StreamUtils;
 
 /**
  * @author Andre Dietisheim
@@ -66,17 +63,22 @@ public class RestoreSnapshotWizardModel extends ObservablePojo {
 			return null;
 		}
 		storeSnapshotToPreferences(filepath, deploymentSnapshot);
-		Session session = SSHSessionRepository.getInstance().getSession(application);
-		FileInputStream snapshotFileInputStream = new FileInputStream(new File(getFilepath()));
-		InputStream saveResponse = null;
-		if (isDeploymentSnapshot()) {
-			saveResponse = new ApplicationSSHSession(application, session).restoreDeploymentSnapshot(snapshotFileInputStream, hotDeploy);
-		} else {
-			saveResponse = new ApplicationSSHSession(application, session).restoreFullSnapshot(snapshotFileInputStream);
+		final Session session = SSHSessionRepository.getInstance().lease(application);
+		try {
+			return SnapshotTransfer.restore(new File(getFilepath()), new SnapshotTransfer.SnapshotSink() {
+
+				@Override
+				public InputStream restore(InputStream snapshot) throws IOException {
+					if (isDeploymentSnapshot()) {
+						return new ApplicationSSHSession(application, session).restoreDeploymentSnapshot(snapshot, hotDeploy);
+					} else {
+						return new ApplicationSSHSession(application, session).restoreFullSnapshot(snapshot);
+					}
+				}
+			}, monitor);
+		} finally {
+			SSHSessionRepository.getInstance().release(application);
 		}
-		ByteArrayOutputStream byteArrayOut = new ByteArrayOutputStream();
-		StreamUtils.writeTo(saveResponse, byteArrayOut);
-		return new String(byteArrayOut.toByteArray());
 	}
 
 	public boolean isHotDeploy() {
@@ -10,7 +10,8 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.express.internal.ui.wizard.snapshot;
 
-import java.io.FileOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -26,7 +27,6 @@ import org.jboss.tools.openshift.express.internal.ui.utils.SSHSessionRepository;
 import com.jcraft.jsch.Session;
 import com.openshift.client.IApplication;
 import com.openshift.internal.client.ApplicationSSHSession;
-import com.openshift.internal.client.utils.StreamUtils;
 
 /**
  * @author Andre Dietisheim
@@ -71,13 +71,22 @@ public class SaveSnapshotWizardModel extends ObservablePojo {
 		if (monitor.isCanceled()) {
 			return;
 		}
-		Session session = SSHSessionRepository.getInstance().getSession(application);
-		if (isDeploymentSnapshot()) {
-			InputStream saveResponse = new ApplicationSSHSession(application, session).saveDeploymentSnapshot();
-			StreamUtils.writeTo(saveResponse, new FileOutputStream(getFilepath()));
-		} else {
-			InputStream saveResponse = new ApplicationSSHSession(application, session).saveFullSnapshot();
-			StreamUtils.writeTo(saveResponse, new FileOutputStream(getFilepath()));
+		boolean saved = SnapshotTransfer.save(new SnapshotTransfer.SnapshotSource() {
+
+			@Override
+			public InputStream open() throws IOException {
+				// leased for each attempt, a session that a failed attempt broke is connected again
+				Session session = SSHSessionRepository.getInstance().lease(application);
+				try {
+					return new LeasedInputStream(openSnapshot(session));
+				} catch (IOException | RuntimeException e) {
+					SSHSessionRepository.getInstance().release(application);
+					throw e;
+				}
+			}
+		}, new File(getFilepath()), monitor);
+		if (!saved) {
+			return;
 		}
 		storeSnapshotToPreferences(filepath, deploymentSnapshot);
 		if (project != null) {
@@ -85,6 +94,14 @@ public class SaveSnapshotWizardModel extends ObservablePojo {
 		}
 	}
 
+	private InputStream openSnapshot(Session session) throws IOException {
+		if (isDeploymentSnapshot()) {
+			return new ApplicationSSHSession(application, session).saveDeploymentSnapshot();
+		} else {
+			return new ApplicationSSHSession(application, session).saveFullSnapshot();
+		}
+	}
+
 	private void storeSnapshotToPreferences(String filepath, boolean deploymentSnapshot) {
 		if (deploymentSnapshot) {
 			ExpressCorePreferences.INSTANCE.saveDeploymentSnapshot(getApplication(), filepath);
@@ -100,4 +117,29 @@ public class SaveSnapshotWizardModel extends ObservablePojo {
 			return ExpressCorePreferences.INSTANCE.getFullSnapshot(application);
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * A snapshot stream that releases the session it was leased for once it
+	 * is closed.
+	 */
+	private class LeasedInputStream extends FilterInputStream {
+
+		private boolean released;
+
+		private LeasedInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				if (!released) {
+					this.released = true;
+					SSHSessionRepository.getInstance().release(application);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,443 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.express.internal.ui.wizard.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.osgi.util.NLS;
+import org.jboss.tools.openshift.express.internal.ui.utils.Logger;
+
+import com.openshift.client.OpenShiftSSHOperationException;
+
+/**
+ * Transfers snapshots between the local file system and a gear. Saved
+ * snapshots are written to a temporary file with large channel writes, are
+ * checked for truncation while they are written and are then moved to their
+ * destination atomically
+ * so that an existing snapshot is never replaced by a partial one. The
+ * checksum of each saved snapshot is stored next to it and verified before
+ * the snapshot is restored. Restored snapshots are streamed from disk.
+ * Progress and throughput are reported to the given monitor.
+ */
+public class SnapshotTransfer {
+
+	/** the number of times a snapshot is requested from the gear before saving fails */
+	private static final int MAX_ATTEMPTS = 3;
+	private static final int BUFFER_SIZE = 1024 * 1024;
+	/** the interval in milliseconds at which the throughput is reported */
+	private static final long REPORT_INTERVAL = 1000;
+	private static final String CHECKSUM_ALGORITHM = "SHA-256";
+	private static final String CHECKSUM_SUFFIX = ".sha256";
+	private static final Charset US_ASCII = Charset.forName("US-ASCII");
+	private static final int GZIP_MAGIC = 0x8b1f;
+
+	/**
+	 * A snapshot that is created on the gear. Each call to {@link #open()}
+	 * requests a new snapshot. The returned stream is closed once the
+	 * snapshot was transferred or the transfer failed.
+	 */
+	public interface SnapshotSource {
+		public InputStream open() throws IOException;
+	}
+
+	/**
+	 * A restore operation on the gear that reads the snapshot from the given
+	 * stream and returns the response of the gear.
+	 */
+	public interface SnapshotSink {
+		public InputStream restore(InputStream snapshot) throws IOException;
+	}
+
+	private SnapshotTransfer() {
+		// inhibit instantiation
+	}
+
+	/**
+	 * Saves the snapshot that the given source provides to the given file.
+	 * The snapshot is requested again if the transfer fails or the snapshot is
+	 * truncated. Returns <code>false</code> if the transfer was canceled, the
+	 * given file is left untouched in this case.
+	 */
+	public static boolean save(SnapshotSource source, File file, IProgressMonitor monitor) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		Files.createDirectories(directory.toPath());
+		Path temporary = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+		try {
+			for (int attempt = 1; ; attempt++) {
+				try {
+					byte[] checksum = download(source, temporary, monitor);
+					Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+					writeChecksum(checksum, file);
+					return true;
+				} catch (InterruptedIOException e) {
+					return false;
+				} catch (IOException | OpenShiftSSHOperationException e) {
+					if (attempt >= MAX_ATTEMPTS
+							|| monitor.isCanceled()) {
+						throw toIOException(e);
+					}
+					Logger.warn(NLS.bind("Could not transfer snapshot to {0}, retrying ({1}/{2})",
+							new Object[] { file, attempt, MAX_ATTEMPTS }), e);
+				}
+			}
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Restores the given snapshot file with the given sink. Verifies the
+	 * checksum of the snapshot first if one was stored when it was saved.
+	 * Returns the response of the gear.
+	 */
+	public static String restore(File file, SnapshotSink sink, IProgressMonitor monitor) throws IOException {
+		verifyChecksum(file);
+		InputStream snapshot = new ProgressInputStream(
+				new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE), file.length(), monitor);
+		try {
+			InputStream response = sink.restore(snapshot);
+			return toString(response);
+		} catch (OpenShiftSSHOperationException e) {
+			throw toIOException(e);
+		} finally {
+			snapshot.close();
+		}
+	}
+
+	/**
+	 * Copies a new snapshot of the given source to the given file and returns
+	 * its checksum. Gzip compressed snapshots are decompressed while they are
+	 * copied so that a truncated transfer is detected by the length and crc
+	 * checks of the gzip trailer without reading the file again. Snapshots in
+	 * other formats are not checked.
+	 */
+	private static byte[] download(SnapshotSource source, Path file, IProgressMonitor monitor) throws IOException {
+		MessageDigest digest = createDigest();
+		try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+				CopyingInputStream copy = new CopyingInputStream(source.open(), out, digest, monitor)) {
+			PushbackInputStream in = new PushbackInputStream(copy, 2);
+			byte[] buffer = new byte[BUFFER_SIZE];
+			if (isGzip(in)) {
+				GZIPInputStream gzip = null;
+				try {
+					gzip = new GZIPInputStream(in, BUFFER_SIZE);
+					drain(gzip, buffer);
+					// bytes that follow the compressed data
+					drain(in, buffer);
+				} catch (EOFException e) {
+					throw new IOException(NLS.bind("Snapshot {0} is incomplete", file), e);
+				} finally {
+					if (gzip != null) {
+						// releases the inflater
+						gzip.close();
+					}
+				}
+			} else {
+				drain(in, buffer);
+			}
+			copy.flush();
+			out.force(false);
+		}
+		return digest.digest();
+	}
+
+	private static boolean isGzip(PushbackInputStream in) throws IOException {
+		byte[] magic = new byte[2];
+		int read = 0;
+		int count = 0;
+		while (count < magic.length
+				&& (read = in.read(magic, count, magic.length - count)) != -1) {
+			count += read;
+		}
+		in.unread(magic, 0, count);
+		return count == magic.length
+				&& ((magic[0] & 0xff) | ((magic[1] & 0xff) << 8)) == GZIP_MAGIC;
+	}
+
+	private static void drain(InputStream in, byte[] buffer) throws IOException {
+		while (in.read(buffer) != -1) {
+		}
+	}
+
+	private static void writeChecksum(byte[] checksum, File file) throws IOException {
+		String line = toHex(checksum) + "  " + file.getName() + "\n";
+		Files.write(getChecksumFile(file).toPath(), line.getBytes(US_ASCII));
+	}
+
+	private static void verifyChecksum(File file) throws IOException {
+		File checksumFile = getChecksumFile(file);
+		if (!checksumFile.isFile()
+				|| checksumFile.lastModified() < file.lastModified()) {
+			// not saved by us or replaced since
+			return;
+		}
+		String line = new String(Files.readAllBytes(checksumFile.toPath()), US_ASCII).trim();
+		int end = line.indexOf(' ');
+		String expected = end == -1 ? line : line.substring(0, end);
+
+		MessageDigest digest = createDigest();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			while (in.read(buffer) != -1) {
+				buffer.flip();
+				digest.update(buffer);
+				buffer.clear();
+			}
+		}
+		if (!expected.equalsIgnoreCase(toHex(digest.digest()))) {
+			throw new IOException(NLS.bind("Snapshot {0} is corrupt, its checksum does not match the one in {1}",
+					file, checksumFile.getName()));
+		}
+	}
+
+	private static File getChecksumFile(File file) {
+		return new File(file.getAbsoluteFile().getParentFile(), file.getName() + CHECKSUM_SUFFIX);
+	}
+
+	private static MessageDigest createDigest() throws IOException {
+		try {
+			return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder builder = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			builder.append(Character.forDigit((b >> 4) & 0xf, 16))
+					.append(Character.forDigit(b & 0xf, 16));
+		}
+		return builder.toString();
+	}
+
+	private static String toString(InputStream in) throws IOException {
+		if (in == null) {
+			return null;
+		}
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8 * 1024];
+			int read = 0;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return new String(out.toByteArray());
+		} finally {
+			in.close();
+		}
+	}
+
+	private static IOException toIOException(Exception e) {
+		if (e instanceof IOException) {
+			return (IOException) e;
+		}
+		return new IOException(e.getMessage(), e);
+	}
+
+	/**
+	 * Reports the transferred bytes and the throughput to a monitor.
+	 */
+	private static class Progress {
+
+		private static final long MEGABYTE = 1024 * 1024;
+
+		private final long total;
+		private final IProgressMonitor monitor;
+		private final long startTime = System.currentTimeMillis();
+		private long reportTime = startTime;
+		private long transferred;
+
+		private Progress(long total, IProgressMonitor monitor) {
+			this.total = total;
+			this.monitor = monitor;
+		}
+
+		private void worked(int bytes) {
+			this.transferred += bytes;
+			long now = System.currentTimeMillis();
+			if (now - reportTime < REPORT_INTERVAL) {
+				return;
+			}
+			this.reportTime = now;
+			String rate = toMegabytes(transferred * 1000 / Math.max(1, now - startTime));
+			if (total > 0) {
+				monitor.subTask(NLS.bind("Transferred {0} of {1} MB ({2} MB/s)",
+						new Object[] { toMegabytes(transferred), toMegabytes(total), rate }));
+			} else {
+				monitor.subTask(NLS.bind("Transferred {0} MB ({1} MB/s)", toMegabytes(transferred), rate));
+			}
+		}
+
+		private static String toMegabytes(long bytes) {
+			return String.format("%.1f", (double) bytes / MEGABYTE);
+		}
+	}
+
+	/**
+	 * Writes the bytes that are read to a file channel and to a digest,
+	 * reports them to a monitor and aborts reading once the monitor is
+	 * canceled. Bytes are written in large blocks. Bytes that are skipped
+	 * are read and written, too. Closing the stream does not flush the
+	 * remaining bytes, a failed transfer is not completed.
+	 */
+	private static class CopyingInputStream extends FilterInputStream {
+
+		private final FileChannel out;
+		private final MessageDigest digest;
+		private final IProgressMonitor monitor;
+		private final Progress progress;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private boolean closed;
+
+		private CopyingInputStream(InputStream in, FileChannel out, MessageDigest digest, IProgressMonitor monitor) {
+			super(in);
+			this.out = out;
+			this.digest = digest;
+			this.monitor = monitor;
+			this.progress = new Progress(-1, monitor);
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			int read = 0;
+			while ((read = read(single, 0, 1)) == 0) {
+			}
+			return read == -1 ? -1 : single[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			if (monitor.isCanceled()) {
+				throw new InterruptedIOException("Saving the snapshot was canceled");
+			}
+			int read = super.read(bytes, offset, length);
+			if (read > 0) {
+				copy(bytes, offset, read);
+				progress.worked(read);
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long count) throws IOException {
+			byte[] skipped = new byte[(int) Math.min(count, BUFFER_SIZE)];
+			int read = read(skipped, 0, skipped.length);
+			return Math.max(0, read);
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			this.closed = true;
+			super.close();
+		}
+
+		private void copy(byte[] bytes, int offset, int length) throws IOException {
+			while (length > 0) {
+				int chunk = Math.min(length, buffer.remaining());
+				buffer.put(bytes, offset, chunk);
+				offset += chunk;
+				length -= chunk;
+				if (!buffer.hasRemaining()) {
+					flush();
+				}
+			}
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+			digest.update(buffer.duplicate());
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Reports the bytes that are read to a monitor and aborts reading once
+	 * the monitor is canceled. The gear reads the snapshot byte by byte,
+	 * progress is thus checked in blocks only.
+	 */
+	private static class ProgressInputStream extends FilterInputStream {
+
+		private static final int BLOCK_SIZE = 64 * 1024;
+
+		private final Progress progress;
+		private final IProgressMonitor monitor;
+		private int unreported;
+
+		private ProgressInputStream(InputStream in, long total, IProgressMonitor monitor) {
+			super(in);
+			this.progress = new Progress(total, monitor);
+			this.monitor = monitor;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int read = super.read();
+			if (read != -1) {
+				worked(1);
+			}
+			return read;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			if (read > 0) {
+				worked(read);
+			}
+			return read;
+		}
+
+		private void worked(int bytes) throws IOException {
+			this.unreported += bytes;
+			if (unreported < BLOCK_SIZE) {
+				return;
+			}
+			if (monitor.isCanceled()) {
+				throw new InterruptedIOException("Restoring the snapshot was canceled");
+			}
+			progress.worked(unreported);
+			this.unreported = 0;
+		}
+	}
+}
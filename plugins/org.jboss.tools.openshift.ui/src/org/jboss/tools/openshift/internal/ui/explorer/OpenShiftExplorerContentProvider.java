@@ -10,12 +10,17 @@ package org.jboss.tools.openshift.internal.ui.explorer;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.databinding.observable.Diffs;
 import org.eclipse.core.databinding.observable.list.ListDiff;
 import org.eclipse.core.databinding.observable.list.ListDiffVisitor;
+import org.eclipse.jface.viewers.ITreeViewerListener;
+import org.eclipse.jface.viewers.TreeExpansionEvent;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
 import org.jboss.tools.openshift.common.core.IRefreshable;
 import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistry;
 import org.jboss.tools.openshift.common.core.connection.IConnection;
@@ -48,7 +53,35 @@ public class OpenShiftExplorerContentProvider extends BaseExplorerContentProvide
 	};
 	
 	private Map<IProject, List<ResourceGrouping>> groupMap = new HashMap<IProject, List<ResourceGrouping>>();
-	
+	/** the resources that are displayed and thus kept in sync, by element (connection or grouping) */
+	private Map<Object, Subscription> subscriptions = new HashMap<Object, Subscription>();
+	private TreeViewer treeViewer;
+	private ITreeViewerListener expansionListener = new ExpansionListener();
+
+	@Override
+	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+		super.inputChanged(viewer, oldInput, newInput);
+		if (treeViewer == viewer) {
+			return;
+		}
+		if (treeViewer != null) {
+			treeViewer.removeTreeListener(expansionListener);
+		}
+		this.treeViewer = (TreeViewer) viewer;
+		if (treeViewer != null) {
+			treeViewer.addTreeListener(expansionListener);
+		}
+	}
+
+	@Override
+	public void dispose() {
+		if (treeViewer != null) {
+			treeViewer.removeTreeListener(expansionListener);
+		}
+		unsubscribe(null);
+		super.dispose();
+	}
+
 	@Override
 	protected void handleConnectionChanged(IConnection connection, String property, Object oldValue, Object newValue) {
 		if(!(connection instanceof Connection))return;
@@ -66,6 +99,8 @@ public class OpenShiftExplorerContentProvider extends BaseExplorerContentProvide
 			}else {
 				refreshViewer(newValue);
 			}
+		}else if(ConnectionProperties.PROPERTY_RESOURCES.equals(property)) {
+			handleResourcesChanged(oldValue, newValue);
 		}else if(ConnectionProperties.PROPERTY_PROJECTS.equals(property)){
 			handleProjectChanges((Connection) connection, oldValue, newValue);
 		}else{
@@ -73,6 +108,37 @@ public class OpenShiftExplorerContentProvider extends BaseExplorerContentProvide
 		}
 	}
 	
+	/**
+	 * Handles the change of several resources of the same kind within the
+	 * same project. Refreshes the grouping once if resources were added or
+	 * removed, refreshes the changed resources otherwise.
+	 */
+	@SuppressWarnings("unchecked")
+	private void handleResourcesChanged(Object oldValue, Object newValue) {
+		List<IResource> oldResources = (List<IResource>) oldValue;
+		List<IResource> newResources = (List<IResource>) newValue;
+		if (oldResources == null
+				|| oldResources.size() != newResources.size()) {
+			List<IResource> resources = newResources.isEmpty() ? oldResources : newResources;
+			if (resources == null
+					|| resources.isEmpty()) {
+				return;
+			}
+			IResource resource = resources.get(0);
+			List<ResourceGrouping> groups = groupMap.get(resource.getProject());
+			refreshGrouping(groups, resource.getKind());
+			ResourceGrouping group = getResourceGrouping(groups, resource.getKind());
+			if (group != null
+					&& (oldResources == null || oldResources.isEmpty())) {
+				expand(group, 1);
+			}
+		} else {
+			for (IResource resource : newResources) {
+				refreshViewer(resource);
+			}
+		}
+	}
+
 	//TODO: Handle updates to a project when needed.  Back-end doesnt support edit of resources(most?) now
 	@SuppressWarnings("unchecked")
 	private void handleProjectChanges(Connection connection, Object oldValue, Object newValue) {
@@ -88,6 +154,7 @@ public class OpenShiftExplorerContentProvider extends BaseExplorerContentProvide
 				IProject project = (IProject) element;
 				removed.add(project);
 				groupMap.remove(project);
+				unsubscribe(project);
 			}
 			
 			@Override
@@ -103,6 +170,7 @@ public class OpenShiftExplorerContentProvider extends BaseExplorerContentProvide
 	@Override
 	protected void handleConnectionRemoved(IConnection connection) {
 		if(!(connection instanceof Connection))return;
+		unsubscribe(connection);
 		for (IProject project : groupMap.keySet()) {
 			Connection conn = ConnectionsRegistryUtil.getConnectionFor(project);
 			if(connection.equals(conn)) {
@@ -163,6 +231,7 @@ public class OpenShiftExplorerContentProvider extends BaseExplorerContentProvide
 		try{
 			if (parentElement instanceof Connection) {
 				Connection connection = (Connection) parentElement;
+				subscribe(connection);
 				return connection.getResources(ResourceKind.PROJECT).toArray();
 			} else if (parentElement instanceof IProject) {
 				IProject project = (IProject) parentElement;
@@ -178,10 +247,12 @@ public class OpenShiftExplorerContentProvider extends BaseExplorerContentProvide
 					groups.add(grouping);
 				}
 				groupMap.put(project, groups);
+				prefetchResources(project);
 				return groups.toArray();
 			} else if (parentElement instanceof ResourceGrouping) {
 				ResourceGrouping group = (ResourceGrouping) parentElement;
-				return group.getProject().getResources(group.getKind()).toArray();
+				subscribe(group);
+				return getResources(group.getKind(), group.getProject()).toArray();
 			}
 		} catch (OpenShiftException e) {
 			addException(parentElement, e);
@@ -189,6 +260,133 @@ public class OpenShiftExplorerContentProvider extends BaseExplorerContentProvide
 		return new Object[0];
 	}
 
+	/**
+	 * Starts loading all the resource groupings of the given project in
+	 * parallel so that expanding the groupings doesn't wait for each kind to
+	 * be listed one after the other.
+	 */
+	private void prefetchResources(IProject project) {
+		Connection connection = ConnectionsRegistryUtil.safeGetConnectionFor(project);
+		if (connection != null) {
+			connection.getResourceCache().prefetch(project.getName(), groupings);
+		}
+	}
+
+	/**
+	 * Returns the resources of the given kind within the given project. Uses
+	 * the (cached) resources of the connection if the project belongs to a
+	 * known connection, queries the project otherwise.
+	 */
+	private List<IResource> getResources(String kind, IProject project) {
+		Connection connection = ConnectionsRegistryUtil.safeGetConnectionFor(project);
+		if (connection == null) {
+			return project.getResources(kind);
+		}
+		return connection.getResources(kind, project.getName());
+	}
+
+	/**
+	 * Keeps the resources that the given connection or grouping displays in
+	 * sync with the server.
+	 */
+	private void subscribe(Object element) {
+		Subscription subscription = null;
+		if (element instanceof Connection) {
+			subscription = new Subscription((Connection) element, ResourceKind.PROJECT, null);
+		} else if (element instanceof ResourceGrouping) {
+			ResourceGrouping group = (ResourceGrouping) element;
+			Connection connection = ConnectionsRegistryUtil.safeGetConnectionFor(group.getProject());
+			if (connection == null) {
+				return;
+			}
+			subscription = new Subscription(connection, group.getKind(), group.getProject().getName());
+		} else {
+			return;
+		}
+		synchronized (subscriptions) {
+			if (subscriptions.containsKey(element)) {
+				return;
+			}
+			subscriptions.put(element, subscription);
+		}
+		subscription.connection.getResourceCache().subscribe(subscription.kind, subscription.namespace);
+	}
+
+	/**
+	 * Stops keeping the resources displayed by the given element and its
+	 * children in sync with the server. Stops all subscriptions if the given
+	 * element is <code>null</code>.
+	 */
+	private void unsubscribe(Object element) {
+		List<Subscription> removed = new ArrayList<Subscription>();
+		synchronized (subscriptions) {
+			for (Iterator<Map.Entry<Object, Subscription>> it = subscriptions.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<Object, Subscription> entry = it.next();
+				if (element == null
+						|| element.equals(entry.getKey())
+						|| element.equals(entry.getValue().connection)
+						|| (entry.getKey() instanceof ResourceGrouping
+								&& element.equals(((ResourceGrouping) entry.getKey()).getProject()))) {
+					removed.add(entry.getValue());
+					it.remove();
+				}
+			}
+		}
+		for (Subscription subscription : removed) {
+			subscription.connection.getResourceCache().unsubscribe(subscription.kind, subscription.namespace);
+		}
+	}
+
+	/**
+	 * Subscribes the given element and its children that are expanded
+	 */
+	private void subscribeExpanded(Object element) {
+		subscribe(element);
+		if (element instanceof Connection) {
+			for (IProject project : new ArrayList<IProject>(groupMap.keySet())) {
+				if (element.equals(ConnectionsRegistryUtil.safeGetConnectionFor(project))
+						&& treeViewer.getExpandedState(project)) {
+					subscribeExpanded(project);
+				}
+			}
+		} else if (element instanceof IProject) {
+			List<ResourceGrouping> groups = groupMap.get(element);
+			if (groups != null) {
+				for (ResourceGrouping group : groups) {
+					if (treeViewer.getExpandedState(group)) {
+						subscribe(group);
+					}
+				}
+			}
+		}
+	}
+
+	private class ExpansionListener implements ITreeViewerListener {
+
+		@Override
+		public void treeExpanded(TreeExpansionEvent event) {
+			subscribeExpanded(event.getElement());
+		}
+
+		@Override
+		public void treeCollapsed(TreeExpansionEvent event) {
+			unsubscribe(event.getElement());
+		}
+	}
+
+	private static class Subscription {
+
+		private final Connection connection;
+		private final String kind;
+		private final String namespace;
+
+		private Subscription(Connection connection, String kind, String namespace) {
+			this.connection = connection;
+			this.kind = kind;
+			this.namespace = namespace;
+		}
+	}
+
 	@Override
 	public boolean hasChildren(Object element) {
 		return element instanceof ConnectionsRegistry
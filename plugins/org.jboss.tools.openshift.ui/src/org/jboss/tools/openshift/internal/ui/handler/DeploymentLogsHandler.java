@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.internal.ui.handler;
+
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.ui.handlers.HandlerUtil;
+import org.jboss.tools.openshift.internal.common.ui.utils.UIUtils;
+import org.jboss.tools.openshift.internal.ui.job.DeploymentLogsJob;
+
+import com.openshift.restclient.model.IDeploymentConfig;
+import com.openshift.restclient.model.IReplicationController;
+
+/**
+ * Follows the logs of all the pods of the selected replication controller or
+ * deployment config in a single console.
+ */
+public class DeploymentLogsHandler extends AbstractOpenShiftCliHandler {
+
+	@Override
+	protected void handleEvent(ExecutionEvent event){
+		ISelection selection = HandlerUtil.getCurrentSelection(event);
+		IReplicationController rc = UIUtils.getFirstElement(selection, IReplicationController.class);
+		if(rc != null) {
+			new DeploymentLogsJob(rc).schedule();
+			return;
+		}
+		IDeploymentConfig dc = UIUtils.getFirstElement(selection, IDeploymentConfig.class);
+		if(dc != null) {
+			new DeploymentLogsJob(dc).schedule();
+			return;
+		}
+		MessageDialog.openError(HandlerUtil.getActiveShell(event), "No deployment selected", 
+				"No replication controller or deployment config was selected to retrieve the logs of its pods.");
+	}
+}
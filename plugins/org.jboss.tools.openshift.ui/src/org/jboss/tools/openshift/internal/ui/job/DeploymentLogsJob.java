@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.internal.ui.job;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.console.IConsole;
+import org.eclipse.ui.console.IConsoleListener;
+import org.eclipse.ui.console.MessageConsole;
+import org.eclipse.ui.console.MessageConsoleStream;
+import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistrySingleton;
+import org.jboss.tools.openshift.common.core.connection.IConnection;
+import org.jboss.tools.openshift.common.core.connection.IConnectionsRegistryListener;
+import org.jboss.tools.openshift.core.connection.Connection;
+import org.jboss.tools.openshift.core.connection.ConnectionProperties;
+import org.jboss.tools.openshift.core.connection.ConnectionsRegistryUtil;
+import org.jboss.tools.openshift.core.connection.ResourceCache;
+import org.jboss.tools.openshift.internal.common.core.job.AbstractDelegatingMonitorJob;
+import org.jboss.tools.openshift.internal.common.ui.console.ConsoleStreamPipe;
+import org.jboss.tools.openshift.internal.common.ui.console.ConsoleUtils;
+import org.jboss.tools.openshift.internal.ui.OpenShiftUIActivator;
+
+import com.openshift.restclient.OpenShiftException;
+import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.capability.CapabilityVisitor;
+import com.openshift.restclient.capability.resources.IPodLogRetrieval;
+import com.openshift.restclient.model.IDeploymentConfig;
+import com.openshift.restclient.model.IPod;
+import com.openshift.restclient.model.IReplicationController;
+import com.openshift.restclient.model.IResource;
+
+/**
+ * Follows the logs of all the pods of a replication controller or deployment
+ * config in a single console. Each pod is read by its own thread over its own
+ * log request. Each line is tagged with the name of the pod it originates from
+ * and lines are written in the order they arrive, they are not ordered by
+ * their timestamps. Pods join and leave as they are added, started or
+ * removed. The pods are watched through the {@link ResourceCache} of the
+ * connection, changes are thus noticed with its next synchronization, up to
+ * {@link ResourceCache#RESYNC_INTERVAL} late.
+ */
+public class DeploymentLogsJob extends AbstractDelegatingMonitorJob {
+
+	private static final String RUNNING = "Running";
+	private static final ConcurrentMap<String, DeploymentLogs> REGISTRY = new ConcurrentHashMap<String, DeploymentLogs>();
+
+	private final IResource deployment;
+	private final Map<String, String> selector;
+
+	public DeploymentLogsJob(IReplicationController rc) {
+		this(rc, rc.getReplicaSelector());
+	}
+
+	public DeploymentLogsJob(IDeploymentConfig dc) {
+		this(dc, dc.getReplicaSelector());
+	}
+
+	private DeploymentLogsJob(IResource deployment, Map<String, String> selector) {
+		super("FollowDeploymentLogsJob");
+		this.deployment = deployment;
+		this.selector = selector;
+	}
+
+	@Override
+	protected IStatus doRun(IProgressMonitor monitor) {
+		try {
+			monitor.worked(IProgressMonitor.UNKNOWN);
+			final MessageConsole console = showConsole();
+			if(REGISTRY.containsKey(console.getName())) {
+				return Status.OK_STATUS;
+			}
+			Connection connection = ConnectionsRegistryUtil.safeGetConnectionFor(deployment);
+			if(connection == null) {
+				return new Status(IStatus.ERROR, OpenShiftUIActivator.PLUGIN_ID,
+						NLS.bind("Could not find the connection for {0}", deployment.getName()));
+			}
+			DeploymentLogs logs = new DeploymentLogs(connection, console);
+			if(REGISTRY.putIfAbsent(console.getName(), logs) != null) {
+				// followed by another job already
+				return Status.OK_STATUS;
+			}
+			boolean started = false;
+			try {
+				List<IPod> pods = connection.getResources(ResourceKind.POD, deployment.getNamespace());
+				logs.start(pods);
+				started = true;
+			} finally {
+				if(!started) {
+					logs.stop();
+				}
+			}
+		} catch (OpenShiftException e) {
+			return new Status(IStatus.ERROR, OpenShiftUIActivator.PLUGIN_ID,
+					NLS.bind("Could not follow the logs of {0}", deployment.getName()), e);
+		} finally {
+			monitor.done();
+		}
+		return Status.OK_STATUS;
+	}
+
+	private MessageConsole showConsole() {
+		final MessageConsole console = ConsoleUtils.findMessageConsole(getMessageConsoleName());
+		ConsoleUtils.displayConsoleView(console);
+		return console;
+	}
+
+	private String getMessageConsoleName() {
+		return NLS.bind("{0}\\{1} deployment log", deployment.getNamespace(), deployment.getName());
+	}
+
+	/**
+	 * The pods that are followed and the single console stream that their
+	 * logs are merged into.
+	 */
+	private class DeploymentLogs implements IConnectionsRegistryListener, IConsoleListener {
+
+		private final Connection connection;
+		private final MessageConsole console;
+		private final MessageConsoleStream stream;
+		private final ConcurrentMap<String, PodLogReader> readers = new ConcurrentHashMap<String, PodLogReader>();
+		private volatile boolean started;
+
+		DeploymentLogs(Connection connection, MessageConsole console) {
+			this.connection = connection;
+			this.console = console;
+			this.stream = console.newMessageStream();
+		}
+
+		void start(Collection<IPod> pods) {
+			this.started = true;
+			ConsoleUtils.registerConsoleListener(this);
+			ConnectionsRegistrySingleton.getInstance().addListener(this);
+			// keep the pods in sync so that they join and leave
+			connection.getResourceCache().subscribe(ResourceKind.POD, deployment.getNamespace());
+			for (IPod pod : pods) {
+				join(pod);
+			}
+		}
+
+		void stop() {
+			if(!REGISTRY.remove(console.getName(), this)
+					|| !started) {
+				// stopped already or never started
+				return;
+			}
+			ConnectionsRegistrySingleton.getInstance().removeListener(this);
+			ConsoleUtils.deregisterConsoleListener(this);
+			connection.getResourceCache().unsubscribe(ResourceKind.POD, deployment.getNamespace());
+			for (PodLogReader reader : new ArrayList<PodLogReader>(readers.values())) {
+				reader.stop();
+			}
+			readers.clear();
+		}
+
+		/**
+		 * Joins the given pod in a job. Starting to follow a log launches an
+		 * external process, which must not happen while the connections
+		 * registry notifies its listeners.
+		 */
+		private void scheduleJoin(final IPod pod) {
+			if(!isJoinable(pod)) {
+				return;
+			}
+			Job job = new Job(NLS.bind("Following the log of pod {0}", pod.getName())) {
+
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					DeploymentLogs.this.join(pod);
+					return Status.OK_STATUS;
+				}
+			};
+			job.setSystem(true);
+			job.schedule();
+		}
+
+		private void join(final IPod pod) {
+			if(!isJoinable(pod)) {
+				return;
+			}
+			try {
+				PodLogReader reader = pod.accept(new CapabilityVisitor<IPodLogRetrieval, PodLogReader>() {
+
+					@Override
+					public PodLogReader visit(IPodLogRetrieval capability) {
+						return new PodLogReader(capability, pod.getName(), DeploymentLogs.this);
+					}
+				}, null);
+				if(reader == null) {
+					return;
+				}
+				if(readers.putIfAbsent(pod.getName(), reader) == null) {
+					writeLine(NLS.bind("[{0}] joined", pod.getName()));
+					reader.start();
+				} else {
+					reader.stop();
+				}
+			} catch (OpenShiftException e) {
+				writeLine(NLS.bind("[{0}] {1}", pod.getName(), e.getMessage()));
+			}
+		}
+
+		private boolean isJoinable(IPod pod) {
+			return isMember(pod)
+					&& RUNNING.equals(pod.getStatus())
+					&& !readers.containsKey(pod.getName())
+					&& REGISTRY.get(console.getName()) == this;
+		}
+
+		private void leave(IPod pod) {
+			PodLogReader reader = readers.remove(pod.getName());
+			if(reader != null) {
+				reader.stop();
+				writeLine(NLS.bind("[{0}] left", pod.getName()));
+			}
+		}
+
+		private boolean isMember(IPod pod) {
+			if(pod == null
+					|| selector == null
+					|| selector.isEmpty()
+					|| !deployment.getNamespace().equals(pod.getNamespace())) {
+				return false;
+			}
+			Map<String, String> labels = pod.getLabels();
+			return labels != null
+					&& labels.entrySet().containsAll(selector.entrySet());
+		}
+
+		/**
+		 * Writes the given (tagged, complete) lines to the console. Writes of
+		 * the pod readers are serialized so that lines never interleave.
+		 */
+		void write(String lines) throws IOException {
+			synchronized (stream) {
+				stream.write(lines);
+			}
+		}
+
+		private void writeLine(String line) {
+			try {
+				write(line + "\n");
+			} catch (IOException e) {
+				// console was closed
+			}
+		}
+
+		void onReaderDone(String podName, PodLogReader reader) {
+			readers.remove(podName, reader);
+		}
+
+		@Override
+		public void connectionChanged(IConnection connection, String property, Object oldValue, Object newValue) {
+			if(this.connection != connection) {
+				return;
+			}
+			if(ConnectionProperties.PROPERTY_RESOURCE.equals(property)) {
+				onPodChanged(oldValue, newValue);
+			} else if(ConnectionProperties.PROPERTY_RESOURCES.equals(property)
+					&& newValue instanceof Collection) {
+				for (Object resource : (Collection<?>) newValue) {
+					onPodChanged(null, resource);
+				}
+			}
+		}
+
+		private void onPodChanged(Object oldValue, Object newValue) {
+			if(newValue instanceof IPod) {
+				IPod pod = (IPod) newValue;
+				if(RUNNING.equals(pod.getStatus())) {
+					scheduleJoin(pod);
+				} else if(isMember(pod)) {
+					leave(pod);
+				}
+			} else if(newValue == null
+					&& oldValue instanceof IPod
+					&& isMember((IPod) oldValue)) {
+				leave((IPod) oldValue);
+			}
+		}
+
+		@Override
+		public void connectionAdded(IConnection connection) {
+		}
+
+		@Override
+		public void connectionRemoved(IConnection connection) {
+			if(this.connection == connection) {
+				stop();
+			}
+		}
+
+		@Override
+		public void consolesRemoved(IConsole[] consoles) {
+			for (IConsole removed : consoles) {
+				if(removed.getName().equals(console.getName())) {
+					stop();
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void consolesAdded(IConsole[] consoles) {
+		}
+	}
+
+	/**
+	 * Reads the log of a single pod in its own thread, tags each line with the
+	 * name of the pod and writes complete lines to the merged console stream.
+	 */
+	private static class PodLogReader extends ConsoleStreamPipe {
+
+		private final IPodLogRetrieval capability;
+		private final DeploymentLogs logs;
+		private final String podName;
+		private final String prefix;
+		private final StringBuilder partialLine = new StringBuilder();
+
+		PodLogReader(IPodLogRetrieval capability, String podName, DeploymentLogs logs) {
+			super(capability.getLogs(true), logs.stream);
+			this.capability = capability;
+			this.logs = logs;
+			this.podName = podName;
+			this.prefix = "[" + podName + "] ";
+		}
+
+		@Override
+		public void stop() {
+			super.stop();
+			capability.stop();
+		}
+
+		@Override
+		protected void write(String text) throws IOException {
+			StringBuilder lines = new StringBuilder(text.length() + 16 * prefix.length());
+			int start = 0;
+			int end = -1;
+			while ((end = text.indexOf('\n', start)) != -1) {
+				lines.append(prefix).append(partialLine).append(text, start, end + 1);
+				partialLine.setLength(0);
+				start = end + 1;
+			}
+			partialLine.append(text, start, text.length());
+			if(lines.length() > 0) {
+				logs.write(lines.toString());
+			}
+		}
+
+		@Override
+		protected void onError(Exception e) {
+			logs.writeLine(prefix + e.getMessage());
+		}
+
+		@Override
+		protected void onDone() {
+			if(partialLine.length() > 0) {
+				logs.writeLine(prefix + partialLine);
+			}
+			logs.onReaderDone(podName, this);
+		}
+	}
+}
@@ -10,11 +10,9 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.internal.ui.job;
 
-import java.io.BufferedInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -25,7 +23,7 @@ import org.eclipse.ui.console.IConsoleListener;
 import org.eclipse.ui.console.MessageConsole;
 import org.eclipse.ui.console.MessageConsoleStream;
 import org.jboss.tools.openshift.internal.common.core.job.AbstractDelegatingMonitorJob;
-import org.jboss.tools.openshift.internal.common.ui.OpenShiftCommonUIActivator;
+import org.jboss.tools.openshift.internal.common.ui.console.ConsoleStreamPipe;
 import org.jboss.tools.openshift.internal.common.ui.console.ConsoleUtils;
 
 import com.openshift.restclient.OpenShiftException;
@@ -39,9 +37,8 @@ import com.openshift.restclient.model.IPod;
  *
  */
 public class PodLogsJob extends AbstractDelegatingMonitorJob {
-	private static final String DOCUMENT_IS_CLOSED = "Document is closed";
 
-	private static final Map<IPod, ConsoleStreamPipe> REGISTRY = new HashMap<IPod, ConsoleStreamPipe>();
+	private static final ConcurrentMap<IPod, PodLogsPipe> REGISTRY = new ConcurrentHashMap<IPod, PodLogsPipe>();
 
 
 	private IPod pod;
@@ -58,25 +55,49 @@ public class PodLogsJob extends AbstractDelegatingMonitorJob {
 			if(REGISTRY.containsKey(pod)) {
 				showConsole();
 			}else {
-				ConsoleStreamPipe pipe = pod.accept(new CapabilityVisitor<IPodLogRetrieval, ConsoleStreamPipe>() {
+				pod.accept(new CapabilityVisitor<IPodLogRetrieval, PodLogsPipe>() {
 
 					@Override
-					public ConsoleStreamPipe visit(final IPodLogRetrieval capability) {
-						ConsoleStreamPipe consoleStream = new ConsoleStreamPipe(capability);
-						new Thread(consoleStream).start();
-						return consoleStream;
+					public PodLogsPipe visit(final IPodLogRetrieval capability) {
+						return startPipe(capability);
 					}
 
 				}, null);
-				if(pipe != null) {
-					REGISTRY.put(pod, pipe);
-				}
 			}
 		}finally {
 			monitor.done();
 		}
 		return Status.OK_STATUS;
 	}
+
+	/**
+	 * Starts piping the log of the pod into its console. The pipe is
+	 * registered before it is started so that it can deregister itself once
+	 * the log ends. Does not start a pipe if another job registered one for
+	 * the same pod in the meantime.
+	 */
+	private PodLogsPipe startPipe(IPodLogRetrieval capability) {
+		final MessageConsole console = showConsole();
+		final MessageConsoleStream stream = console.newMessageStream();
+		PodLogsPipe pipe = null;
+		try {
+			pipe = new PodLogsPipe(capability, stream);
+			if (REGISTRY.putIfAbsent(pod, pipe) != null) {
+				// followed by another job already
+				pipe.stop();
+				return null;
+			}
+			ConsoleUtils.registerConsoleListener(new ConsoleListener(pipe));
+			pipe.start();
+			return pipe;
+		} catch (OpenShiftException | RejectedExecutionException e) {
+			if (pipe != null) {
+				REGISTRY.remove(pod, pipe);
+			}
+			stream.println(e.getMessage());
+			return null;
+		}
+	}
 	
 	private MessageConsole showConsole() {
 		final MessageConsole console = ConsoleUtils.findMessageConsole(getMessageConsoleName());
@@ -88,49 +109,36 @@ public class PodLogsJob extends AbstractDelegatingMonitorJob {
 		return NLS.bind("{0}\\{1} log", pod.getNamespace(), pod.getName());
 	}	
 	
-	private class ConsoleStreamPipe implements Runnable {
+	/**
+	 * Pipes the (followed) log of the pod into its console.
+	 */
+	private class PodLogsPipe extends ConsoleStreamPipe {
 		
 		private IPodLogRetrieval capability;
-		private boolean running = true;
 		
-		ConsoleStreamPipe(IPodLogRetrieval capability){
+		PodLogsPipe(IPodLogRetrieval capability, MessageConsoleStream stream){
+			super(capability.getLogs(true), stream);
 			this.capability = capability;
 		}
 		
+		@Override
 		public void stop() {
-			this.running = false;
+			super.stop();
 			capability.stop();
 		}
-		
+
 		@Override
-		public void run() {
-			ConsoleUtils.registerConsoleListener(new ConsoleListener(this));
-			final MessageConsole console = showConsole();
-			final MessageConsoleStream stream = console.newMessageStream();
-			try {
-				final InputStream logs = new BufferedInputStream(capability.getLogs(true));
-				int c;
-				while(running && (c = logs.read()) != -1){
-					if(!stream.isClosed()) {
-						stream.write(c);
-					}
-				}
-			}catch (OpenShiftException e) {
-				stream.println(e.getMessage());
-			} catch (IOException e) {
-				if(!DOCUMENT_IS_CLOSED.equals(e.getMessage())) {
-					OpenShiftCommonUIActivator.log("Exception reading pod log inputstream", e);
-				}
-			}
+		protected void onDone() {
+			REGISTRY.remove(pod, this);
 		}
 	}
 
 	
 	private class ConsoleListener implements IConsoleListener{
 		
-		private ConsoleStreamPipe pipe;
+		private PodLogsPipe pipe;
 		
-		protected ConsoleListener(ConsoleStreamPipe pipe) {
+		protected ConsoleListener(PodLogsPipe pipe) {
 			this.pipe = pipe;
 		}
 		
@@ -141,7 +149,7 @@ public class PodLogsJob extends AbstractDelegatingMonitorJob {
 				if(console.getName().equals(messageConsoleName)) {
 					try {
 						pipe.stop();
-						REGISTRY.remove(pod);
+						REGISTRY.remove(pod, pipe);
 						return;
 					}finally {
 						ConsoleUtils.deregisterConsoleListener(this);
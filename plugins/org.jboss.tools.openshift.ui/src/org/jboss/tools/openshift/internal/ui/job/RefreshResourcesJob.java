@@ -10,8 +10,16 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.internal.ui.job;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.commons.lang.ObjectUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -19,6 +27,7 @@ import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistrySingl
 import org.jboss.tools.openshift.core.connection.Connection;
 import org.jboss.tools.openshift.core.connection.ConnectionProperties;
 import org.jboss.tools.openshift.core.connection.ConnectionsRegistryUtil;
+import org.jboss.tools.openshift.core.connection.ResourceCache;
 import org.jboss.tools.openshift.internal.common.core.job.AbstractDelegatingMonitorJob;
 import org.jboss.tools.openshift.internal.ui.OpenShiftUIActivator;
 
@@ -26,7 +35,11 @@ import com.openshift.restclient.ResourceKind;
 import com.openshift.restclient.model.IResource;
 
 /**
- * Job to refresh a list of resources from a project/OpenShift namespace
+ * Job to refresh a list of resources from a project/OpenShift namespace.
+ * The resources are grouped by connection, namespace and kind. Each group
+ * is refreshed with a single request and reported in a single 
+ * {@link ConnectionProperties#PROPERTY_RESOURCES} change event. Refreshing
+ * a project also refreshes the kinds of resources that are cached for it.
  * 
  * @author jeff.cantrill
  */
@@ -38,26 +51,28 @@ public class RefreshResourcesJob extends AbstractDelegatingMonitorJob {
 	public RefreshResourcesJob(IResourcesModel model, boolean resourcesAdded) {
 		super("Refresh Resources Job");
 		this.model = model;
-		this.resourcesAdded = true;
+		this.resourcesAdded = resourcesAdded;
 	}
 
 
 	@Override
 	protected IStatus doRun(IProgressMonitor monitor) {
 		try {
-			monitor.beginTask("Refreshing OpenShift resources...", IProgressMonitor.UNKNOWN);
 			Collection<IResource> resources = model.getResources();
 			if(resources == null || resources.isEmpty()) return Status.OK_STATUS;
-			for (IResource resource : resources) {
-				if(ResourceKind.STATUS.equals(resource.getKind())) {
-					continue;
+			Collection<ResourceGroup> groups = groupResources(resources);
+			monitor.beginTask("Refreshing OpenShift resources...", groups.size());
+			for (ResourceGroup group : groups) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
 				}
-				Connection connection = ConnectionsRegistryUtil.safeGetConnectionFor(resource);
-				if(connection != null) {
-					IResource newValue = ((Connection)connection).getResource(resource);
-					IResource oldValue = resourcesAdded ? null : resource;
-					ConnectionsRegistrySingleton.getInstance().fireConnectionChanged(connection, ConnectionProperties.PROPERTY_RESOURCE, oldValue, newValue);
+				List<IResource> newValue = group.refresh();
+				List<IResource> oldValue = resourcesAdded ? Collections.<IResource>emptyList() : group.resources;
+				ConnectionsRegistrySingleton.getInstance().fireConnectionChanged(group.connection, ConnectionProperties.PROPERTY_RESOURCES, oldValue, newValue);
+				if (ResourceKind.PROJECT.equals(group.kind)) {
+					refreshProjectResources(group, monitor);
 				}
+				monitor.worked(1);
 			}
 		}catch(Exception e) {
 			return new Status(Status.ERROR, OpenShiftUIActivator.PLUGIN_ID, "Exception refreshing resources", e);
@@ -66,4 +81,105 @@ public class RefreshResourcesJob extends AbstractDelegatingMonitorJob {
 		}
 		return Status.OK_STATUS;
 	}
+
+	/**
+	 * Lists the kinds of resources that are cached for the projects of the
+	 * given group again.
+	 */
+	private void refreshProjectResources(ResourceGroup group, IProgressMonitor monitor) {
+		ResourceCache cache = group.connection.getResourceCache();
+		for (IResource project : group.resources) {
+			for (String kind : cache.getKinds(project.getName())) {
+				if (monitor.isCanceled()) {
+					return;
+				}
+				List<IResource> oldValue = cache.get(kind, project.getName());
+				List<IResource> newValue = group.connection.refreshResources(kind, project.getName());
+				ConnectionsRegistrySingleton.getInstance().fireConnectionChanged(group.connection, ConnectionProperties.PROPERTY_RESOURCES, 
+						oldValue == null ? Collections.<IResource>emptyList() : oldValue, newValue);
+			}
+		}
+	}
+
+	private Collection<ResourceGroup> groupResources(Collection<IResource> resources) {
+		Map<ResourceGroup, ResourceGroup> groups = new LinkedHashMap<ResourceGroup, ResourceGroup>();
+		for (IResource resource : resources) {
+			if(ResourceKind.STATUS.equals(resource.getKind())) {
+				continue;
+			}
+			Connection connection = ConnectionsRegistryUtil.safeGetConnectionFor(resource);
+			if(connection == null) {
+				continue;
+			}
+			ResourceGroup key = new ResourceGroup(connection, resource.getNamespace(), resource.getKind());
+			ResourceGroup group = groups.get(key);
+			if (group == null) {
+				groups.put(key, group = key);
+			}
+			group.resources.add(resource);
+		}
+		return groups.values();
+	}
+
+	/**
+	 * Resources of the same kind within the same namespace of a connection.
+	 */
+	private static class ResourceGroup {
+
+		private final Connection connection;
+		private final String namespace;
+		private final String kind;
+		private final List<IResource> resources = new ArrayList<IResource>();
+
+		private ResourceGroup(Connection connection, String namespace, String kind) {
+			this.connection = connection;
+			this.namespace = namespace;
+			this.kind = kind;
+		}
+
+		/**
+		 * Retrieves the resources of this group from the server. A single
+		 * resource is retrieved directly, several resources are listed at
+		 * once and filtered by their names.
+		 */
+		private List<IResource> refresh() {
+			if (resources.size() == 1) {
+				IResource resource = connection.getResource(resources.get(0));
+				return Collections.singletonList(resource);
+			}
+			Set<String> names = new HashSet<String>();
+			for (IResource resource : resources) {
+				names.add(resource.getName());
+			}
+			List<IResource> refreshed = new ArrayList<IResource>();
+			for (IResource resource : connection.<IResource>refreshResources(kind, namespace)) {
+				if (names.contains(resource.getName())) {
+					refreshed.add(resource);
+				}
+			}
+			return refreshed;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((connection == null) ? 0 : connection.hashCode());
+			result = prime * result + ((kind == null) ? 0 : kind.hashCode());
+			result = prime * result + ((namespace == null) ? 0 : namespace.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof ResourceGroup))
+				return false;
+			ResourceGroup other = (ResourceGroup) obj;
+			return ObjectUtils.equals(connection, other.connection)
+					&& ObjectUtils.equals(namespace, other.namespace)
+					&& ObjectUtils.equals(kind, other.kind);
+		}
+	}
 }
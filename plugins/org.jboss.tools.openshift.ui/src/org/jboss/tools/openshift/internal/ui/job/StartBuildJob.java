@@ -56,6 +56,8 @@ public class StartBuildJob extends AbstractDelegatingMonitorJob {
 				return new Status(Status.INFO, OpenShiftUIActivator.PLUGIN_ID, "Manually triggering builds is unsupported");
 			}
 			Connection connection = ConnectionsRegistryUtil.getConnectionFor(buildsource);
+			// triggered via the capability, the connection doesn't know about the build yet
+			connection.getResourceCache().update(build);
 			ConnectionsRegistrySingleton.getInstance().fireConnectionChanged(
 					connection, 
 					ConnectionProperties.PROPERTY_RESOURCE, 
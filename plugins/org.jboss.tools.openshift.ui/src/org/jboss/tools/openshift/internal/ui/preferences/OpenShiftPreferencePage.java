@@ -22,8 +22,11 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.SystemUtils;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
 import org.eclipse.jface.preference.FileFieldEditor;
+import org.eclipse.jface.preference.IPersistentPreferenceStore;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
@@ -35,6 +38,7 @@ import org.eclipse.ui.IWorkbenchPreferencePage;
 import org.jboss.tools.foundation.ui.util.BrowserUtility;
 import org.jboss.tools.openshift.core.preferences.IOpenShiftCoreConstants;
 import org.jboss.tools.openshift.internal.common.core.util.ThreadUtils;
+import org.jboss.tools.openshift.internal.common.ui.console.ConsoleUtils;
 import org.jboss.tools.openshift.internal.ui.OpenShiftUIActivator;
 
 /**
@@ -79,6 +83,7 @@ public class OpenShiftPreferencePage extends FieldEditorPreferencePage implement
 	}
 	
 	private FileFieldEditor cliLocationEditor;
+	private IntegerFieldEditor consoleMaxCharsEditor;
 	private OCBinaryName ocBinary;
 	
 	public OpenShiftPreferencePage() {
@@ -114,8 +119,26 @@ public class OpenShiftPreferencePage extends FieldEditorPreferencePage implement
 		cliLocationEditor.setFileExtensions(ocBinary.getExtensions());
 		cliLocationEditor.setValidateStrategy(FileFieldEditor.VALIDATE_ON_KEY_STROKE);
 		addField(cliLocationEditor);
+		addField(new BooleanFieldEditor(
+				IOpenShiftCoreConstants.TEMPLATES_SNAPSHOT,
+				"Store the common templates on disk and restore them at startup",
+				getFieldEditorParent()));
+		this.consoleMaxCharsEditor = new IntegerFieldEditor(
+				ConsoleUtils.BOUNDED_CONSOLE_MAX_CHARS,
+				"Log consoles buffer size (characters)",
+				getFieldEditorParent());
+		consoleMaxCharsEditor.setValidRange(ConsoleUtils.MIN_BOUNDED_CONSOLE_MAX_CHARS, Integer.MAX_VALUE);
+		addField(consoleMaxCharsEditor);
     }
 
+	@Override
+	protected void initialize() {
+		super.initialize();
+		// shared with the other OpenShift plugins
+		consoleMaxCharsEditor.setPreferenceStore(ConsoleUtils.getPreferenceStore());
+		consoleMaxCharsEditor.load();
+	}
+
     @Override
     public void propertyChange(PropertyChangeEvent event) {
         performOk();
@@ -127,6 +150,7 @@ public class OpenShiftPreferencePage extends FieldEditorPreferencePage implement
 	
 	@Override
 	protected void performDefaults() {
+		consoleMaxCharsEditor.loadDefault();
 		String location = findOCLocation();
 		if(StringUtils.isBlank(location)) {
 			String message = NLS.bind("Could not find the OpenShift Client binary \"{0}\" on your path.", ocBinary.getName());
@@ -142,9 +166,18 @@ public class OpenShiftPreferencePage extends FieldEditorPreferencePage implement
 		boolean valid = super.performOk() 
 				&& validateLocation(cliLocationEditor.getStringValue());
 		setValid(valid);
+		saveConsolePreferences();
 		return valid;
 	}
 
+	private void saveConsolePreferences() {
+		try {
+			((IPersistentPreferenceStore) ConsoleUtils.getPreferenceStore()).save();
+		} catch (IOException e) {
+			OpenShiftUIActivator.getDefault().getLogger().logWarning("Could not save the console preferences", e);
+		}
+	}
+
 	
 	private boolean validateLocation(String location) {
 		if(StringUtils.isBlank(location)) {
@@ -13,8 +13,14 @@ package org.jboss.tools.openshift.internal.ui.treeitem;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.eclipse.swt.widgets.Display;
 import org.jboss.tools.common.ui.databinding.ObservableUIPojo;
+import org.jboss.tools.openshift.internal.common.core.util.ThreadUtils;
 
 /**
  * A tree item that can load children lazily and notify interested parties about the change.
@@ -26,7 +32,14 @@ public class ObservableTreeItem extends ObservableUIPojo {
 
 	public static final String PROPERTY_CHILDREN = "children";
 
+	/** the maximum number of items that are loaded in parallel */
+	public static final int MAX_PARALLEL_LOADS = 4;
+
+	private static final ExecutorService LOADER = 
+			ThreadUtils.newBoundedExecutor("OpenShift tree item loader", MAX_PARALLEL_LOADS);
+
 	private List<ObservableTreeItem> children = new ArrayList<>();
+	private volatile boolean loaded;
 
 	private Object model;
 	private IModelFactory factory;
@@ -52,14 +65,81 @@ public class ObservableTreeItem extends ObservableUIPojo {
 		return model;
 	}
 
+	/**
+	 * Loads the whole tree below this item, one item after the other. Reloads
+	 * children that were loaded already.
+	 */
 	public void load() {
-		List<ObservableTreeItem> children = createTreeItems(loadChildren());
-		setChildren(children);
-		for (ObservableTreeItem item : children) {
+		reload();
+		for (ObservableTreeItem item : getChildren()) {
 			item.load();
 		}
 	}
 
+	/**
+	 * Loads the whole tree below this item. The items of each level of the
+	 * tree are loaded in parallel and publish their children as soon as they
+	 * got them. Returns once the whole tree is loaded. Loads one item after
+	 * the other if called in the UI thread since changes are notified in the
+	 * UI thread.
+	 */
+	public void loadInParallel() {
+		if (Display.getCurrent() != null) {
+			load();
+			return;
+		}
+		List<ObservableTreeItem> level = Collections.singletonList(this);
+		while (!level.isEmpty()) {
+			List<Future<List<ObservableTreeItem>>> loads = new ArrayList<>();
+			for (final ObservableTreeItem item : level) {
+				loads.add(LOADER.submit(new Callable<List<ObservableTreeItem>>() {
+
+					@Override
+					public List<ObservableTreeItem> call() throws Exception {
+						item.loadOnce();
+						return item.getChildren();
+					}
+				}));
+			}
+			List<ObservableTreeItem> nextLevel = new ArrayList<>();
+			for (Future<List<ObservableTreeItem>> load : loads) {
+				try {
+					nextLevel.addAll(load.get());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) e.getCause();
+					}
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+			level = nextLevel;
+		}
+	}
+
+	/**
+	 * Loads the children of this item (but not their children) unless they
+	 * were loaded already. Allows to load the tree lazily, one item at a
+	 * time, whenever it is needed.
+	 */
+	public synchronized void loadOnce() {
+		if (loaded) {
+			return;
+		}
+		reload();
+	}
+
+	private synchronized void reload() {
+		setChildren(createTreeItems(loadChildren()));
+		this.loaded = true;
+	}
+
+	public boolean isLoaded() {
+		return loaded;
+	}
+
 	protected List<? extends Object> loadChildren() {
 		if (factory != null) {
 			return factory.createChildren(model);
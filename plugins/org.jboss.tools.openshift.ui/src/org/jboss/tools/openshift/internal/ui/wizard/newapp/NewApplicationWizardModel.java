@@ -136,9 +136,10 @@ public class NewApplicationWizardModel
 			return;
 		}
 		ObservableTreeItem connectionItem = TemplateTreeItems.INSTANCE.create(connection);
-		connectionItem.load();
-		List<ObservableTreeItem> projects = connectionItem.getChildren();
-		setProjectItems(projects);
+		// publish the projects right away, their templates are added as they arrive
+		connectionItem.loadOnce();
+		setProjectItems(connectionItem.getChildren());
+		connectionItem.loadInParallel();
 	}
 
 	@Override
@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.jboss.tools.openshift.core.connection.Connection;
+import org.jboss.tools.openshift.core.connection.ConnectionsRegistryUtil;
 import org.jboss.tools.openshift.internal.ui.treeitem.IModelFactory;
 import org.jboss.tools.openshift.internal.ui.treeitem.ObservableTreeItem;
 
@@ -25,6 +26,10 @@ public class TemplateTreeItems implements IModelFactory {
 			return (List<T>) ((Connection) parent).getResources(ResourceKind.PROJECT);
 		} else if (parent instanceof IProject) {
 			IProject project = (IProject) parent;
+			Connection connection = ConnectionsRegistryUtil.safeGetConnectionFor(project);
+			if (connection != null) {
+				return (List<T>) getTemplates(project, connection);
+			}
 			Collection<ITemplate> templates = project.accept(new CapabilityVisitor<IProjectTemplateList,  Collection<ITemplate>>() {
 
 				@Override
@@ -39,6 +44,20 @@ public class TemplateTreeItems implements IModelFactory {
 		return Collections.emptyList();
 	}
 
+	/**
+	 * Returns the templates of the given project and the common ones. Both are
+	 * served from the cache of the given connection, the common templates
+	 * are thus listed once for all projects.
+	 */
+	private List<ITemplate> getTemplates(IProject project, Connection connection) {
+		List<ITemplate> templates = 
+				new ArrayList<ITemplate>(connection.<ITemplate>getResources(ResourceKind.TEMPLATE, project.getName()));
+		if (!Connection.COMMON_TEMPLATES_NAMESPACE.equals(project.getName())) {
+			templates.addAll(connection.getCommonTemplates());
+		}
+		return templates;
+	}
+
 	public List<ObservableTreeItem> create(Collection<?> openShiftObjects) {
 		if (openShiftObjects == null) {
 			return Collections.emptyList();
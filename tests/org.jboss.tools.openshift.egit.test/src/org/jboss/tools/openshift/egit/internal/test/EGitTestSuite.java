@@ -18,6 +18,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
 		EGitUtilsTest.class
 		, GitIgnoreTest.class
+		, GitDirtyStateCacheTest.class
+		, RemoteRefTrackerTest.class
 })
 /**
  * @author Andre Dietisheim
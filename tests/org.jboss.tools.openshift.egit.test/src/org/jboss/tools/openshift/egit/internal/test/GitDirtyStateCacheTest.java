@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.egit.internal.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.egit.core.Activator;
+import org.eclipse.jgit.api.Git;
+import org.jboss.tools.openshift.egit.core.EGitUtils;
+import org.jboss.tools.openshift.egit.core.GitDirtyStateCache;
+import org.jboss.tools.openshift.egit.internal.test.util.TestProject;
+import org.jboss.tools.openshift.egit.internal.test.util.TestRepository;
+import org.jboss.tools.openshift.egit.internal.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GitDirtyStateCacheTest {
+
+	private TestProject testProject;
+	private TestRepository testRepository;
+	private GitDirtyStateCache cache;
+
+	@Before
+	public void setUp() throws Exception {
+		Activator.getDefault().getRepositoryCache().clear();
+
+		this.testProject = new TestProject(true);
+		this.testRepository = new TestRepository(TestUtils.createGitDir(testProject));
+		testRepository.createMockSystemReader(ResourcesPlugin.getWorkspace().getRoot().getLocation());
+		testRepository.setUserAndEmail("dummyUser", "dummyUser@redhat.com");
+		testRepository.connect(testProject.getProject());
+		testRepository.add(testProject.getFile(".project"));
+		testRepository.initialCommit();
+
+		this.cache = GitDirtyStateCache.getInstance();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		cache.invalidate(testRepository.getRepository());
+		testRepository.dispose();
+		Activator.getDefault().getRepositoryCache().clear();
+		testProject.dispose();
+	}
+
+	@Test
+	public void fileCreatedInWorkspaceIsCounted() throws Exception {
+		assertFalse(cache.isDirty(testRepository.getRepository(), true, new NullProgressMonitor()));
+		testRepository.createFile(testProject.getProject(), "a.txt", "42");
+		testRepository.createFile(testProject.getProject(), "b.txt", "84");
+		assertEquals(2, cache.countChanges(testRepository.getRepository(), true, new NullProgressMonitor()));
+		assertEquals(0, cache.countChanges(testRepository.getRepository(), false, new NullProgressMonitor()));
+	}
+
+	@Test
+	public void fileAddedToIndexIsCounted() throws Exception {
+		File file = testRepository.createFile("a.txt", "protoculture");
+		assertFalse(cache.isDirty(testRepository.getRepository(), false, new NullProgressMonitor()));
+		testRepository.add(file);
+		assertTrue(cache.isDirty(testRepository.getRepository(), false, new NullProgressMonitor()));
+	}
+
+	@Test
+	public void committedFileIsNotCountedAnymore() throws Exception {
+		IFile file = testRepository.createFile(testProject.getProject(), "a.txt", "42");
+		assertTrue(cache.isDirty(testRepository.getRepository(), true, new NullProgressMonitor()));
+		testRepository.add(file);
+		testRepository.commit("commit-by-junit-tests");
+		assertFalse(cache.isDirty(testRepository.getRepository(), true, new NullProgressMonitor()));
+	}
+
+	@Test
+	public void fileRemovedFromIndexIsCountedOnce() throws Exception {
+		File file = testRepository.createFile("a.txt", "42");
+		testRepository.addAndCommit(file, "commit-by-junit-tests");
+		new Git(testRepository.getRepository()).rm().setCached(true).addFilepattern("a.txt").call();
+		// removed and untracked
+		assertEquals(EGitUtils.countChanges(testRepository.getRepository(), true, new NullProgressMonitor()),
+				cache.countChanges(testRepository.getRepository(), true, new NullProgressMonitor()));
+		assertEquals(1, cache.countChanges(testRepository.getRepository(), true, new NullProgressMonitor()));
+	}
+}
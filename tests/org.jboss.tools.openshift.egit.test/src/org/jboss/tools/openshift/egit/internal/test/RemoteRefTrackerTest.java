@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.egit.internal.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.egit.core.Activator;
+import org.jboss.tools.openshift.egit.core.EGitUtils;
+import org.jboss.tools.openshift.egit.core.RemoteRefTracker;
+import org.jboss.tools.openshift.egit.internal.test.util.TestProject;
+import org.jboss.tools.openshift.egit.internal.test.util.TestRepository;
+import org.jboss.tools.openshift.egit.internal.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RemoteRefTrackerTest {
+
+	private static final String REMOTE_NAME = "openshift";
+
+	private TestProject testProject;
+	private TestRepository testRepository;
+	private TestProject testProject2;
+	private TestRepository testRepository2;
+	private RemoteRefTracker tracker;
+
+	@Before
+	public void setUp() throws Exception {
+		Activator.getDefault().getRepositoryCache().clear();
+
+		this.testProject = new TestProject(true);
+		this.testRepository = createTestRepository(testProject);
+		this.testProject2 = new TestProject(true);
+		this.testRepository2 = createTestRepository(testProject2);
+		testRepository.addRemoteTo(REMOTE_NAME, testRepository2.getRepository());
+
+		this.tracker = RemoteRefTracker.getInstance();
+	}
+
+	private TestRepository createTestRepository(TestProject project) throws IOException, Exception {
+		TestRepository testRepository = new TestRepository(TestUtils.createGitDir(project));
+		testRepository.createMockSystemReader(ResourcesPlugin.getWorkspace().getRoot().getLocation());
+		testRepository.setUserAndEmail("dummyUser", "dummyUser@redhat.com");
+		testRepository.connect(project.getProject());
+		testRepository.add(project.getFile(".project"));
+		testRepository.initialCommit();
+		return testRepository;
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		RemoteRefTracker.dispose();
+		testRepository.dispose();
+		testRepository2.dispose();
+		Activator.getDefault().getRepositoryCache().clear();
+		testProject.dispose();
+		testProject2.dispose();
+	}
+
+	@Test
+	public void shouldReturnUnknownCountsIfRemoteWasNotFetched() throws Exception {
+		assertEquals(RemoteRefTracker.UNKNOWN, tracker.getAheadCount(testRepository.getRepository(), "bingo"));
+		assertEquals(RemoteRefTracker.UNKNOWN, tracker.getBehindCount(testRepository.getRepository(), "bingo"));
+	}
+
+	@Test
+	public void shouldCountCommitsLocallyOnceRemoteWasFetched() throws Exception {
+		File file = testRepository.createFile("a.txt", "protoculture");
+		testRepository.addAndCommit(file, "adding a file");
+
+		assertTrue(tracker.isAhead(testRepository.getRepository(), REMOTE_NAME, new NullProgressMonitor()));
+		int ahead = tracker.getAheadCount(testRepository.getRepository(), REMOTE_NAME);
+		int behind = tracker.getBehindCount(testRepository.getRepository(), REMOTE_NAME);
+		assertTrue(ahead > 0);
+		assertTrue(behind > 0);
+
+		File file2 = testRepository.createFile("b.txt", "micronize");
+		testRepository.addAndCommit(file2, "adding another file");
+
+		assertEquals(ahead + 1, tracker.getAheadCount(testRepository.getRepository(), REMOTE_NAME));
+		assertEquals(behind, tracker.getBehindCount(testRepository.getRepository(), REMOTE_NAME));
+	}
+
+	@Test
+	public void shouldNotBeAheadAfterPush() throws Exception {
+		File file = testRepository.createFile("a.txt", "protoculture");
+		testRepository.addAndCommit(file, "adding a file");
+		assertTrue(tracker.isAhead(testRepository.getRepository(), REMOTE_NAME, new NullProgressMonitor()));
+
+		EGitUtils.pushForce(REMOTE_NAME, testRepository.getRepository(), null);
+
+		assertFalse(tracker.isAhead(testRepository.getRepository(), REMOTE_NAME, new NullProgressMonitor()));
+	}
+}
@@ -10,10 +10,12 @@
  ******************************************************************************/
 package org.jboss.tools.openshift.express.test;
 
+import org.jboss.tools.openshift.express.test.core.CartridgesCacheTest;
 import org.jboss.tools.openshift.express.test.core.EmbedCartridgeStrategyTest;
 import org.jboss.tools.openshift.express.test.core.LazyCredentialsPrompterTest;
 import org.jboss.tools.openshift.express.test.core.LazySSLCertificateCallbackTest;
 import org.jboss.tools.openshift.express.test.core.OpenShiftMarkerTest;
+import org.jboss.tools.openshift.express.test.core.OpenShiftProjectIndexTest;
 import org.jboss.tools.openshift.express.test.core.StringsPreferenceValueTest;
 import org.jboss.tools.openshift.express.test.core.connection.ExpressConnectionPersistencyTest;
 import org.jboss.tools.openshift.express.test.core.connection.ExpressConnectionTest;
@@ -34,6 +36,7 @@ import org.junit.runners.Suite.SuiteClasses;
 		ActionFilterAdapterFactoryTest.class,
 		ApplicationDetailsContentProviderTest.class,
 		ApplicationPropertySourceTest.class,
+		CartridgesCacheTest.class,
 		OpenShiftMavenProfileTests.class,
 		EmbedCartridgeStrategyTest.class,
 		ExpressExplorerContentProviderTest.class,
@@ -44,6 +47,7 @@ import org.junit.runners.Suite.SuiteClasses;
 		ExpressConnectionTest.class,
 		ExpressConnectionPersistencyTest.class,
 		OpenShiftMarkerTest.class,
+		OpenShiftProjectIndexTest.class,
 		SimplePropertyActionFilterTest.class,
 		StringsPreferenceValueTest.class
 })
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.express.test.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.tools.openshift.express.internal.core.cartridges.CartridgesCache;
+import org.jboss.tools.openshift.express.internal.core.cartridges.CartridgesCache.Cartridges;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.openshift.client.cartridge.EmbeddableCartridge;
+import com.openshift.client.cartridge.IEmbeddableCartridge;
+import com.openshift.client.cartridge.IStandaloneCartridge;
+import com.openshift.client.cartridge.StandaloneCartridge;
+
+public class CartridgesCacheTest {
+
+	private static final String HOST = "https://openshift.redhat.com";
+
+	private File directory;
+	private CartridgesCache cache;
+
+	@Before
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("catalogs").toFile();
+		this.cache = new CartridgesCache(directory);
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void shouldReturnNullIfNothingWasCached() throws IOException {
+		assertNull(cache.load(HOST));
+	}
+
+	@Test
+	public void shouldLoadSavedCartridges() throws IOException {
+		// pre-condition
+		Cartridges cartridges = new Cartridges(
+				Arrays.<IStandaloneCartridge> asList(
+						new StandaloneCartridge("jbossas-7", "JBoss AS 7", "Application server", false),
+						new StandaloneCartridge("foo", new URL("http://foo.org/manifest.yml"), "Foo", "Downloadable", false)),
+				Arrays.<IEmbeddableCartridge> asList(
+						new EmbeddableCartridge("mysql-5.5", "MySQL 5.5", "Database", true)));
+
+		// operation
+		cache.save(HOST, cartridges);
+		Cartridges loaded = cache.load(HOST);
+
+		// verification
+		assertEquals(cartridges.getStandaloneCartridges(), loaded.getStandaloneCartridges());
+		assertEquals("JBoss AS 7", loaded.getStandaloneCartridges().get(0).getDisplayName());
+		assertEquals(new URL("http://foo.org/manifest.yml"), loaded.getStandaloneCartridges().get(1).getUrl());
+		assertEquals(cartridges.getEmbeddableCartridges(), loaded.getEmbeddableCartridges());
+		assertTrue(loaded.getEmbeddableCartridges().get(0).isObsolete());
+	}
+
+	@Test
+	public void shouldLoadDetailsOfDownloadableEmbeddableCartridges() throws IOException {
+		// pre-condition
+		IEmbeddableCartridge downloadable = mock(IEmbeddableCartridge.class);
+		when(downloadable.getName()).thenReturn("foo");
+		when(downloadable.getUrl()).thenReturn(new URL("http://foo.org/manifest.yml"));
+		when(downloadable.getDisplayName()).thenReturn("Foo");
+		when(downloadable.getDescription()).thenReturn("Downloadable");
+		when(downloadable.isObsolete()).thenReturn(true);
+		Cartridges cartridges = new Cartridges(
+				Collections.<IStandaloneCartridge> emptyList(),
+				Arrays.<IEmbeddableCartridge> asList(downloadable));
+
+		// operation
+		cache.save(HOST, cartridges);
+		IEmbeddableCartridge loaded = cache.load(HOST).getEmbeddableCartridges().get(0);
+
+		// verification
+		assertEquals("foo", loaded.getName());
+		assertEquals(new URL("http://foo.org/manifest.yml"), loaded.getUrl());
+		assertEquals("Foo", loaded.getDisplayName());
+		assertEquals("Downloadable", loaded.getDescription());
+		assertTrue(loaded.isObsolete());
+	}
+
+	@Test
+	public void shouldNotReportChangeForReloadedDownloadableEmbeddableCartridges() throws IOException {
+		// pre-condition
+		IEmbeddableCartridge downloadable = mock(IEmbeddableCartridge.class);
+		when(downloadable.getName()).thenReturn("foo");
+		when(downloadable.getUrl()).thenReturn(new URL("http://foo.org/manifest.yml"));
+		when(downloadable.getDisplayName()).thenReturn("Foo");
+		when(downloadable.getDescription()).thenReturn("Downloadable");
+		cache.save(HOST, new Cartridges(
+				Collections.<IStandaloneCartridge> emptyList(),
+				Arrays.<IEmbeddableCartridge> asList(downloadable)));
+
+		// operation
+		boolean changed = cache.save(HOST, cache.load(HOST));
+
+		// verification
+		assertFalse(changed);
+	}
+
+	@Test
+	public void shouldReportChangeOnlyIfCartridgesDiffer() throws IOException {
+		// pre-condition
+		Cartridges cartridges = new Cartridges(
+				Arrays.<IStandaloneCartridge> asList(new StandaloneCartridge("jbossas-7", "JBoss AS 7", "", false)),
+				Collections.<IEmbeddableCartridge> emptyList());
+
+		// operation
+		boolean firstSave = cache.save(HOST, cartridges);
+		boolean secondSave = cache.save(HOST, cartridges);
+		boolean thirdSave = cache.save(HOST, new Cartridges(
+				Arrays.<IStandaloneCartridge> asList(new StandaloneCartridge("jbosseap-6", "JBoss EAP 6", "", false)),
+				Collections.<IEmbeddableCartridge> emptyList()));
+
+		// verification
+		assertTrue(firstSave);
+		assertFalse(secondSave);
+		assertTrue(thirdSave);
+	}
+
+	@Test
+	public void shouldCacheCartridgesPerHost() throws IOException {
+		// pre-condition
+		cache.save(HOST, new Cartridges(
+				Arrays.<IStandaloneCartridge> asList(new StandaloneCartridge("jbossas-7")),
+				Collections.<IEmbeddableCartridge> emptyList()));
+
+		// operation
+		Cartridges loaded = cache.load("https://localhost");
+
+		// verification
+		assertNull(loaded);
+	}
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.express.test.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.egit.core.op.ConnectProviderOperation;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.RemoteConfig;
+import org.eclipse.jgit.transport.URIish;
+import org.jboss.tools.openshift.express.internal.core.server.OpenShiftProjectIndex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OpenShiftProjectIndexTest {
+
+	private static final String GIT_URL = "ssh://5168@myapp-mydomain.rhcloud.com/~/git/myapp.git/";
+
+	private IProject project;
+	private Repository repository;
+	private OpenShiftProjectIndex index;
+
+	@Before
+	public void setUp() throws Exception {
+		String projectName = String.valueOf(System.currentTimeMillis());
+		this.project = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName);
+		project.create(new NullProgressMonitor());
+		project.open(new NullProgressMonitor());
+		this.repository = createRepository(project, GIT_URL);
+		this.index = OpenShiftProjectIndex.getInstance();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		repository.close();
+		project.delete(true, new NullProgressMonitor());
+	}
+
+	@Test
+	public void shouldFindProjectByExactGitUrl() throws Exception {
+		// pre-condition
+		connect();
+
+		// operation
+		IProject[] projects = index.getProjectsForGitUrl(GIT_URL);
+
+		// verification
+		assertArrayEquals(new IProject[] { project }, projects);
+	}
+
+	@Test
+	public void shouldFindProjectByGitUrlWithoutTrailingSlash() throws Exception {
+		// pre-condition
+		connect();
+
+		// operation
+		IProject[] projects = index.getProjectsForGitUrl("ssh://5168@myapp-mydomain.rhcloud.com/~/git/myapp.git");
+
+		// verification
+		assertArrayEquals(new IProject[] { project }, projects);
+	}
+
+	@Test
+	public void shouldFindProjectByGitUrlWithSeveralTrailingSlashes() throws Exception {
+		// pre-condition
+		connect();
+
+		// operation
+		IProject[] projects = index.getProjectsForGitUrl(" " + GIT_URL + "// ");
+
+		// verification
+		assertArrayEquals(new IProject[] { project }, projects);
+	}
+
+	@Test
+	public void shouldFindProjectByPartOfGitUrl() throws Exception {
+		// pre-condition
+		connect();
+
+		// operation
+		IProject[] prefix = index.getProjectsForGitUrl("ssh://5168@myapp-mydomain.rhcloud.com/~/git/");
+		IProject[] infix = index.getProjectsForGitUrl("myapp-mydomain.rhcloud.com");
+
+		// verification
+		assertArrayEquals(new IProject[] { project }, prefix);
+		assertArrayEquals(new IProject[] { project }, infix);
+	}
+
+	@Test
+	public void shouldNotFindProjectByGitUrlThatIsNotContained() throws Exception {
+		// pre-condition
+		connect();
+
+		// operation
+		IProject[] longer = index.getProjectsForGitUrl("ssh://5168@myapp-mydomain.rhcloud.com/~/git/myapp.git.old");
+		IProject[] other = index.getProjectsForGitUrl("ssh://5168@otherapp-mydomain.rhcloud.com/~/git/otherapp.git/");
+
+		// verification
+		assertEquals(0, longer.length);
+		assertEquals(0, other.length);
+	}
+
+	@Test
+	public void shouldFindProjectThatWasConnectedAfterItWasIndexed() throws Exception {
+		// pre-condition
+		assertEquals(0, index.getProjectsForGitUrl(GIT_URL).length);
+
+		// operation
+		connect();
+
+		// verification
+		assertArrayEquals(new IProject[] { project }, index.getProjectsForGitUrl(GIT_URL));
+	}
+
+	private Repository createRepository(IProject project, String gitUrl) throws Exception {
+		Repository repository = new FileRepositoryBuilder()
+				.setGitDir(new File(project.getLocation().toFile(), Constants.DOT_GIT))
+				.build();
+		repository.create();
+		StoredConfig config = repository.getConfig();
+		RemoteConfig remote = new RemoteConfig(config, Constants.DEFAULT_REMOTE_NAME);
+		remote.addURI(new URIish(gitUrl));
+		remote.update(config);
+		config.save();
+		return repository;
+	}
+
+	private void connect() throws Exception {
+		new ConnectProviderOperation(project, repository.getDirectory()).execute(null);
+	}
+}
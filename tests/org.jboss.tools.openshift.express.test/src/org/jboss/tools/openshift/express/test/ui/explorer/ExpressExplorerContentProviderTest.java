@@ -14,14 +14,17 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.List;
 
+import org.eclipse.core.runtime.jobs.Job;
 import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistry;
 import org.jboss.tools.openshift.common.core.connection.IConnection;
 import org.jboss.tools.openshift.express.internal.core.connection.ExpressConnection;
 import org.jboss.tools.openshift.express.internal.ui.explorer.ExpressExplorerContentProvider;
+import org.jboss.tools.openshift.internal.common.ui.explorer.BaseExplorerContentProvider.LoadingStub;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -34,10 +37,12 @@ import com.openshift.client.IDomain;
 @RunWith(MockitoJUnitRunner.class)
 public class ExpressExplorerContentProviderTest {
 
-	private ExpressExplorerContentProvider provider;
+	private TestableExpressExplorerContentProvider provider;
 	private ConnectionsRegistry registry;
 	@Mock
 	private IApplication application;
+	@Mock
+	private IApplication otherApplication;
 	@Mock 
 	private IDomain domain;
 	@Mock 
@@ -45,7 +50,7 @@ public class ExpressExplorerContentProviderTest {
 
 	@Before
 	public void setup(){
-		provider = new ExpressExplorerContentProvider();
+		provider = new TestableExpressExplorerContentProvider();
 		registry = new ConnectionsRegistry();
 		registry.add(connection);
 	}
@@ -90,4 +95,57 @@ public class ExpressExplorerContentProviderTest {
 	public void testApplicationHasChildren() {
 		assertTrue("Exp. an IApplication to have children", provider.hasChildren(application));
 	}
+
+	@Test
+	public void prefetchedChildrenShouldBeQueriedWhenExpanded() throws Exception {
+		// pre-condition
+		prefetch();
+		when(domain.getApplications()).thenReturn(Arrays.asList(application, otherApplication));
+
+		// operation
+		Object[] children = provider.getChildren(domain);
+
+		// verification
+		assertArrayEquals(new Object[] { application, otherApplication }, children);
+	}
+
+	@Test
+	public void prefetchedChildrenShouldOnlyBeUsedOnce() throws Exception {
+		// pre-condition
+		prefetch();
+		provider.getChildren(domain);
+
+		// operation
+		Object[] children = provider.getChildren(domain);
+
+		// verification
+		assertEquals(1, children.length);
+		assertTrue(children[0] instanceof LoadingStub);
+	}
+
+	@Test
+	public void childrenShouldBeLoadedInJobIfNotPrefetched() throws Exception {
+		// operation
+		Object[] children = provider.getChildren(domain);
+
+		// verification
+		assertEquals(1, children.length);
+		assertTrue(children[0] instanceof LoadingStub);
+	}
+
+	private void prefetch() throws InterruptedException {
+		ExpressConnection xpressConnection = spy(new ExpressConnection("", "http://localhost"));
+		doReturn(Arrays.asList(domain)).when(xpressConnection).getDomains();
+		when(domain.getApplications()).thenReturn(Arrays.asList(application));
+		provider.getChildrenFor(xpressConnection);
+		Job.getJobManager().join(provider, null);
+	}
+
+	private static class TestableExpressExplorerContentProvider extends ExpressExplorerContentProvider {
+
+		@Override
+		public Object[] getChildrenFor(Object parentElement) {
+			return super.getChildrenFor(parentElement);
+		}
+	}
 }
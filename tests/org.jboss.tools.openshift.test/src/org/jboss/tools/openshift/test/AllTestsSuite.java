@@ -12,6 +12,7 @@ package org.jboss.tools.openshift.test;
 
 import org.jboss.tools.openshift.test.common.core.util.StringUtilsTest;
 import org.jboss.tools.openshift.test.common.core.util.URIUtilsTest;
+import org.jboss.tools.openshift.test.common.ui.explorer.ViewerRefreshSchedulerTest;
 import org.jboss.tools.openshift.test.core.LazySSLCertificateCallbackTest;
 import org.jboss.tools.openshift.test.core.connection.ConnectionPersistencyTest;
 import org.jboss.tools.openshift.test.core.connection.ConnectionRegistryTest;
@@ -30,6 +31,7 @@ import org.jboss.tools.openshift.test.ui.property.ExtTextPropertyDescriptorTest;
 import org.jboss.tools.openshift.test.ui.property.ResourcePropertySourceTest;
 import org.jboss.tools.openshift.test.ui.property.build.BuildConfigPropertySourceTest;
 import org.jboss.tools.openshift.test.ui.property.build.WebhooksPropertySourceTest;
+import org.jboss.tools.openshift.test.ui.treeitem.ObservableTreeItemTest;
 import org.jboss.tools.openshift.test.ui.validator.LabelKeyValidatorTest;
 import org.jboss.tools.openshift.test.ui.validator.LabelValueValidatorTest;
 import org.junit.runner.RunWith;
@@ -51,6 +53,7 @@ import org.junit.runners.Suite.SuiteClasses;
 	LabelValueValidatorTest.class, 
 	LazySSLCertificateCallbackTest.class, 
 	NewApplicationWizardModelTest.class,
+	ObservableTreeItemTest.class,
 	OpenShiftExplorerContentProviderTest.class,
 	OpenShiftExplorerLabelProviderTest.class,
 	PortForwardingWizardModelTest.class,
@@ -58,6 +61,7 @@ import org.junit.runners.Suite.SuiteClasses;
 	StringUtilsTest.class,
 	TemplateParameterColumnLabelProviderTest.class,
 	URIUtilsTest.class,
+	ViewerRefreshSchedulerTest.class,
 	WebhooksPropertySourceTest.class
 	// triggers secure storage prompt
 	//SecureStorageTest.class
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc. Distributed under license by Red Hat, Inc.
+ * All rights reserved. This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.openshift.test.common.ui.explorer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.TreeItem;
+import org.jboss.tools.openshift.internal.common.ui.explorer.ViewerRefreshScheduler;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ViewerRefreshSchedulerTest {
+
+	private static final Object PROJECT = "project";
+	private static final Object GROUPING = "grouping";
+	private static final Object SERVICE = "service";
+	private static final Object OTHER_PROJECT = "otherProject";
+
+	@Mock private TreeViewer viewer;
+	@Mock private Control control;
+	private TestableViewerRefreshScheduler scheduler;
+
+	@Before
+	public void setup() {
+		when(viewer.getControl()).thenReturn(control);
+		TreeItem project = givenATreeItem(PROJECT, null);
+		TreeItem grouping = givenATreeItem(GROUPING, project);
+		givenATreeItem(SERVICE, grouping);
+		givenATreeItem(OTHER_PROJECT, null);
+		this.scheduler = new TestableViewerRefreshScheduler(viewer);
+	}
+
+	@Test
+	public void shouldRefreshElementOnceIfRequestedSeveralTimes() {
+		// pre-condition
+		scheduler.refresh(GROUPING);
+		scheduler.refresh(GROUPING);
+		scheduler.refresh(GROUPING);
+
+		// operation
+		scheduler.flush();
+
+		// verification
+		verify(viewer, times(1)).refresh(GROUPING);
+		assertEquals(3, scheduler.getRequested());
+		assertEquals(1, scheduler.getExecuted());
+	}
+
+	@Test
+	public void shouldNotRefreshElementsWhoseAncestorIsRefreshed() {
+		// pre-condition
+		scheduler.refresh(SERVICE);
+		scheduler.refresh(PROJECT);
+		scheduler.refresh(GROUPING);
+		scheduler.refresh(OTHER_PROJECT);
+
+		// operation
+		scheduler.flush();
+
+		// verification
+		verify(viewer).refresh(PROJECT);
+		verify(viewer).refresh(OTHER_PROJECT);
+		verify(viewer, never()).refresh(GROUPING);
+		verify(viewer, never()).refresh(SERVICE);
+		assertEquals(4, scheduler.getRequested());
+		assertEquals(2, scheduler.getExecuted());
+	}
+
+	@Test
+	public void shouldOnlyRefreshWholeTreeIfRequested() {
+		// pre-condition
+		scheduler.refresh(PROJECT);
+		scheduler.add(GROUPING, new Object[] { "route" });
+		scheduler.refresh(null);
+
+		// operation
+		scheduler.flush();
+
+		// verification
+		verify(viewer).refresh();
+		verify(viewer, never()).refresh(PROJECT);
+		verify(viewer, never()).add(any(), any(Object[].class));
+		assertEquals(1, scheduler.getExecuted());
+	}
+
+	@Test
+	public void shouldDropAdditionsAndRemovalsWithinRefreshedElements() {
+		// pre-condition
+		Object[] added = new Object[] { "route" };
+		Object[] removed = new Object[] { "pod" };
+		scheduler.add(GROUPING, added);
+		scheduler.remove(OTHER_PROJECT, removed);
+		scheduler.refresh(PROJECT);
+
+		// operation
+		scheduler.flush();
+
+		// verification
+		verify(viewer, never()).add(GROUPING, added);
+		verify(viewer).remove(OTHER_PROJECT, removed);
+		verify(viewer).refresh(PROJECT);
+		assertEquals(2, scheduler.getExecuted());
+	}
+
+	@Test
+	public void shouldExpandAfterRefreshingWholeTree() {
+		// pre-condition
+		scheduler.expand(PROJECT, 1);
+		scheduler.refresh(null);
+
+		// operation
+		scheduler.flush();
+
+		// verification
+		verify(viewer).refresh();
+		verify(viewer).expandToLevel(PROJECT, 1);
+	}
+
+	@Test
+	public void shouldNotApplyUpdatesTwice() {
+		// pre-condition
+		scheduler.refresh(PROJECT);
+		scheduler.flush();
+
+		// operation
+		scheduler.flush();
+
+		// verification
+		verify(viewer, times(1)).refresh(PROJECT);
+		assertEquals(1, scheduler.getExecuted());
+	}
+
+	private TreeItem givenATreeItem(Object element, TreeItem parent) {
+		TreeItem item = mock(TreeItem.class);
+		when(item.getData()).thenReturn(element);
+		when(item.getParentItem()).thenReturn(parent);
+		when(viewer.testFindItem(element)).thenReturn(item);
+		return item;
+	}
+
+	private static class TestableViewerRefreshScheduler extends ViewerRefreshScheduler {
+
+		private TestableViewerRefreshScheduler(TreeViewer viewer) {
+			super(viewer);
+		}
+
+		@Override
+		public void flush() {
+			super.flush();
+		}
+	}
+}
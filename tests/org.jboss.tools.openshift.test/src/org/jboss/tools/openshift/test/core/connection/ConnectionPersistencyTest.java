@@ -108,6 +108,34 @@ public class ConnectionPersistencyTest {
 		assertContainsConnection(connection2, connections);
 	}
 	
+	@Test
+	public void shouldLoadAllConnectionsIfInterrupted() {
+		// pre-condition
+		ConnectionPersistency persistency = new ConnectionPersistency() {
+
+			@Override
+			protected String[] loadPersisted() {
+				return new String[] {
+						"https://foo@localhost:8442",
+						"https://bar@localhost:8443" };
+				}
+		};
+		Thread.currentThread().interrupt();
+
+		try {
+			// operations
+			Collection<Connection> connections = persistency.load();
+
+			// verification
+			assertTrue(Thread.currentThread().isInterrupted());
+			assertEquals(2, connections.size());
+			assertContainsConnection(connection1, connections);
+			assertContainsConnection(connection2, connections);
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
 	@Ignore("no default server for OpenShift v3 yet")
 	@Test
 	public void shouldLoadUsernamesAsDefaultHostConnection() {	
@@ -247,6 +247,32 @@ public class ConnectionRegistryTest {
 		assertTrue(found);
 	}
 
+	@Test
+	public void shouldContainAddedConnectionInstanceOnly() {
+		// pre-conditions
+		registry.add(connection);
+
+		// operations
+		boolean contained = registry.contains(connection);
+		boolean equalContained = registry.contains(new OneConnectionImpl("http://localhost:8081"));
+
+		// verifications
+		assertTrue(contained);
+		assertFalse(equalContained);
+	}
+
+	@Test
+	public void shouldNotContainRemovedConnection() {
+		// pre-conditions
+		registry.add(connection);
+
+		// operations
+		registry.remove(connection);
+
+		// verifications
+		assertFalse(registry.contains(connection));
+	}
+
 	@Test
 	public void shouldReturnAllRegistrySize() throws UnsupportedEncodingException {
 		// pre-conditions
@@ -14,13 +14,17 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.jboss.tools.openshift.common.core.connection.IConnection;
 import org.jboss.tools.openshift.core.connection.Connection;
+import org.jboss.tools.openshift.core.connection.ResourceCache;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -31,10 +35,15 @@ import org.mockito.stubbing.Answer;
 
 import com.openshift.restclient.IClient;
 import com.openshift.restclient.ResourceKind;
+import com.openshift.restclient.authorization.IAuthorizationDetails;
+import com.openshift.restclient.authorization.UnauthorizedException;
 import com.openshift.restclient.capability.CapabilityVisitor;
 import com.openshift.restclient.capability.resources.IClientCapability;
+import com.openshift.restclient.model.IPod;
 import com.openshift.restclient.model.IProject;
 import com.openshift.restclient.model.IResource;
+import com.openshift.restclient.model.IService;
+import com.openshift.restclient.model.template.ITemplate;
 
 /**
  * @author Jeff Cantrill
@@ -90,6 +99,166 @@ public class ConnectionTest {
 		
 		assertArrayEquals("Exp. to get projects from the client",projects.toArray(), connection.getResources(ResourceKind.PROJECT).toArray());
 	}
+	@Test
+	public void getResourcesShouldListOnceAndThenReturnCachedResources(){
+		List<IProject> projects = Arrays.asList(mock(IProject.class));
+		when(client.<IProject>list(ResourceKind.PROJECT, "")).thenReturn(projects);
+
+		connection.getResources(ResourceKind.PROJECT);
+		List<IProject> cached = connection.getResources(ResourceKind.PROJECT);
+
+		verify(client, times(1)).list(ResourceKind.PROJECT, "");
+		assertArrayEquals("Exp. to get the projects from the cache", projects.toArray(), cached.toArray());
+	}
+
+	@Test
+	public void getResourcesShouldNotListAgainWhilePrefetching(){
+		List<IService> services = Arrays.asList(mock(IService.class));
+		when(client.<IService>list(ResourceKind.SERVICE, "bar")).thenReturn(services);
+		List<IPod> pods = Arrays.asList(mock(IPod.class));
+		when(client.<IPod>list(ResourceKind.POD, "bar")).thenReturn(pods);
+
+		connection.getResourceCache().prefetch("bar", ResourceKind.SERVICE, ResourceKind.POD);
+
+		assertArrayEquals(services.toArray(), connection.getResources(ResourceKind.SERVICE, "bar").toArray());
+		assertArrayEquals(pods.toArray(), connection.getResources(ResourceKind.POD, "bar").toArray());
+		verify(client, times(1)).list(ResourceKind.SERVICE, "bar");
+		verify(client, times(1)).list(ResourceKind.POD, "bar");
+	}
+
+	@Test
+	public void deleteResourceShouldRemoveResourceFromCache(){
+		IService service = givenAResource(IService.class, ResourceKind.SERVICE, "foo", "bar");
+		List<IService> services = Arrays.asList(service);
+		when(client.<IService>list(ResourceKind.SERVICE, "bar")).thenReturn(services);
+		connection.getResources(ResourceKind.SERVICE, "bar");
+
+		connection.deleteResource(service);
+
+		assertTrue("Exp. the deleted service to be removed from the cache", 
+				connection.getResources(ResourceKind.SERVICE, "bar").isEmpty());
+		verify(client, times(1)).list(ResourceKind.SERVICE, "bar");
+	}
+
+	@Test
+	public void createResourceShouldAddResourceToCache(){
+		when(client.<IService>list(ResourceKind.SERVICE, "bar")).thenReturn(new ArrayList<IService>());
+		connection.getResources(ResourceKind.SERVICE, "bar");
+		IService service = givenAResource(IService.class, ResourceKind.SERVICE, "foo", "bar");
+		when(client.create(service)).thenReturn(service);
+
+		connection.createResource(service);
+
+		assertArrayEquals("Exp. the created service to be added to the cache", 
+				new Object[] { service }, connection.getResources(ResourceKind.SERVICE, "bar").toArray());
+	}
+
+	@Test
+	public void refreshResourcesShouldListAgainAndReplaceCachedResources(){
+		IService foo = givenAResource(IService.class, ResourceKind.SERVICE, "foo", "bar");
+		IService baz = givenAResource(IService.class, ResourceKind.SERVICE, "baz", "bar");
+		when(client.<IService>list(ResourceKind.SERVICE, "bar"))
+			.thenReturn(Arrays.asList(foo))
+			.thenReturn(Arrays.asList(foo, baz));
+		connection.getResources(ResourceKind.SERVICE, "bar");
+
+		List<IService> refreshed = connection.refreshResources(ResourceKind.SERVICE, "bar");
+
+		assertArrayEquals("Exp. to get the services from the server", new Object[] { foo, baz }, refreshed.toArray());
+		assertArrayEquals("Exp. the refreshed services to replace the cached ones",
+				new Object[] { foo, baz }, connection.getResources(ResourceKind.SERVICE, "bar").toArray());
+		verify(client, times(2)).list(ResourceKind.SERVICE, "bar");
+	}
+
+	@Test
+	public void refreshResourcesShouldNotAffectOtherNamespaces(){
+		List<IService> services = Arrays.asList(givenAResource(IService.class, ResourceKind.SERVICE, "foo", "bar"));
+		when(client.<IService>list(ResourceKind.SERVICE, "bar")).thenReturn(services);
+		when(client.<IService>list(ResourceKind.SERVICE, "baz")).thenReturn(new ArrayList<IService>());
+		connection.getResources(ResourceKind.SERVICE, "bar");
+
+		connection.refreshResources(ResourceKind.SERVICE, "baz");
+
+		assertArrayEquals(services.toArray(), connection.getResources(ResourceKind.SERVICE, "bar").toArray());
+		verify(client, times(1)).list(ResourceKind.SERVICE, "bar");
+	}
+
+	@Test
+	public void getCommonTemplatesShouldListOnceForAllProjects(){
+		List<ITemplate> templates = Arrays.asList(mock(ITemplate.class));
+		when(client.<ITemplate>list(ResourceKind.TEMPLATE, Connection.COMMON_TEMPLATES_NAMESPACE)).thenReturn(templates);
+
+		connection.getCommonTemplates();
+		List<ITemplate> cached = connection.getCommonTemplates();
+
+		verify(client, times(1)).list(ResourceKind.TEMPLATE, Connection.COMMON_TEMPLATES_NAMESPACE);
+		assertArrayEquals("Exp. to get the common templates from the cache", templates.toArray(), cached.toArray());
+	}
+
+	@Test
+	public void resyncShouldOnlyListSubscribedResources(){
+		// pre-condition
+		List<IService> services = Arrays.asList(givenAResource(IService.class, ResourceKind.SERVICE, "foo", "bar"));
+		when(client.<IService>list(ResourceKind.SERVICE, "bar")).thenReturn(services);
+		List<IPod> pods = Arrays.asList(givenAResource(IPod.class, ResourceKind.POD, "foo", "bar"));
+		TestableResourceCache cache = new TestableResourceCache(connection);
+		cache.put(ResourceKind.SERVICE, "bar", services);
+		cache.put(ResourceKind.POD, "bar", pods);
+		cache.subscribe(ResourceKind.SERVICE, "bar");
+
+		// operation
+		boolean succeeded = cache.resync(new NullProgressMonitor());
+
+		// verification
+		assertTrue(succeeded);
+		verify(client, times(1)).list(ResourceKind.SERVICE, "bar");
+		verify(client, never()).list(ResourceKind.POD, "bar");
+	}
+
+	@Test
+	public void resyncShouldNotListUnsubscribedResources(){
+		// pre-condition
+		List<IService> services = Arrays.asList(givenAResource(IService.class, ResourceKind.SERVICE, "foo", "bar"));
+		TestableResourceCache cache = new TestableResourceCache(connection);
+		cache.put(ResourceKind.SERVICE, "bar", services);
+		cache.subscribe(ResourceKind.SERVICE, "bar");
+		cache.unsubscribe(ResourceKind.SERVICE, "bar");
+
+		// operation
+		cache.resync(new NullProgressMonitor());
+
+		// verification
+		verify(client, never()).list(ResourceKind.SERVICE, "bar");
+	}
+
+	@Test
+	public void resyncShouldNotReauthenticateIfUnauthorized(){
+		// pre-condition
+		connection.setToken("42");
+		List<IService> services = Arrays.asList(givenAResource(IService.class, ResourceKind.SERVICE, "foo", "bar"));
+		when(client.<IService>list(ResourceKind.SERVICE, "bar")).thenThrow(new UnauthorizedException(mock(IAuthorizationDetails.class)));
+		TestableResourceCache cache = new TestableResourceCache(connection);
+		cache.put(ResourceKind.SERVICE, "bar", services);
+		cache.subscribe(ResourceKind.SERVICE, "bar");
+
+		// operation
+		boolean succeeded = cache.resync(new NullProgressMonitor());
+
+		// verification
+		assertFalse(succeeded);
+		assertEquals("Exp. the token to be kept", "42", connection.getToken());
+		verify(client, times(1)).list(ResourceKind.SERVICE, "bar");
+		assertArrayEquals("Exp. the cached services to be kept", services.toArray(), cache.get(ResourceKind.SERVICE, "bar").toArray());
+	}
+
+	private <T extends IResource> T givenAResource(Class<T> clazz, String kind, String name, String namespace) {
+		T resource = mock(clazz);
+		when(resource.getKind()).thenReturn(kind);
+		when(resource.getName()).thenReturn(name);
+		when(resource.getNamespace()).thenReturn(namespace);
+		return resource;
+	}
+
 	@Test
 	public void getHostShouldReturnHost() {
 		assertEquals("https://localhost:8443", connection.getHost());
@@ -331,4 +500,16 @@ public class ConnectionTest {
 //		assertFalse(connection.isRememberPassword());
 //		assertFalse(connection.isConnected());
 //	}
+
+	private static class TestableResourceCache extends ResourceCache {
+
+		public TestableResourceCache(Connection connection) {
+			super(connection);
+		}
+
+		@Override
+		public boolean resync(IProgressMonitor monitor) {
+			return super.resync(monitor);
+		}
+	}
 }
@@ -1,11 +1,13 @@
 package org.jboss.tools.openshift.test.core.connection;
 
+import org.eclipse.core.runtime.jobs.Job;
 import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistry;
 import org.jboss.tools.openshift.common.core.connection.IConnection;
 import org.jboss.tools.openshift.common.core.connection.IConnectionsRegistryListener;
 
 public class ConnectionsChange {
 
+	private ConnectionsRegistry registry;
 	private IConnection notifiedConnection;
 
 	private boolean additionNotified;
@@ -13,14 +15,17 @@ public class ConnectionsChange {
 	private boolean changeNotified;
 	private String property;
 	public String getProperty() {
+		waitForDispatch();
 		return property;
 	}
 
 	public Object getOldValue() {
+		waitForDispatch();
 		return oldValue;
 	}
 
 	public Object getNewValue() {
+		waitForDispatch();
 		return newValue;
 	}
 
@@ -28,32 +33,50 @@ public class ConnectionsChange {
 	private Object newValue;
 
 	public ConnectionsChange(ConnectionsRegistry registry) {
+		this.registry = registry;
 		registry.addListener(new Listener());
 	}
 
 	public boolean isAdditionNotified() {
+		waitForDispatch();
 		return additionNotified;
 	}
 
 	public boolean isRemovalNotified() {
+		waitForDispatch();
 		return removalNotified;
 	}
 
 	public boolean isChangeNotified() {
+		waitForDispatch();
 		return changeNotified;
 	}
 
 	public IConnection getConnection() {
+		waitForDispatch();
 		return notifiedConnection;
 	}
 	
 	public void reset() {
+		waitForDispatch();
 		this.additionNotified = false;
 		this.removalNotified = false;
 		this.changeNotified = false;
 		this.notifiedConnection = null;
 	}
 
+	/**
+	 * Waits for the registry to notify its listeners, they are notified
+	 * asynchronously.
+	 */
+	private void waitForDispatch() {
+		try {
+			Job.getJobManager().join(registry, null);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	private class Listener implements IConnectionsRegistryListener {
 
 		@Override
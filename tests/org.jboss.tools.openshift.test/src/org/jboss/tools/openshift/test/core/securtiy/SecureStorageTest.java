@@ -11,6 +11,7 @@
 package org.jboss.tools.openshift.test.core.securtiy;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.eclipse.core.runtime.CoreException;
@@ -90,4 +91,33 @@ public class SecureStorageTest {
 		// verification
 		assertEquals("foobar", store.get("nonsense"));
 	}
+
+	@Test
+	public void shouldWriteValueOnlyWhenFlushed() throws SecureStoreException {
+		// pre-condition
+		store.put("password", "cinnamon");
+		assertEquals(null, new SecureStore(key).get("password"));
+
+		// operation
+		store.flush();
+
+		// verification
+		assertEquals("cinnamon", new SecureStore(key).get("password"));
+	}
+
+	@Test
+	public void shouldShareStoreForSameKey() throws SecureStoreException {
+		// pre-condition
+		SecureStore sharedStore = SecureStore.getInstance(key);
+		sharedStore.put("password", "vanilla");
+
+		// operation
+		SecureStore otherStore = SecureStore.getInstance(
+				new OpenShiftSecureStorageKey("org.jboss.tools.openshift.test", "localhost", "foobar"));
+
+		// verification
+		assertSame(sharedStore, otherStore);
+		assertEquals("vanilla", otherStore.get("password"));
+		sharedStore.clear();
+	}
 }
\ No newline at end of file
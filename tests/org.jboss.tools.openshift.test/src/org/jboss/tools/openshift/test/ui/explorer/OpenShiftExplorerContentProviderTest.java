@@ -17,7 +17,9 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.jboss.tools.openshift.common.core.connection.ConnectionsRegistry;
+import org.jboss.tools.openshift.common.core.connection.IConnection;
 import org.jboss.tools.openshift.core.connection.Connection;
+import org.jboss.tools.openshift.core.connection.ConnectionProperties;
 import org.jboss.tools.openshift.internal.ui.explorer.OpenShiftExplorerContentProvider;
 import org.jboss.tools.openshift.internal.ui.explorer.ResourceGrouping;
 import org.junit.Before;
@@ -39,7 +41,7 @@ import com.openshift.restclient.model.IService;
 public class OpenShiftExplorerContentProviderTest {
 
 	private ConnectionsRegistry registry;
-	private OpenShiftExplorerContentProvider provider;
+	private TestableOpenShiftExplorerContentProvider provider;
 	private Connection connection;
 	@Mock private IProject project;
 	@Mock private IClient client;
@@ -50,7 +52,7 @@ public class OpenShiftExplorerContentProviderTest {
 		registry = new ConnectionsRegistry();
 		connection = new Connection(client, null, null);
 		registry.add(connection);
-		provider = new OpenShiftExplorerContentProvider();
+		provider = new TestableOpenShiftExplorerContentProvider();
 	}
 	
 	private ResourceGrouping givenAResourceGroup(){
@@ -80,6 +82,65 @@ public class OpenShiftExplorerContentProviderTest {
 		assertArrayEquals("Exp. to get a set of resource groups for a project", groups, children);
 	}
 	
+	@Test
+	public void resourcesChangeWithAddedResourceShouldRefreshGroupingOnce(){
+		ResourceGrouping group = givenTheResourceGroupsOfAProject(ResourceKind.SERVICE);
+		IService foo = givenAResource(IService.class, ResourceKind.SERVICE, "foo");
+		IService bar = givenAResource(IService.class, ResourceKind.SERVICE, "bar");
+
+		provider.handleConnectionChanged(connection, ConnectionProperties.PROPERTY_RESOURCES, 
+				Arrays.asList(foo), Arrays.asList(foo, bar));
+
+		assertArrayEquals("Exp. the grouping to be refreshed once", new Object[] { group }, provider.getRefreshed().toArray());
+	}
+
+	@Test
+	public void resourcesChangeWithRemovedResourcesShouldRefreshGroupingOnce(){
+		ResourceGrouping group = givenTheResourceGroupsOfAProject(ResourceKind.SERVICE);
+		IService foo = givenAResource(IService.class, ResourceKind.SERVICE, "foo");
+		IService bar = givenAResource(IService.class, ResourceKind.SERVICE, "bar");
+
+		provider.handleConnectionChanged(connection, ConnectionProperties.PROPERTY_RESOURCES, 
+				Arrays.asList(foo, bar), new ArrayList<IService>());
+
+		assertArrayEquals("Exp. the grouping to be refreshed once", new Object[] { group }, provider.getRefreshed().toArray());
+	}
+
+	@Test
+	public void resourcesChangeWithSameNumberOfResourcesShouldRefreshEachResource(){
+		givenTheResourceGroupsOfAProject(ResourceKind.SERVICE);
+		IService foo = givenAResource(IService.class, ResourceKind.SERVICE, "foo");
+		IService bar = givenAResource(IService.class, ResourceKind.SERVICE, "bar");
+		IService modifiedFoo = givenAResource(IService.class, ResourceKind.SERVICE, "foo");
+		IService modifiedBar = givenAResource(IService.class, ResourceKind.SERVICE, "bar");
+
+		provider.handleConnectionChanged(connection, ConnectionProperties.PROPERTY_RESOURCES, 
+				Arrays.asList(foo, bar), Arrays.asList(modifiedFoo, modifiedBar));
+
+		assertArrayEquals("Exp. each modified resource to be refreshed, not the grouping", 
+				new Object[] { modifiedFoo, modifiedBar }, provider.getRefreshed().toArray());
+	}
+
+	private ResourceGrouping givenTheResourceGroupsOfAProject(String kind) {
+		when(project.getResources(anyString())).thenReturn(new ArrayList<IResource>());
+		for (Object child : provider.getChildrenFor(project)) {
+			ResourceGrouping group = (ResourceGrouping) child;
+			if (kind.equals(group.getKind())) {
+				return group;
+			}
+		}
+		fail("Exp. the project to have a grouping for " + kind);
+		return null;
+	}
+
+	private <T extends IResource> T givenAResource(Class<T> clazz, String kind, String name) {
+		T resource = mock(clazz);
+		when(resource.getKind()).thenReturn(kind);
+		when(resource.getName()).thenReturn(name);
+		when(resource.getProject()).thenReturn(project);
+		return resource;
+	}
+
 	@Test
 	public void getChildrenForConnectionReturnsProjects(){
 		List<IProject> projects = Arrays.asList(new IProject[]{project});
@@ -112,4 +173,26 @@ public class OpenShiftExplorerContentProviderTest {
 		assertTrue("Exp. #hasChildren to return true for IProject", provider.hasChildren(project));
 	}
 
+	/**
+	 * Records the elements that are refreshed instead of refreshing them in a viewer
+	 */
+	private static class TestableOpenShiftExplorerContentProvider extends OpenShiftExplorerContentProvider {
+
+		private List<Object> refreshed = new ArrayList<Object>();
+
+		@Override
+		public void handleConnectionChanged(IConnection connection, String property, Object oldValue, Object newValue) {
+			super.handleConnectionChanged(connection, property, oldValue, newValue);
+		}
+
+		@Override
+		protected void refreshViewer(Object object) {
+			refreshed.add(object);
+		}
+
+		public List<Object> getRefreshed() {
+			return refreshed;
+		}
+	}
+
 }
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.openshift.test.ui.treeitem;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.tools.openshift.internal.ui.treeitem.IModelFactory;
+import org.jboss.tools.openshift.internal.ui.treeitem.ObservableTreeItem;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ObservableTreeItemTest {
+
+	private static final Object ROOT = "connection";
+	private static final Object CHILD = "project";
+
+	@Mock
+	private IModelFactory factory;
+	private ObservableTreeItem item;
+
+	@Before
+	public void setup() {
+		when(factory.createChildren(ROOT)).thenReturn(Arrays.<Object> asList(CHILD));
+		when(factory.createChildren(CHILD)).thenReturn(Collections.emptyList());
+		this.item = new ObservableTreeItem(ROOT, factory);
+	}
+
+	@Test
+	public void loadShouldQueryChildrenAgainIfCalledTwice() {
+		// pre-condition
+		item.load();
+
+		// operation
+		item.load();
+
+		// verification
+		verify(factory, times(2)).createChildren(ROOT);
+		verify(factory, times(2)).createChildren(CHILD);
+		assertEquals(1, item.getChildren().size());
+	}
+
+	@Test
+	public void loadShouldReplaceChildrenByNewlyQueriedOnes() {
+		// pre-condition
+		item.load();
+		when(factory.createChildren(ROOT)).thenReturn(Collections.emptyList());
+
+		// operation
+		item.load();
+
+		// verification
+		assertTrue(item.getChildren().isEmpty());
+	}
+
+	@Test
+	public void loadOnceShouldNotQueryChildrenAgain() {
+		// pre-condition
+		item.loadOnce();
+
+		// operation
+		item.loadOnce();
+
+		// verification
+		verify(factory, times(1)).createChildren(ROOT);
+		assertTrue(item.isLoaded());
+	}
+
+	@Test
+	public void loadOnceShouldNotQueryChildrenLoadedBefore() {
+		// pre-condition
+		item.load();
+
+		// operation
+		item.loadOnce();
+
+		// verification
+		verify(factory, times(1)).createChildren(ROOT);
+	}
+}